@@ -25,14 +25,20 @@ import org.openhab.core.automation.module.script.ScriptDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
 import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * An implementation of {@link ScriptEngineFactory} with customizations for GraalJS ScriptEngines.
  *
@@ -46,6 +52,9 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
     private static final String CFG_INJECTION_CACHING_ENABLED = "injectionCachingEnabled";
+    private static final String CFG_ENGINE_POOL_ENABLED = "enginePoolEnabled";
+    private static final String CFG_ENGINE_POOL_SIZE = "enginePoolSize";
+    private static final String CFG_ENGINE_POOL_WARM_UP = "enginePoolWarmUp";
 
     private static final GraalJSEngineFactory factory = new GraalJSEngineFactory();
 
@@ -60,9 +69,11 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 
     private boolean injectionEnabled = true;
     private boolean injectionCachingEnabled = true;
+    private volatile @Nullable GraalJSScriptEnginePool enginePool;
 
     private final JSScriptServiceUtil jsScriptServiceUtil;
     private final JSDependencyTracker jsDependencyTracker;
+    private @Nullable MeterRegistry meterRegistry;
 
     @Activate
     public GraalJSScriptEngineFactory(final @Reference JSScriptServiceUtil jsScriptServiceUtil,
@@ -72,6 +83,28 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         modified(config);
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        GraalJSScriptEnginePool localEnginePool = enginePool;
+        if (localEnginePool != null) {
+            localEnginePool.setMeterRegistry(meterRegistry);
+        }
+    }
+
+    protected synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        meterRegistry = null;
+        GraalJSScriptEnginePool localEnginePool = enginePool;
+        if (localEnginePool != null) {
+            localEnginePool.setMeterRegistry(null);
+        }
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        closeEnginePool();
+    }
+
     @Override
     public List<String> getScriptTypes() {
         return scriptTypes;
@@ -88,7 +121,7 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
             return null;
         }
         return new DebuggingGraalScriptEngine<>(new OpenhabGraalJSScriptEngine(injectionEnabled,
-                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker));
+                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker, () -> enginePool));
     }
 
     @Override
@@ -97,9 +130,31 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     }
 
     @Modified
-    protected void modified(Map<String, ?> config) {
+    protected synchronized void modified(Map<String, ?> config) {
         this.injectionEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_ENABLED), Boolean.class, true);
         this.injectionCachingEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_CACHING_ENABLED),
                 Boolean.class, true);
+
+        // engines of the pool depend on the injection settings, so the pool is always recreated
+        closeEnginePool();
+        if (ConfigParser.valueAsOrElse(config.get(CFG_ENGINE_POOL_ENABLED), Boolean.class, false)) {
+            boolean poolInjectionEnabled = injectionEnabled;
+            boolean poolInjectionCachingEnabled = injectionCachingEnabled;
+            GraalJSScriptEnginePool localEnginePool = new GraalJSScriptEnginePool(
+                    () -> new OpenhabGraalJSScriptEngine(poolInjectionEnabled, poolInjectionCachingEnabled,
+                            jsScriptServiceUtil, jsDependencyTracker),
+                    ConfigParser.valueAsOrElse(config.get(CFG_ENGINE_POOL_SIZE), Integer.class, 4),
+                    ConfigParser.valueAsOrElse(config.get(CFG_ENGINE_POOL_WARM_UP), Integer.class, 1));
+            localEnginePool.setMeterRegistry(meterRegistry);
+            enginePool = localEnginePool;
+        }
+    }
+
+    private void closeEnginePool() {
+        GraalJSScriptEnginePool localEnginePool = enginePool;
+        enginePool = null;
+        if (localEnginePool != null) {
+            localEnginePool.close();
+        }
     }
 }
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.openhab.core.automation.module.script.ScriptEngineFactory.*;
+import static org.openhab.core.automation.module.script.ScriptTransformationService.OPENHAB_TRANSFORMATION_SCRIPT;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Source;
+import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A bounded pool of initialized {@link OpenhabGraalJSScriptEngine}s, which stateless scripts like JS transformations
+ * are evaluated on.
+ *
+ * All engines share the static {@link org.graalvm.polyglot.Engine} and the cached sources, so the code of a script is
+ * only parsed once for all engines. As a script only occupies an engine while it is evaluated, a script can be
+ * evaluated by several threads at the same time, and scripts do not need an initialized engine of their own.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class GraalJSScriptEnginePool implements AutoCloseable {
+    private static final String METRIC_WAIT = "openhab.automation.jsscripting.pool.wait";
+    private static final String METRIC_SIZE = "openhab.automation.jsscripting.pool.size";
+    private static final String METRIC_IDLE = "openhab.automation.jsscripting.pool.idle";
+    private static final long BORROW_TIMEOUT_MINUTES = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(GraalJSScriptEnginePool.class);
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    private final Supplier<OpenhabGraalJSScriptEngine> engineFactory;
+    private final int size;
+    private final int warmUp;
+
+    // guarded by itself, threads waiting for an engine wait on it
+    private final Deque<OpenhabGraalJSScriptEngine> idleEngines = new ArrayDeque<>();
+    // only set while holding the lock on idleEngines, so no engine is added to the pool after it has been closed
+    private volatile boolean closed = false;
+    private final AtomicInteger engineCount = new AtomicInteger();
+    private final AtomicBoolean warmUpStarted = new AtomicBoolean();
+
+    // guarded by this
+    private @Nullable MeterRegistry meterRegistry;
+    private List<Meter> meters = List.of();
+    private volatile @Nullable Timer waitTimer;
+
+    /**
+     * Creates a pool, engines are created on demand
+     *
+     * @param engineFactory creates a new engine, not yet initialized
+     * @param size maximum number of engines
+     * @param warmUp number of engines initialized in the background as soon as the first script is evaluated
+     */
+    GraalJSScriptEnginePool(Supplier<OpenhabGraalJSScriptEngine> engineFactory, int size, int warmUp) {
+        this.engineFactory = engineFactory;
+        this.size = Math.max(1, size);
+        this.warmUp = Math.min(this.size, Math.max(0, warmUp));
+    }
+
+    /**
+     * Sets the registry the pool metrics are reported to, replacing the registry set before
+     *
+     * @param meterRegistry the registry, or null to not report metrics
+     */
+    synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        removeMeters();
+        if (meterRegistry == null || closed) {
+            return;
+        }
+        Timer waitTimer = Timer.builder(METRIC_WAIT).description("Time scripts waited for a pooled JS engine")
+                .register(meterRegistry);
+        Gauge sizeGauge = Gauge.builder(METRIC_SIZE, engineCount, AtomicInteger::get)
+                .description("Number of pooled JS engines").register(meterRegistry);
+        Gauge idleGauge = Gauge.builder(METRIC_IDLE, this, GraalJSScriptEnginePool::getIdleCount)
+                .description("Number of idle pooled JS engines").register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.meters = List.of(waitTimer, sizeGauge, idleGauge);
+        this.waitTimer = waitTimer;
+    }
+
+    private synchronized void removeMeters() {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        if (meterRegistry != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+        this.meterRegistry = null;
+        this.meters = List.of();
+        this.waitTimer = null;
+    }
+
+    private int getIdleCount() {
+        synchronized (idleEngines) {
+            return idleEngines.size();
+        }
+    }
+
+    /**
+     * Evaluates a script on an engine of the pool
+     *
+     * @param scriptExtensionAccessor the accessor for the script extensions, used to initialize new engines
+     * @param source the script
+     * @param bindings the variables the script is evaluated with
+     * @return the result of the script
+     * @throws ScriptException if the script failed, the pool is closed, or no engine became available in time
+     */
+    @Nullable
+    Object eval(ScriptExtensionAccessor scriptExtensionAccessor, Source source, Map<String, Object> bindings)
+            throws ScriptException {
+        OpenhabGraalJSScriptEngine engine = borrow(scriptExtensionAccessor);
+        try {
+            return engine.evalPooled(source, bindings);
+        } finally {
+            release(engine);
+        }
+    }
+
+    private OpenhabGraalJSScriptEngine borrow(ScriptExtensionAccessor scriptExtensionAccessor)
+            throws ScriptException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MINUTES.toNanos(BORROW_TIMEOUT_MINUTES);
+        startWarmUp(scriptExtensionAccessor);
+        while (true) {
+            OpenhabGraalJSScriptEngine engine;
+            synchronized (idleEngines) {
+                checkNotClosed();
+                engine = idleEngines.pollFirst();
+            }
+            if (engine == null) {
+                engine = createEngine(scriptExtensionAccessor);
+            }
+            if (engine != null) {
+                Timer waitTimer = this.waitTimer;
+                if (waitTimer != null) {
+                    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                return engine;
+            }
+            // the pool is full, wait until an engine is released, or the pool is closed
+            synchronized (idleEngines) {
+                checkNotClosed();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ScriptException(
+                            "No pooled JS engine became available within " + BORROW_TIMEOUT_MINUTES + " minute(s)");
+                }
+                if (idleEngines.isEmpty()) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(idleEngines, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ScriptException("Interrupted while waiting for a pooled JS engine");
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkNotClosed() throws ScriptException {
+        if (closed) {
+            throw new ScriptException("The JS engine pool is closed");
+        }
+    }
+
+    private void release(OpenhabGraalJSScriptEngine engine) {
+        synchronized (idleEngines) {
+            if (!closed) {
+                idleEngines.offerFirst(engine);
+                idleEngines.notify();
+                return;
+            }
+        }
+        engine.close();
+    }
+
+    private void startWarmUp(ScriptExtensionAccessor scriptExtensionAccessor) {
+        if (closed || !warmUpStarted.compareAndSet(false, true)) {
+            return;
+        }
+        // the engine of the first script is created by the calling thread
+        for (int i = 1; i < warmUp; i++) {
+            scheduler.execute(() -> {
+                try {
+                    OpenhabGraalJSScriptEngine engine = createEngine(scriptExtensionAccessor);
+                    if (engine != null) {
+                        release(engine);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to warm up pooled JS engine: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates and initializes a new engine
+     *
+     * @return the engine, or null if the pool is full or closed
+     */
+    private @Nullable OpenhabGraalJSScriptEngine createEngine(ScriptExtensionAccessor scriptExtensionAccessor) {
+        int number = engineCount.incrementAndGet();
+        if (closed || number > size) {
+            engineCount.decrementAndGet();
+            return null;
+        }
+        logger.debug("Creating pooled JS engine {} of {}...", number, size);
+        OpenhabGraalJSScriptEngine engine;
+        try {
+            engine = engineFactory.get();
+            ScriptContext ctx = engine.getContext();
+            ctx.setAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER, OPENHAB_TRANSFORMATION_SCRIPT + "pool-" + number,
+                    ScriptContext.ENGINE_SCOPE);
+            ctx.setAttribute(CONTEXT_KEY_EXTENSION_ACCESSOR, scriptExtensionAccessor, ScriptContext.ENGINE_SCOPE);
+            // the engine is shared by many scripts, so dependencies can't be tracked per script
+            ctx.setAttribute(CONTEXT_KEY_DEPENDENCY_LISTENER, (Consumer<String>) dependency -> {
+            }, ScriptContext.ENGINE_SCOPE);
+            engine.initialize();
+        } catch (RuntimeException e) {
+            engineCount.decrementAndGet();
+            // a waiting thread can create an engine instead
+            synchronized (idleEngines) {
+                idleEngines.notify();
+            }
+            throw e;
+        }
+        return engine;
+    }
+
+    /**
+     * Closes the pool and its engines, engines in use are closed when they are released, and threads waiting for an
+     * engine fail immediately
+     */
+    @Override
+    public void close() {
+        List<OpenhabGraalJSScriptEngine> engines;
+        synchronized (idleEngines) {
+            closed = true;
+            engines = new ArrayList<>(idleEngines);
+            idleEngines.clear();
+            idleEngines.notifyAll();
+        }
+        removeMeters();
+        engines.forEach(OpenhabGraalJSScriptEngine::close);
+    }
+}
@@ -13,6 +13,7 @@
 package org.openhab.automation.jsscripting.internal;
 
 import static org.openhab.core.automation.module.script.ScriptEngineFactory.*;
+import static org.openhab.core.automation.module.script.ScriptTransformationService.OPENHAB_TRANSFORMATION_SCRIPT;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,6 +31,9 @@ import java.nio.file.attribute.FileAttribute;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -38,14 +42,19 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.openhab.automation.jsscripting.internal.fs.DelegatingFileSystem;
@@ -98,6 +107,13 @@ public class OpenhabGraalJSScriptEngine
     private static final String OPENHAB_JS_INJECTION_CODE = "Object.assign(this, require('openhab'));";
 
     private static final String REQUIRE_WRAPPER_NAME = "__wraprequire__";
+    /** Names of the bindings that can be passed to a pooled script as variables */
+    private static final Pattern IDENTIFIER = Pattern.compile("[\\p{L}_$][\\p{L}\\p{N}_$]*");
+    private static final Set<String> RESERVED_WORDS = Set.of("arguments", "await", "break", "case", "catch", "class",
+            "const", "continue", "debugger", "default", "delete", "do", "else", "enum", "eval", "export", "extends",
+            "false", "finally", "for", "function", "if", "implements", "import", "in", "instanceof", "interface", "let",
+            "new", "null", "package", "private", "protected", "public", "return", "static", "super", "switch", "this",
+            "throw", "true", "try", "typeof", "var", "void", "while", "with", "yield");
     /** Final CommonJS search path for our library */
     private static final Path NODE_DIR = Paths.get("node_modules");
     /** Shared Polyglot {@link Engine} across all instances of {@link OpenhabGraalJSScriptEngine} */
@@ -143,6 +159,10 @@ public class OpenhabGraalJSScriptEngine
     private boolean initialized = false;
     private final boolean injectionEnabled;
     private final boolean injectionCachingEnabled;
+    /** Provides the pool transformations are evaluated on, the pool is null if pooling is disabled */
+    private final Supplier<@Nullable GraalJSScriptEnginePool> enginePoolSupplier;
+    /** Functions evaluating pooled scripts in a scope of their own, by the names of their variables */
+    private final Map<List<String>, Value> scopeFunctions = new HashMap<>();
 
     /**
      * Creates an implementation of ScriptEngine {@code (& Invocable)}, wrapping the contained engine,
@@ -150,9 +170,21 @@ public class OpenhabGraalJSScriptEngine
      */
     public OpenhabGraalJSScriptEngine(boolean injectionEnabled, boolean injectionCachingEnabled,
             JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker) {
+        this(injectionEnabled, injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker, () -> null);
+    }
+
+    /**
+     * Creates an implementation of ScriptEngine {@code (& Invocable)}, wrapping the contained engine,
+     * that tracks the script lifecycle and provides hooks for scripts to do so too.
+     * If used for a transformation, the scripts are evaluated on the engines of the provided pool instead.
+     */
+    public OpenhabGraalJSScriptEngine(boolean injectionEnabled, boolean injectionCachingEnabled,
+            JSScriptServiceUtil jsScriptServiceUtil, JSDependencyTracker jsDependencyTracker,
+            Supplier<@Nullable GraalJSScriptEnginePool> enginePoolSupplier) {
         super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
         this.injectionEnabled = injectionEnabled;
         this.injectionCachingEnabled = injectionCachingEnabled;
+        this.enginePoolSupplier = enginePoolSupplier;
         this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
 
         LOGGER.debug("Initializing GraalJS script engine...");
@@ -315,6 +347,169 @@ public class OpenhabGraalJSScriptEngine
         jsRuntimeFeatures.close();
     }
 
+    @Override
+    public Object eval(String s) throws ScriptException {
+        if (getEnginePool() != null) {
+            return compile(s).eval();
+        }
+        return super.eval(s);
+    }
+
+    @Override
+    public Object eval(Reader reader) throws ScriptException {
+        if (getEnginePool() != null) {
+            return compile(reader).eval();
+        }
+        return super.eval(reader);
+    }
+
+    @Override
+    public CompiledScript compile(String s) throws ScriptException {
+        if (getEnginePool() != null) {
+            String name = (String) delegate.getContext().getAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER);
+            return new PooledCompiledScript(Source.newBuilder("js", s, name).cached(true).buildLiteral());
+        }
+        return super.compile(s);
+    }
+
+    @Override
+    public CompiledScript compile(Reader reader) throws ScriptException {
+        if (getEnginePool() != null) {
+            try {
+                String name = (String) delegate.getContext().getAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER);
+                return new PooledCompiledScript(Source.newBuilder("js", reader, name).cached(true).build());
+            } catch (IOException e) {
+                throw new ScriptException(e);
+            }
+        }
+        return super.compile(reader);
+    }
+
+    /**
+     * Returns the pool to evaluate the scripts of this engine on. Only transformations are evaluated on pooled
+     * engines, as they don't keep any state between their invocations.
+     *
+     * @return the pool, or null if the scripts are evaluated by this engine
+     */
+    private @Nullable GraalJSScriptEnginePool getEnginePool() {
+        GraalJSScriptEnginePool enginePool = enginePoolSupplier.get();
+        if (enginePool == null) {
+            return null;
+        }
+        Object identifier = delegate.getContext().getAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER);
+        return identifier instanceof String s && s.startsWith(OPENHAB_TRANSFORMATION_SCRIPT) ? enginePool : null;
+    }
+
+    /**
+     * Initializes the JS runtime of this engine, if not done yet
+     */
+    void initialize() {
+        beforeInvocation();
+        afterInvocation(null);
+    }
+
+    /**
+     * Evaluates a script of another engine on this engine, see {@link GraalJSScriptEnginePool}
+     *
+     * The script is evaluated in a scope of its own, so its declarations are neither visible to other scripts nor
+     * clash with theirs. Global variables the script assigns without declaring them are removed afterwards.
+     *
+     * @param source the script
+     * @param bindings the variables the script is evaluated with, names that can't be declared in JS are left out
+     * @return the result of the script
+     * @throws ScriptException if the script failed
+     */
+    @Nullable
+    Object evalPooled(Source source, Map<String, Object> bindings) throws ScriptException {
+        beforeInvocation();
+        Object result;
+        try {
+            Context context = delegate.getPolyglotContext();
+            Value globals = context.getBindings("js");
+            Set<String> globalNames = new HashSet<>(globals.getMemberKeys());
+            List<String> names = bindings.keySet().stream()
+                    .filter(name -> IDENTIFIER.matcher(name).matches() && !RESERVED_WORDS.contains(name)).sorted()
+                    .toList();
+            Object[] arguments = new Object[names.size() + 1];
+            for (int i = 0; i < names.size(); i++) {
+                arguments[i] = bindings.get(names.get(i));
+            }
+            arguments[names.size()] = source.getCharacters().toString();
+            try {
+                Value value = scopeFunctions.computeIfAbsent(names, this::createScopeFunction).execute(arguments);
+                result = value.isNull() ? null : value.as(Object.class);
+            } finally {
+                new HashSet<>(globals.getMemberKeys()).stream().filter(name -> !globalNames.contains(name))
+                        .forEach(globals::removeMember);
+            }
+        } catch (PolyglotException e) {
+            throw (ScriptException) afterThrowsInvocation(new ScriptException(e));
+        } catch (RuntimeException e) {
+            afterThrowsInvocation(e);
+            throw e;
+        }
+        return afterInvocation(result);
+    }
+
+    /**
+     * Creates a function evaluating the script given as its last argument with the other arguments as variables.
+     * The direct eval in non-strict mode keeps the completion value of the script as result, and declares its
+     * variables and functions in the scope of the function call instead of the global scope.
+     *
+     * @param names the names of the variables
+     * @return the function
+     */
+    private Value createScopeFunction(List<String> names) {
+        return delegate.getPolyglotContext().eval("js",
+                "(function (" + String.join(", ", names) + ") { return eval(arguments[" + names.size() + "]); })");
+    }
+
+    /**
+     * Whether a binding of this engine can be passed to a pooled engine, i.e. is no JS value of this engine
+     */
+    private static boolean isHostValue(@Nullable Object value) {
+        return value == null
+                || !(value instanceof Value) && !value.getClass().getName().startsWith("com.oracle.truffle.");
+    }
+
+    /**
+     * A script compiled for evaluation on the engines of the pool. The variables of the context, like the input and
+     * the parameters of a transformation, are passed to the pooled engine.
+     */
+    private class PooledCompiledScript extends CompiledScript {
+        private final Source source;
+
+        PooledCompiledScript(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public @Nullable Object eval(ScriptContext context) throws ScriptException {
+            GraalJSScriptEnginePool enginePool = getEnginePool();
+            if (enginePool == null) {
+                // pooling was disabled in the meantime
+                return OpenhabGraalJSScriptEngine.this.eval(source.getCharacters().toString(), context);
+            }
+            ScriptExtensionAccessor scriptExtensionAccessor = (ScriptExtensionAccessor) context
+                    .getAttribute(CONTEXT_KEY_EXTENSION_ACCESSOR);
+            if (scriptExtensionAccessor == null) {
+                throw new IllegalStateException("Failed to retrieve script extension accessor from engine bindings");
+            }
+            Map<String, Object> bindings = new HashMap<>();
+            context.getBindings(ScriptContext.ENGINE_SCOPE).forEach((name, value) -> {
+                if (!name.startsWith("oh.") && !name.startsWith("javax.script.") && isHostValue(value)) {
+                    bindings.put(name, value);
+                }
+            });
+            return enginePool.eval(scriptExtensionAccessor, source, bindings);
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return OpenhabGraalJSScriptEngine.this;
+        }
+    }
+
     /**
      * Tests if this is a root node directory, `/node_modules`, `C:\node_modules`, etc...
      *
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the {@link GraalJSScriptEnginePool} with mocked engines
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSScriptEnginePoolTest {
+
+    private static final Source SOURCE = Source.create("js", "'result'");
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final ScriptExtensionAccessor scriptExtensionAccessor = mock(ScriptExtensionAccessor.class);
+    private final List<OpenhabGraalJSScriptEngine> engines = new CopyOnWriteArrayList<>();
+    // engines wait for this latch while evaluating a script
+    private volatile CountDownLatch evaluating = new CountDownLatch(0);
+    private @Nullable GraalJSScriptEnginePool pool;
+
+    @AfterEach
+    public void tearDown() {
+        evaluating.countDown();
+        GraalJSScriptEnginePool localPool = pool;
+        if (localPool != null) {
+            localPool.close();
+        }
+    }
+
+    private GraalJSScriptEnginePool createPool(int size, int warmUp) {
+        GraalJSScriptEnginePool localPool = new GraalJSScriptEnginePool(this::createEngine, size, warmUp);
+        pool = localPool;
+        return localPool;
+    }
+
+    private OpenhabGraalJSScriptEngine createEngine() {
+        OpenhabGraalJSScriptEngine engine = mock(OpenhabGraalJSScriptEngine.class);
+        when(engine.getContext()).thenReturn(new SimpleScriptContext());
+        try {
+            when(engine.evalPooled(any(), any())).thenAnswer(invocation -> {
+                evaluating.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                return "result";
+            });
+        } catch (ScriptException e) {
+            throw new IllegalStateException(e);
+        }
+        engines.add(engine);
+        return engine;
+    }
+
+    private CompletableFuture<@Nullable Object> evalAsync(GraalJSScriptEnginePool pool) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.eval(scriptExtensionAccessor, SOURCE, Map.of());
+            } catch (ScriptException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void awaitEngineCount(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (engines.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, engines.size());
+    }
+
+    @Test
+    public void testEngineIsReused() throws Exception {
+        GraalJSScriptEnginePool pool = createPool(2, 0);
+
+        assertEquals("result", pool.eval(scriptExtensionAccessor, SOURCE, Map.of()));
+        assertEquals("result", pool.eval(scriptExtensionAccessor, SOURCE, Map.of()));
+
+        assertEquals(1, engines.size());
+        verify(engines.get(0)).initialize();
+        verify(engines.get(0), times(2)).evalPooled(any(), any());
+    }
+
+    @Test
+    public void testEnginesAreCreatedUpToSize() throws Exception {
+        GraalJSScriptEnginePool pool = createPool(2, 0);
+        evaluating = new CountDownLatch(1);
+
+        CompletableFuture<@Nullable Object> first = evalAsync(pool);
+        CompletableFuture<@Nullable Object> second = evalAsync(pool);
+        awaitEngineCount(2);
+        CompletableFuture<@Nullable Object> third = evalAsync(pool);
+        evaluating.countDown();
+
+        assertEquals("result", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("result", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        // the third script waited for a released engine
+        assertEquals("result", third.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(2, engines.size());
+    }
+
+    @Test
+    public void testCloseClosesIdleEngines() throws Exception {
+        GraalJSScriptEnginePool pool = createPool(2, 0);
+        pool.eval(scriptExtensionAccessor, SOURCE, Map.of());
+
+        pool.close();
+
+        verify(engines.get(0)).close();
+        assertThrows(ScriptException.class, () -> pool.eval(scriptExtensionAccessor, SOURCE, Map.of()));
+        assertEquals(1, engines.size());
+    }
+
+    @Test
+    public void testCloseWakesWaitingThreadsAndClosesEnginesInUse() throws Exception {
+        GraalJSScriptEnginePool pool = createPool(1, 0);
+        evaluating = new CountDownLatch(1);
+        CompletableFuture<@Nullable Object> running = evalAsync(pool);
+        awaitEngineCount(1);
+        CompletableFuture<@Nullable Object> waiting = evalAsync(pool);
+        // give the second script the time to start waiting for the engine
+        Thread.sleep(200);
+
+        pool.close();
+
+        // the waiting script fails right away instead of waiting for the borrow timeout
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> waiting.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(ScriptException.class, e.getCause().getCause());
+        verify(engines.get(0), never()).close();
+
+        // the engine in use is closed when it is released, instead of being added to the closed pool
+        evaluating.countDown();
+        assertEquals("result", running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        verify(engines.get(0)).close();
+    }
+
+    @Test
+    public void testFailedWarmUpFreesItsSlot() throws Exception {
+        Thread testThread = Thread.currentThread();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger(2);
+        GraalJSScriptEnginePool pool = new GraalJSScriptEnginePool(() -> {
+            calls.incrementAndGet();
+            // the engines of the warm-up fail, they are created by other threads than the first script
+            if (Thread.currentThread() != testThread && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("warm-up failed");
+            }
+            return createEngine();
+        }, 3, 3);
+        this.pool = pool;
+
+        assertEquals("result", pool.eval(scriptExtensionAccessor, SOURCE, Map.of()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (calls.get() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, calls.get());
+
+        // while the first engine is in use, another engine can be created in place of the failed ones
+        evaluating = new CountDownLatch(1);
+        CompletableFuture<@Nullable Object> first = evalAsync(pool);
+        CompletableFuture<@Nullable Object> second = evalAsync(pool);
+        awaitEngineCount(2);
+        evaluating.countDown();
+        assertEquals("result", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("result", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GraalJSScriptEnginePool pool = createPool(2, 0);
+        pool.setMeterRegistry(meterRegistry);
+
+        pool.eval(scriptExtensionAccessor, SOURCE, Map.of());
+
+        assertEquals(1, meterRegistry.get("openhab.automation.jsscripting.pool.wait").timer().count());
+        assertEquals(1, meterRegistry.get("openhab.automation.jsscripting.pool.size").gauge().value());
+        assertEquals(1, meterRegistry.get("openhab.automation.jsscripting.pool.idle").gauge().value());
+
+        pool.setMeterRegistry(null);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+        // scripts are still evaluated without a registry
+        assertEquals("result", pool.eval(scriptExtensionAccessor, SOURCE, Map.of()));
+
+        pool.setMeterRegistry(meterRegistry);
+        pool.close();
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.core.automation.module.script.ScriptEngineFactory.*;
+import static org.openhab.core.automation.module.script.ScriptTransformationService.OPENHAB_TRANSFORMATION_SCRIPT;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import javax.script.SimpleScriptContext;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
+import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
+import org.openhab.core.automation.module.script.action.ScriptExecution;
+import org.openhab.core.scheduler.Scheduler;
+
+/**
+ * Tests the evaluation of transformations on a {@link GraalJSScriptEnginePool} of real engines
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class OpenhabGraalJSScriptEngineTest {
+
+    private final ScriptExtensionAccessor scriptExtensionAccessor = mock(ScriptExtensionAccessor.class);
+    private final JSScriptServiceUtil jsScriptServiceUtil = new JSScriptServiceUtil(mock(Scheduler.class),
+            mock(ScriptExecution.class));
+    private final JSDependencyTracker jsDependencyTracker = mock(JSDependencyTracker.class);
+
+    private @NonNullByDefault({}) GraalJSScriptEnginePool pool;
+    private @NonNullByDefault({}) OpenhabGraalJSScriptEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        when(jsDependencyTracker.getLibraryPath()).thenReturn(Path.of("automation", "js", "node_modules"));
+        // a single engine, so all transformations are evaluated on the same one
+        pool = new GraalJSScriptEnginePool(
+                () -> new OpenhabGraalJSScriptEngine(false, true, jsScriptServiceUtil, jsDependencyTracker), 1, 0);
+        engine = new OpenhabGraalJSScriptEngine(false, true, jsScriptServiceUtil, jsDependencyTracker, () -> pool);
+        engine.getContext().setAttribute(CONTEXT_KEY_ENGINE_IDENTIFIER, OPENHAB_TRANSFORMATION_SCRIPT + "test",
+                ScriptContext.ENGINE_SCOPE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+        engine.close();
+    }
+
+    private @Nullable Object eval(String script, Map<String, Object> bindings) throws ScriptException {
+        CompiledScript compiledScript = engine.compile(script);
+        SimpleBindings engineBindings = new SimpleBindings();
+        engineBindings.putAll(bindings);
+        engineBindings.put(CONTEXT_KEY_EXTENSION_ACCESSOR, scriptExtensionAccessor);
+        ScriptContext context = new SimpleScriptContext();
+        context.setBindings(engineBindings, ScriptContext.ENGINE_SCOPE);
+        return compiledScript.eval(context);
+    }
+
+    @Test
+    public void testBindingsArePassedToThePooledEngine() throws Exception {
+        try (Context otherContext = Context.create("js")) {
+            Object result = eval("typeof input + ':' + input + ':' + typeof jsValue + ':' + typeof undefinedValue",
+                    Map.of("input", "hello", "jsValue", otherContext.eval("js", "({})"), "oh.private", "private",
+                            "javax.script.filename", "test.js"));
+
+            // values of another JS context can't be passed to the pooled engine
+            assertEquals("string:hello:undefined:undefined", result);
+        }
+    }
+
+    @Test
+    public void testBindingsAreRemoved() throws Exception {
+        assertEquals("hello", eval("input", Map.of("input", "hello")));
+
+        assertEquals("undefined", eval("typeof input", Map.of()));
+    }
+
+    @Test
+    public void testNamesThatCannotBeDeclaredAreLeftOut() throws Exception {
+        assertEquals("hello:undefined", eval("input + ':' + typeof globalThis['my-param']",
+                Map.of("input", "hello", "my-param", "value", "default", "value")));
+    }
+
+    @Test
+    public void testTransformationsAreIsolated() throws Exception {
+        String first = "var counter = 1; let shared = 'first'; function helper() { return shared; } helper()";
+        String second = "let shared = 'second'; typeof counter + ':' + typeof helper + ':' + shared";
+
+        assertEquals("first", eval(first, Map.of()));
+        assertEquals("undefined:undefined:second", eval(second, Map.of()));
+        // declaring the same lexical variable again is no redeclaration
+        assertEquals("first", eval(first, Map.of()));
+    }
+
+    @Test
+    public void testUndeclaredGlobalsAreRemoved() throws Exception {
+        assertEquals(1, ((Number) eval("leaked = 1; leaked", Map.of())).intValue());
+
+        assertEquals("undefined", eval("typeof leaked", Map.of()));
+    }
+}
@@ -15,12 +15,14 @@ package org.openhab.binding.http.internal;
 import static org.openhab.binding.http.internal.HttpBindingConstants.THING_TYPE_URL;
 
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
@@ -31,9 +33,13 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * The {@link HttpHandlerFactory} is responsible for creating things and thing
  * handlers.
@@ -51,6 +57,9 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory implements HttpC
 
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
     private final TimeZoneProvider timeZoneProvider;
+    private @Nullable MeterRegistry meterRegistry;
+    // handlers reporting metrics, their meters move along when the registry changes
+    private final Set<HttpThingHandler> handlers = new CopyOnWriteArraySet<>();
 
     @Activate
     public HttpHandlerFactory(@Reference HttpClientFactory httpClientFactory,
@@ -90,16 +99,37 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory implements HttpC
     }
 
     @Override
-    protected @Nullable ThingHandler createHandler(Thing thing) {
+    protected synchronized @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_URL.equals(thingTypeUID)) {
-            return new HttpThingHandler(thing, this, httpDynamicStateDescriptionProvider, timeZoneProvider);
+            HttpThingHandler handler = new HttpThingHandler(thing, this, httpDynamicStateDescriptionProvider,
+                    timeZoneProvider);
+            handler.setMeterRegistry(meterRegistry);
+            handlers.add(handler);
+            return handler;
         }
 
         return null;
     }
 
+    @Override
+    protected void removeHandler(ThingHandler thingHandler) {
+        handlers.remove(thingHandler);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry localMeterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        meterRegistry = localMeterRegistry;
+        handlers.forEach(handler -> handler.setMeterRegistry(localMeterRegistry));
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        meterRegistry = null;
+        handlers.forEach(handler -> handler.setMeterRegistry(null));
+    }
+
     @Override
     public HttpClient getSecureClient() {
         return secureClient;
@@ -40,6 +40,7 @@ import org.eclipse.jetty.client.util.DigestAuthentication;
 import org.openhab.binding.http.internal.config.HttpChannelConfig;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
 import org.openhab.binding.http.internal.http.HttpAuthException;
+import org.openhab.binding.http.internal.http.HttpRequestMeters;
 import org.openhab.binding.http.internal.http.HttpResponseListener;
 import org.openhab.binding.http.internal.http.HttpStatusListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
@@ -75,6 +76,8 @@ import org.openhab.core.types.StateDescriptionFragmentBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * The {@link HttpThingHandler} is responsible for handling commands, which are
  * sent to one of the channels.
@@ -90,6 +93,9 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
     private final RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
     private final TimeZoneProvider timeZoneProvider;
+    private final HttpRequestMeters requestMeters;
+    private @Nullable MeterRegistry meterRegistry;
+    private boolean metersEnabled;
 
     private HttpThingConfig config = new HttpThingConfig();
     private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
@@ -104,6 +110,26 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClientProvider.getSecureClient(), scheduler);
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
         this.timeZoneProvider = timeZoneProvider;
+        this.requestMeters = new HttpRequestMeters(thing.getUID(), rateLimitedHttpClient);
+    }
+
+    /**
+     * Set the registry of the meters reporting the state requests of this thing
+     *
+     * The meters of an initialized thing are moved to the given registry right away.
+     *
+     * @param meterRegistry registry of the meters, or <code>null</code> to not report any metrics
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (metersEnabled) {
+            requestMeters.setMeterRegistry(meterRegistry);
+        }
+    }
+
+    private synchronized void enableMeters(boolean enabled) {
+        metersEnabled = enabled;
+        requestMeters.setMeterRegistry(enabled ? meterRegistry : null);
     }
 
     @Override
@@ -224,6 +250,8 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         } catch (URISyntaxException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Cannot create URI from baseUrl.");
         }
+        enableMeters(true);
+
         // create channels
         thing.getChannels().forEach(this::createChannel);
 
@@ -246,6 +274,7 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         // stop update tasks
         urlHandlers.values().forEach(RefreshingUrlCache::stop);
         rateLimitedHttpClient.shutdown();
+        enableMeters(false);
 
         // clear lists
         urlHandlers.clear();
@@ -335,7 +364,7 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
             Objects.requireNonNull(
                     urlHandlers.computeIfAbsent(key,
                             k -> new RefreshingUrlCache(rateLimitedHttpClient, stateUrl, config,
-                                    channelConfig.stateContent, config.contentType, this)))
+                                    channelConfig.stateContent, config.contentType, this, requestMeters)))
                     .addConsumer(itemValueConverter::process);
         }
 
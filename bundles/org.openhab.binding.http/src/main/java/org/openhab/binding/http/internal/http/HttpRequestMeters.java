@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ThingUID;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The {@link HttpRequestMeters} reports the duration of the state requests and the size of the request queue of a
+ * thing
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HttpRequestMeters {
+    private static final String METRIC_REQUEST = "openhab.binding.http.request";
+    private static final String METRIC_QUEUE_SIZE = "openhab.binding.http.queue.size";
+
+    private final Tags tags;
+    private final RateLimitedHttpClient httpClient;
+    private @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Timer successTimer;
+    private volatile @Nullable Timer failureTimer;
+    private final List<Meter> meters = new ArrayList<>();
+
+    public HttpRequestMeters(ThingUID thingUID, RateLimitedHttpClient httpClient) {
+        this.tags = Tags.of("binding", thingUID.getBindingId(), "thing", thingUID.getAsString());
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Move the meters to the given registry
+     *
+     * @param meterRegistry registry of the meters, or <code>null</code> to remove them
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        MeterRegistry oldMeterRegistry = this.meterRegistry;
+        if (oldMeterRegistry != null) {
+            meters.forEach(oldMeterRegistry::remove);
+        }
+        meters.clear();
+        successTimer = null;
+        failureTimer = null;
+        this.meterRegistry = meterRegistry;
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer localSuccessTimer = Timer.builder(METRIC_REQUEST).description("Duration of the state requests")
+                .tags(tags).tag("result", "success").register(meterRegistry);
+        Timer localFailureTimer = Timer.builder(METRIC_REQUEST).description("Duration of the state requests")
+                .tags(tags).tag("result", "failure").register(meterRegistry);
+        Gauge queueSizeGauge = Gauge.builder(METRIC_QUEUE_SIZE, httpClient, RateLimitedHttpClient::getQueueSize)
+                .description("Number of requests waiting for the rate limit").tags(tags).register(meterRegistry);
+        meters.addAll(List.of(localSuccessTimer, localFailureTimer, queueSizeGauge));
+        successTimer = localSuccessTimer;
+        failureTimer = localFailureTimer;
+    }
+
+    /**
+     * Record a finished request, if the meters are registered
+     *
+     * @param startNanos value of {@link System#nanoTime()} when the request was sent
+     * @param success <code>false</code> if the request failed or returned no content
+     */
+    public void record(long startNanos, boolean success) {
+        Timer timer = success ? successTimer : failureTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
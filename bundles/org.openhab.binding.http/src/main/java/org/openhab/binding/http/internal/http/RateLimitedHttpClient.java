@@ -81,6 +81,15 @@ public class RateLimitedHttpClient {
         }
     }
 
+    /**
+     * Get the number of requests waiting for the rate limit
+     *
+     * @return number of queued requests
+     */
+    public int getQueueSize() {
+        return requestQueue.size() + priorityRequestQueue.size();
+    }
+
     /**
      * Set the HTTP client
      *
@@ -58,12 +58,19 @@ public class RefreshingUrlCache {
     private final String httpContent;
     private final @Nullable String httpContentType;
     private final HttpStatusListener httpStatusListener;
+    private final @Nullable HttpRequestMeters requestMeters;
 
     private @Nullable ScheduledFuture<?> future;
     private @Nullable ChannelHandlerContent lastContent;
 
     public RefreshingUrlCache(RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig,
             String httpContent, @Nullable String httpContentType, HttpStatusListener httpStatusListener) {
+        this(httpClient, url, thingConfig, httpContent, httpContentType, httpStatusListener, null);
+    }
+
+    public RefreshingUrlCache(RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig,
+            String httpContent, @Nullable String httpContentType, HttpStatusListener httpStatusListener,
+            @Nullable HttpRequestMeters requestMeters) {
         this.httpClient = httpClient;
         this.url = url;
         this.strictErrorHandling = thingConfig.strictErrorHandling;
@@ -74,6 +81,7 @@ public class RefreshingUrlCache {
         this.httpContent = httpContent;
         this.httpContentType = httpContentType;
         this.httpStatusListener = httpStatusListener;
+        this.requestMeters = requestMeters;
         fallbackEncoding = thingConfig.encoding;
     }
 
@@ -132,6 +140,13 @@ public class RefreshingUrlCache {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
+                HttpRequestMeters localRequestMeters = requestMeters;
+                if (localRequestMeters != null) {
+                    long startNanos = System.nanoTime();
+                    responseContentFuture.whenComplete(
+                            (content, t) -> localRequestMeters.record(startNanos, t == null && content != null));
+                }
+
                 request.send(new HttpResponseListener(responseContentFuture, fallbackEncoding, bufferSize,
                         httpStatusListener));
             }).exceptionally(e -> {
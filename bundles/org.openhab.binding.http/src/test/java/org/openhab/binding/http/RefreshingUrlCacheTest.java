@@ -43,11 +43,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.binding.http.internal.http.HttpRequestMeters;
 import org.openhab.binding.http.internal.http.HttpStatusListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
 import org.openhab.binding.http.internal.http.RefreshingUrlCache;
+import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * The {@link RefreshingUrlCacheTest} implements tests for the {@link RefreshingUrlCache}
  *
@@ -229,6 +234,30 @@ public class RefreshingUrlCacheTest extends AbstractWireMockTest {
         assertEquals(TEST_CONTENT, returnedBody);
     }
 
+    @Test
+    public void testRequestsAreMetered() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpRequestMeters requestMeters = new HttpRequestMeters(new ThingUID("http:url:test"), rateLimitedHttpClient);
+        requestMeters.setMeterRegistry(meterRegistry);
+
+        RefreshingUrlCache urlCache = new RefreshingUrlCache(rateLimitedHttpClient, url, thingConfig, TEST_CONTENT,
+                null, statusListener, requestMeters);
+        urlCache.addConsumer(contentWrappers::add);
+        urlCache.start(scheduler, thingConfig.refresh);
+
+        Timer successTimer = meterRegistry.get("openhab.binding.http.request").tag("thing", "http:url:test")
+                .tag("result", "success").timer();
+        waitForAssert(() -> assertTrue(successTimer.count() >= 2));
+        urlCache.stop();
+        assertEquals(0, meterRegistry.get("openhab.binding.http.request").tag("result", "failure").timer().count());
+
+        requestMeters.setMeterRegistry(null);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+        // requests are still handled without meters
+        requestMeters.record(System.nanoTime(), true);
+    }
+
     @Test
     public void testDateIsFormattedInURL() {
         stubFor(get(urlPathEqualTo(TEST_LOCATION))
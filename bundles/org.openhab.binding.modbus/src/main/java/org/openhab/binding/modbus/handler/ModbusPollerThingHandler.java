@@ -20,9 +20,14 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.ModbusBindingConstants;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ModbusDecodedRegisters;
+import org.openhab.binding.modbus.internal.ModbusPollCoalescer;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
+import org.openhab.binding.modbus.internal.handler.AbstractModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
@@ -46,6 +51,12 @@ import org.openhab.core.types.Command;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * The {@link ModbusPollerThingHandler} is responsible for polling Modbus slaves. Errors and data is delegated to
  * child thing handlers inheriting from {@link ModbusReadCallback} -- in practice: {@link ModbusDataThingHandler}.
@@ -85,7 +96,16 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                 }
             }
             logger.debug("Thing {} received response {}", thing.getUID(), result);
-            notifyChildren(result);
+            Timer localProcessingTimer = processingTimer;
+            if (localProcessingTimer != null) {
+                localProcessingTimer.record(() -> notifyChildren(result));
+            } else {
+                notifyChildren(result);
+            }
+            Counter resultCounter = result.failure != null ? failureCounter : successCounter;
+            if (resultCounter != null) {
+                resultCounter.increment();
+            }
             if (result.failure != null) {
                 Exception error = result.failure.getCause();
                 assert error != null;
@@ -139,9 +159,13 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             AsyncModbusReadResult result = pollResult.result;
             @Nullable
             AsyncModbusFailure<ModbusReadRequestBlueprint> failure = pollResult.failure;
+            // decode the registers only once for all children
+            @Nullable
+            ModbusDecodedRegisters decodedRegisters = result == null ? null
+                    : result.getRegisters().map(ModbusDecodedRegisters::new).orElse(null);
             childCallbacks.forEach(handler -> {
                 if (result != null) {
-                    handler.onReadResult(result);
+                    handler.onReadResult(result, decodedRegisters);
                 } else if (failure != null) {
                     handler.handleReadError(failure);
                 }
@@ -183,12 +207,17 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
     private final Logger logger = LoggerFactory.getLogger(ModbusPollerThingHandler.class);
 
+    private static final String METRIC_POLL_PROCESSING = "openhab.binding.modbus.poll.processing";
+    private static final String METRIC_POLL_RESULTS = "openhab.binding.modbus.poll.results";
+
     private static final List<String> SORTED_READ_FUNCTION_CODES = ModbusBindingConstantsInternal.READ_FUNCTION_CODES
             .keySet().stream().sorted().collect(Collectors.toUnmodifiableList());
 
     private @NonNullByDefault({}) ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
+    private volatile @Nullable ModbusPollCoalescer pollCoalescer;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
     private volatile @Nullable ModbusReadRequestBlueprint request;
     private volatile boolean disposed;
     private volatile List<ModbusDataThingHandler> childCallbacks = new CopyOnWriteArrayList<>();
@@ -199,10 +228,32 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
 
     private @Nullable ModbusReadFunctionCode functionCode;
 
+    private @Nullable MeterRegistry meterRegistry;
+    private boolean metersEnabled;
+    private volatile @Nullable Timer processingTimer;
+    private volatile @Nullable Counter successCounter;
+    private volatile @Nullable Counter failureCounter;
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
     public ModbusPollerThingHandler(Bridge bridge) {
         super(bridge);
     }
 
+    /**
+     * Set the registry of the meters reporting the processing time and the results of the polls
+     *
+     * The meters of an initialized poller are moved to the given registry right away.
+     *
+     * @param meterRegistry registry of the meters, or <code>null</code> to not report any metrics
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        removeMeters();
+        this.meterRegistry = meterRegistry;
+        if (metersEnabled) {
+            registerMeters();
+        }
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         // No channels, no commands
@@ -276,6 +327,8 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                     break;
             }
             cacheMillis = this.config.getCacheMillis();
+            metersEnabled = true;
+            registerMeters();
             registerPollTask();
         } catch (EndpointNotInitializedException e) {
             logger.debug("Exception during initialization", e);
@@ -295,6 +348,39 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         this.callbackDelegator.resetCache();
         comms = null;
         lastPolledDataCache.set(null);
+        metersEnabled = false;
+        removeMeters();
+    }
+
+    private void registerMeters() {
+        MeterRegistry localMeterRegistry = meterRegistry;
+        if (localMeterRegistry == null || processingTimer != null) {
+            return;
+        }
+        Tags tags = Tags.of("binding", ModbusBindingConstants.BINDING_ID, "thing", getThing().getUID().getAsString());
+        Timer localProcessingTimer = Timer.builder(METRIC_POLL_PROCESSING)
+                .description("Time to decode a poll result and update the data things").tags(tags)
+                .register(localMeterRegistry);
+        Counter localSuccessCounter = Counter.builder(METRIC_POLL_RESULTS).description("Number of poll results")
+                .tags(tags).tag("result", "success").register(localMeterRegistry);
+        Counter localFailureCounter = Counter.builder(METRIC_POLL_RESULTS).description("Number of poll results")
+                .tags(tags).tag("result", "failure").register(localMeterRegistry);
+        meters.addAll(List.of(localProcessingTimer, localSuccessCounter, localFailureCounter));
+        processingTimer = localProcessingTimer;
+        successCounter = localSuccessCounter;
+        failureCounter = localFailureCounter;
+    }
+
+    private void removeMeters() {
+        MeterRegistry localMeterRegistry = meterRegistry;
+        if (localMeterRegistry == null) {
+            return;
+        }
+        meters.forEach(localMeterRegistry::remove);
+        meters.clear();
+        processingTimer = null;
+        successCounter = null;
+        failureCounter = null;
     }
 
     /**
@@ -313,6 +399,13 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             comms.unregisterRegularPoll(localPollTask);
         }
         this.pollTask = null;
+        ModbusPollCoalescer localPollCoalescer = this.pollCoalescer;
+        if (localPollCoalescer != null) {
+            logger.debug("Unregistering polling from endpoint");
+            localPollCoalescer.unregister(getThing().getUID());
+        }
+        this.pollCoalescer = null;
+        writeCoalescer = null;
         request = null;
         comms = null;
         updateStatus(ThingStatus.OFFLINE);
@@ -327,7 +420,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     @SuppressWarnings("null")
     private synchronized void registerPollTask() throws EndpointNotInitializedException {
         logger.trace("registerPollTask()");
-        if (pollTask != null) {
+        if (pollTask != null || pollCoalescer != null) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR);
             logger.debug("pollTask should be unregistered before registering a new one!");
             return;
@@ -357,9 +450,22 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
                 localFunctionCode, config.getStart(), config.getLength(), config.getMaxTries());
         this.request = localRequest;
 
+        @Nullable
+        ModbusPollCoalescer localPollCoalescer = null;
+        if (slaveEndpointThingHandler instanceof AbstractModbusEndpointThingHandler<?, ?> endpointHandler) {
+            localPollCoalescer = endpointHandler.getPollCoalescer();
+            writeCoalescer = endpointHandler.getWriteCoalescer();
+        }
         if (config.getRefresh() <= 0L) {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
+        } else if (localPollCoalescer != null) {
+            // the endpoint merges the polls of its pollers
+            logger.debug("Registering polling with endpoint");
+            localPollCoalescer.register(getThing().getUID(), localRequest, config.getRefresh(), callbackDelegator,
+                    callbackDelegator);
+            pollCoalescer = localPollCoalescer;
+            updateStatus(ThingStatus.ONLINE);
         } else {
             logger.debug("Registering polling with ModbusManager");
             pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
@@ -417,6 +523,15 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
         return comms;
     }
 
+    /**
+     * Get the coalescer combining the writes to the endpoint of this poller
+     *
+     * @return coalescer or <code>null</code> if the endpoint does not combine writes
+     */
+    public @Nullable ModbusWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
     /**
      * Refresh the data
      *
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * Values decoded from the registers of one poll result, shared by all data things of the poller.
+ *
+ * Each value is decoded only once, when it is first requested. The registers are not copied, so a new instance must
+ * be created for each poll result that is passed to the data things.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusDecodedRegisters {
+
+    private record Key(int index, ValueType type) {
+    }
+
+    private final ModbusRegisterArray registers;
+    private final Map<Key, Optional<DecimalType>> values = new ConcurrentHashMap<>();
+
+    public ModbusDecodedRegisters(ModbusRegisterArray registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Get the decoded value
+     *
+     * @param index index of the value, see {@link ModbusBitUtilities#extractStateFromRegisters}
+     * @param type type of the value
+     * @return decoded value, or empty if the value is not a number (e.g. floating point NaN)
+     */
+    public Optional<DecimalType> getState(int index, ValueType type) {
+        return values.computeIfAbsent(new Key(index, type),
+                key -> ModbusBitUtilities.extractStateFromRegisters(registers, index, type));
+    }
+
+    public ModbusRegisterArray getRegisters() {
+        return registers;
+    }
+}
@@ -16,13 +16,16 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
+import org.openhab.binding.modbus.internal.handler.AbstractModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusSerialThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusTcpThingHandler;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.transport.modbus.ModbusManager;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Thing;
@@ -32,9 +35,13 @@ import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * The {@link ModbusHandlerFactory} is responsible for creating things and thing
  * handlers.
@@ -48,6 +55,9 @@ public class ModbusHandlerFactory extends BaseThingHandlerFactory {
     private final Logger logger = LoggerFactory.getLogger(ModbusHandlerFactory.class);
 
     private @NonNullByDefault({}) ModbusManager manager;
+    private @Nullable MeterRegistry meterRegistry;
+    // handlers reporting metrics, their meters move along when the registry changes
+    private final Set<ThingHandler> meteredHandlers = new CopyOnWriteArraySet<>();
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = new HashSet<>();
     static {
@@ -63,17 +73,26 @@ public class ModbusHandlerFactory extends BaseThingHandlerFactory {
     }
 
     @Override
-    protected @Nullable ThingHandler createHandler(Thing thing) {
+    protected synchronized @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
         if (thingTypeUID.equals(THING_TYPE_MODBUS_TCP)) {
             logger.debug("createHandler Modbus tcp");
-            return new ModbusTcpThingHandler((Bridge) thing, manager);
+            ModbusTcpThingHandler handler = new ModbusTcpThingHandler((Bridge) thing, manager);
+            handler.setMeterRegistry(meterRegistry);
+            meteredHandlers.add(handler);
+            return handler;
         } else if (thingTypeUID.equals(THING_TYPE_MODBUS_SERIAL)) {
             logger.debug("createHandler Modbus serial");
-            return new ModbusSerialThingHandler((Bridge) thing, manager);
+            ModbusSerialThingHandler handler = new ModbusSerialThingHandler((Bridge) thing, manager);
+            handler.setMeterRegistry(meterRegistry);
+            meteredHandlers.add(handler);
+            return handler;
         } else if (thingTypeUID.equals(THING_TYPE_MODBUS_POLLER)) {
             logger.debug("createHandler Modbus poller");
-            return new ModbusPollerThingHandler((Bridge) thing);
+            ModbusPollerThingHandler handler = new ModbusPollerThingHandler((Bridge) thing);
+            handler.setMeterRegistry(meterRegistry);
+            meteredHandlers.add(handler);
+            return handler;
         } else if (thingTypeUID.equals(THING_TYPE_MODBUS_DATA)) {
             logger.debug("createHandler data");
             return new ModbusDataThingHandler(thing);
@@ -84,6 +103,11 @@ public class ModbusHandlerFactory extends BaseThingHandlerFactory {
         return null;
     }
 
+    @Override
+    protected void removeHandler(ThingHandler thingHandler) {
+        meteredHandlers.remove(thingHandler);
+    }
+
     @Reference
     public void setModbusManager(ModbusManager manager) {
         logger.debug("Setting manager: {}", manager);
@@ -93,4 +117,24 @@ public class ModbusHandlerFactory extends BaseThingHandlerFactory {
     public void unsetModbusManager(ModbusManager manager) {
         this.manager = null;
     }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry localMeterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        meterRegistry = localMeterRegistry;
+        meteredHandlers.forEach(handler -> setMeterRegistry(handler, localMeterRegistry));
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        meterRegistry = null;
+        meteredHandlers.forEach(handler -> setMeterRegistry(handler, null));
+    }
+
+    private static void setMeterRegistry(ThingHandler handler, @Nullable MeterRegistry meterRegistry) {
+        if (handler instanceof AbstractModbusEndpointThingHandler<?, ?> endpointHandler) {
+            endpointHandler.setMeterRegistry(meterRegistry);
+        } else if (handler instanceof ModbusPollerThingHandler pollerHandler) {
+            pollerHandler.setMeterRegistry(meterRegistry);
+        }
+    }
 }
@@ -0,0 +1,509 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The {@link ModbusPollCoalescer} merges the regular polls of several pollers of one endpoint into as few requests as
+ * possible.
+ *
+ * Polls are merged when they have the same slave id, function code, poll interval and maximum tries, and when the
+ * merged request does not exceed the protocol limits. A gap of unused registers (or coils/discrete inputs) between two
+ * polls is read as well, as long as it is not larger than the configured maximum gap.
+ *
+ * The response of a merged request is split into responses matching the original requests of the pollers, so
+ * pollers (and their data things) cannot tell the difference.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollCoalescer {
+
+    /**
+     * Delay for updating the polls after a poller has been added or removed. Pollers are usually initialized
+     * together, this avoids re-planning the requests for every single poller.
+     */
+    private static final long REPLAN_DELAY_MILLIS = 100;
+    private static final long STATISTICS_LOG_INTERVAL_MILLIS = 60_000;
+    private static final String METRIC_POLL_SAVED = "openhab.binding.modbus.poll.saved";
+    private static final String METRIC_POLL_CYCLE = "openhab.binding.modbus.poll.cycle";
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollCoalescer.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final ScheduledExecutorService scheduler;
+    private final int maxGap;
+    private final Consumer<ModbusPollCoalescer> planListener;
+
+    // guarded by this
+    private final Map<ThingUID, Member> members = new LinkedHashMap<>();
+    private final Map<GroupKey, List<Block>> blocks = new HashMap<>();
+    private @Nullable ScheduledFuture<?> replanJob;
+    private boolean disposed;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong savedRequestCount = new AtomicLong();
+    private volatile long lastStatisticsLog = System.currentTimeMillis();
+
+    // guarded by this
+    private @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Counter savedRequestCounter;
+    private volatile @Nullable Timer cycleTimer;
+
+    /**
+     * Regular poll of a poller
+     */
+    private record Member(ThingUID uid, ModbusReadRequestBlueprint request, long refreshMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+
+        GroupKey groupKey() {
+            return new GroupKey(request.getUnitID(), request.getFunctionCode(), refreshMillis, request.getMaxTries());
+        }
+    }
+
+    /**
+     * Polls which can be merged
+     */
+    private record GroupKey(int slaveId, ModbusReadFunctionCode functionCode, long refreshMillis, int maxTries) {
+    }
+
+    /**
+     * Range of registers, coils or discrete inputs which is read with one request
+     *
+     * @param start first register
+     * @param length number of registers
+     * @param requests the original requests which are answered by this one
+     */
+    public record Span(int start, int length, List<ModbusReadRequestBlueprint> requests) {
+    }
+
+    /**
+     * Statistics of the merged polls
+     *
+     * @param pollers number of pollers
+     * @param requests number of requests per poll cycle
+     * @param executedRequests number of merged requests executed so far
+     * @param savedRequests number of requests saved so far by merging
+     * @param maxCycleMillis maximum time between the last two responses of a merged request
+     */
+    public record Statistics(int pollers, int requests, long executedRequests, long savedRequests,
+            long maxCycleMillis) {
+    }
+
+    /**
+     * Merged request, delegating the responses to its members
+     */
+    private class Block implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<Member> members;
+        private final long refreshMillis;
+        private volatile @Nullable PollTask pollTask;
+        private volatile long lastResponseNanos;
+        private volatile long cycleMillis;
+
+        Block(ModbusReadRequestBlueprint request, List<Member> members, long refreshMillis) {
+            this.request = request;
+            this.members = members;
+            this.refreshMillis = refreshMillis;
+        }
+
+        void register() {
+            if (members.size() == 1) {
+                // nothing to merge, poll with the callbacks of the poller
+                Member member = members.get(0);
+                pollTask = comms.registerRegularPoll(member.request(), refreshMillis, 0, member.resultCallback(),
+                        member.failureCallback());
+            } else {
+                pollTask = comms.registerRegularPoll(request, refreshMillis, 0, this, this);
+            }
+        }
+
+        void unregister() {
+            PollTask localPollTask = pollTask;
+            if (localPollTask != null) {
+                comms.unregisterRegularPoll(localPollTask);
+                pollTask = null;
+            }
+        }
+
+        boolean isSamePlan(Block other) {
+            return request.getReference() == other.request.getReference()
+                    && request.getDataLength() == other.request.getDataLength()
+                    && members.stream().map(Member::uid).toList()
+                            .equals(other.members.stream().map(Member::uid).toList())
+                    && members.stream().map(Member::request).toList()
+                            .equals(other.members.stream().map(Member::request).toList());
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            updateStatistics();
+            Optional<ModbusRegisterArray> registers = result.getRegisters();
+            Optional<BitArray> bits = result.getBits();
+            if (registers.isEmpty() && bits.isEmpty()) {
+                logger.debug("Response to merged request {} has no data", request);
+                IllegalStateException cause = new IllegalStateException("Response has no data");
+                for (Member member : members) {
+                    handleFailure(member, cause);
+                }
+                return;
+            }
+            for (Member member : members) {
+                ModbusReadRequestBlueprint memberRequest = member.request();
+                int offset = memberRequest.getReference() - request.getReference();
+                AsyncModbusReadResult memberResult;
+                try {
+                    memberResult = registers.isPresent()
+                            ? new AsyncModbusReadResult(memberRequest,
+                                    sliceRegisters(registers.get(), offset, memberRequest.getDataLength()))
+                            : new AsyncModbusReadResult(memberRequest,
+                                    sliceBits(bits.get(), offset, memberRequest.getDataLength()));
+                } catch (IllegalStateException e) {
+                    // the response doesn't cover the registers of this poller, report it as a failure
+                    handleFailure(member, e);
+                    continue;
+                }
+                try {
+                    member.resultCallback().handle(memberResult);
+                } catch (RuntimeException e) {
+                    logger.warn("Error handling response of poller {}: {}", member.uid(), e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            updateStatistics();
+            for (Member member : members) {
+                handleFailure(member, failure.getCause());
+            }
+        }
+
+        private void handleFailure(Member member, Exception cause) {
+            try {
+                member.failureCallback().handle(new AsyncModbusFailure<>(member.request(), cause));
+            } catch (RuntimeException e) {
+                logger.warn("Error handling failure of poller {}: {}", member.uid(), e.getMessage(), e);
+            }
+        }
+
+        private void updateStatistics() {
+            long now = System.nanoTime();
+            long last = lastResponseNanos;
+            if (last != 0) {
+                cycleMillis = TimeUnit.NANOSECONDS.toMillis(now - last);
+                Timer localCycleTimer = cycleTimer;
+                if (localCycleTimer != null) {
+                    localCycleTimer.record(Duration.ofNanos(now - last));
+                }
+            }
+            lastResponseNanos = now;
+            requestCount.incrementAndGet();
+            // without merging, every member would have sent its own request. A block with a single member is polled
+            // with the callbacks of its poller and never gets here, but it would not save a request either.
+            int savedRequests = members.size() - 1;
+            savedRequestCount.addAndGet(savedRequests);
+            Counter localSavedRequestCounter = savedRequestCounter;
+            if (localSavedRequestCounter != null) {
+                localSavedRequestCounter.increment(savedRequests);
+            }
+            logStatistics();
+        }
+    }
+
+    /**
+     * Create a new coalescer
+     *
+     * @param comms communication interface of the endpoint
+     * @param scheduler scheduler used for (delayed) planning of the requests
+     * @param maxGap maximum number of unused registers (or coils/discrete inputs) between two merged polls
+     * @param planListener called after the requests have been planned
+     */
+    public ModbusPollCoalescer(ModbusCommunicationInterface comms, ScheduledExecutorService scheduler, int maxGap,
+            Consumer<ModbusPollCoalescer> planListener) {
+        this.comms = comms;
+        this.scheduler = scheduler;
+        this.maxGap = Math.max(0, maxGap);
+        this.planListener = planListener;
+    }
+
+    /**
+     * Register the regular poll of a poller. Replaces an earlier registration of the same poller.
+     *
+     * @param uid uid of the poller
+     * @param request request of the poller
+     * @param refreshMillis poll interval in milliseconds
+     * @param resultCallback callback for responses, called with responses matching the given request
+     * @param failureCallback callback for failures
+     */
+    public synchronized void register(ThingUID uid, ModbusReadRequestBlueprint request, long refreshMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        if (disposed) {
+            return;
+        }
+        members.put(uid, new Member(uid, request, refreshMillis, resultCallback, failureCallback));
+        scheduleReplan();
+    }
+
+    /**
+     * Unregister the regular poll of a poller
+     *
+     * @param uid uid of the poller
+     */
+    public synchronized void unregister(ThingUID uid) {
+        if (disposed || members.remove(uid) == null) {
+            return;
+        }
+        // stop polling for the poller immediately, the remaining pollers are planned again later
+        List<Block> affected = blocks.values().stream().flatMap(List::stream)
+                .filter(block -> block.members.stream().anyMatch(member -> member.uid().equals(uid))).toList();
+        affected.forEach(Block::unregister);
+        blocks.values().forEach(groupBlocks -> groupBlocks.removeAll(affected));
+        scheduleReplan();
+    }
+
+    /**
+     * Unregister all polls
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        ScheduledFuture<?> localReplanJob = replanJob;
+        if (localReplanJob != null) {
+            localReplanJob.cancel(false);
+            replanJob = null;
+        }
+        blocks.values().forEach(groupBlocks -> groupBlocks.forEach(Block::unregister));
+        blocks.clear();
+        members.clear();
+        setMeterRegistry(null, List.of());
+    }
+
+    /**
+     * Report the saved requests and the poll cycle time on the given registry. Replaces the meters registered before.
+     *
+     * @param meterRegistry registry of the meters, or <code>null</code> to not report any metrics
+     * @param tags tags of the meters
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry, Iterable<Tag> tags) {
+        MeterRegistry oldMeterRegistry = this.meterRegistry;
+        if (oldMeterRegistry != null) {
+            Counter localSavedRequestCounter = savedRequestCounter;
+            if (localSavedRequestCounter != null) {
+                oldMeterRegistry.remove(localSavedRequestCounter);
+            }
+            Timer localCycleTimer = cycleTimer;
+            if (localCycleTimer != null) {
+                oldMeterRegistry.remove(localCycleTimer);
+            }
+        }
+        savedRequestCounter = null;
+        cycleTimer = null;
+        this.meterRegistry = disposed ? null : meterRegistry;
+        if (meterRegistry == null || disposed) {
+            return;
+        }
+        savedRequestCounter = Counter.builder(METRIC_POLL_SAVED)
+                .description("Number of requests saved by merging polls").tags(tags).register(meterRegistry);
+        cycleTimer = Timer.builder(METRIC_POLL_CYCLE).description("Time between two responses of a merged request")
+                .tags(tags).register(meterRegistry);
+    }
+
+    public synchronized Statistics getStatistics() {
+        int requests = blocks.values().stream().mapToInt(List::size).sum();
+        long maxCycleMillis = blocks.values().stream().flatMap(List::stream).mapToLong(block -> block.cycleMillis)
+                .max().orElse(0);
+        return new Statistics(members.size(), requests, requestCount.get(), savedRequestCount.get(), maxCycleMillis);
+    }
+
+    private void scheduleReplan() {
+        ScheduledFuture<?> localReplanJob = replanJob;
+        if (localReplanJob == null || localReplanJob.isDone()) {
+            replanJob = scheduler.schedule(this::replan, REPLAN_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void replan() {
+        synchronized (this) {
+            replanJob = null;
+            if (disposed) {
+                return;
+            }
+            Map<GroupKey, List<Member>> groups = new LinkedHashMap<>();
+            members.values().forEach(member -> groups.computeIfAbsent(member.groupKey(), k -> new ArrayList<>())
+                    .add(member));
+
+            // remove groups without pollers
+            blocks.keySet().stream().filter(key -> !groups.containsKey(key)).toList()
+                    .forEach(key -> Objects.requireNonNull(blocks.remove(key)).forEach(Block::unregister));
+
+            groups.forEach(this::replanGroup);
+            logger.debug("Polling {} pollers of endpoint {} with {} requests", members.size(), comms.getEndpoint(),
+                    blocks.values().stream().mapToInt(List::size).sum());
+        }
+        planListener.accept(this);
+    }
+
+    private void replanGroup(GroupKey key, List<Member> groupMembers) {
+        Map<ModbusReadRequestBlueprint, List<Member>> membersByRequest = new LinkedHashMap<>();
+        groupMembers.forEach(
+                member -> membersByRequest.computeIfAbsent(member.request(), k -> new ArrayList<>()).add(member));
+
+        List<Block> newBlocks = new ArrayList<>();
+        for (Span span : plan(List.copyOf(membersByRequest.keySet()), getMaxLength(key.functionCode()), maxGap)) {
+            List<Member> spanMembers = span.requests().stream()
+                    .flatMap(request -> Objects.requireNonNull(membersByRequest.get(request)).stream()).toList();
+            ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(key.slaveId(), key.functionCode(),
+                    span.start(), span.length(), key.maxTries());
+            newBlocks.add(new Block(request, spanMembers, key.refreshMillis()));
+        }
+
+        List<Block> oldBlocks = blocks.getOrDefault(key, List.of());
+        List<Block> result = new ArrayList<>();
+        List<Block> unchanged = new ArrayList<>();
+        for (Block newBlock : newBlocks) {
+            Block oldBlock = oldBlocks.stream().filter(block -> block.isSamePlan(newBlock)).findFirst().orElse(null);
+            if (oldBlock != null) {
+                // keep polling without interruption
+                unchanged.add(oldBlock);
+                result.add(oldBlock);
+            } else {
+                result.add(newBlock);
+            }
+        }
+        oldBlocks.stream().filter(block -> !unchanged.contains(block)).forEach(Block::unregister);
+        result.stream().filter(block -> !unchanged.contains(block)).forEach(Block::register);
+        if (logger.isDebugEnabled()) {
+            result.forEach(block -> logger.debug("Merged {} polls into request {}", block.members.size(),
+                    block.request));
+        }
+        blocks.put(key, result);
+    }
+
+    private void logStatistics() {
+        long now = System.currentTimeMillis();
+        if (logger.isDebugEnabled() && now - lastStatisticsLog > STATISTICS_LOG_INTERVAL_MILLIS) {
+            lastStatisticsLog = now;
+            logger.debug("Merged polls of endpoint {}: {}", comms.getEndpoint(), getStatistics());
+        }
+    }
+
+    /**
+     * Merge requests into spans, in the order of their start. Overlapping or adjacent requests, and requests with a
+     * gap of at most <code>maxGap</code> are merged as long as the span is not longer than <code>maxLength</code>.
+     *
+     * @param requests requests to merge
+     * @param maxLength maximum length of a span
+     * @param maxGap maximum gap between requests of a span
+     * @return spans covering all requests
+     */
+    public static List<Span> plan(List<ModbusReadRequestBlueprint> requests, int maxLength, int maxGap) {
+        List<ModbusReadRequestBlueprint> sorted = requests.stream()
+                .sorted(Comparator.comparingInt(ModbusReadRequestBlueprint::getReference)
+                        .thenComparingInt(ModbusReadRequestBlueprint::getDataLength))
+                .toList();
+        List<Span> spans = new ArrayList<>();
+        List<ModbusReadRequestBlueprint> current = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (ModbusReadRequestBlueprint request : sorted) {
+            int requestStart = request.getReference();
+            int requestEnd = requestStart + request.getDataLength();
+            if (!current.isEmpty() && requestStart - end <= maxGap && Math.max(end, requestEnd) - start <= maxLength) {
+                end = Math.max(end, requestEnd);
+            } else {
+                if (!current.isEmpty()) {
+                    spans.add(new Span(start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+                start = requestStart;
+                end = requestEnd;
+            }
+            current.add(request);
+        }
+        if (!current.isEmpty()) {
+            spans.add(new Span(start, end - start, List.copyOf(current)));
+        }
+        return spans;
+    }
+
+    /**
+     * Get the registers of a part of the response
+     */
+    public static ModbusRegisterArray sliceRegisters(ModbusRegisterArray registers, int offset, int length) {
+        if (offset + length > registers.size()) {
+            throw new IllegalStateException(String.format("Response with %d registers is too short for %d + %d",
+                    registers.size(), offset, length));
+        }
+        byte[] bytes = registers.getBytes();
+        return new ModbusRegisterArray(Arrays.copyOfRange(bytes, offset * 2, (offset + length) * 2));
+    }
+
+    /**
+     * Get the bits of a part of the response
+     */
+    public static BitArray sliceBits(BitArray bits, int offset, int length) {
+        if (offset + length > bits.size()) {
+            throw new IllegalStateException(
+                    String.format("Response with %d bits is too short for %d + %d", bits.size(), offset, length));
+        }
+        BitArray slice = new BitArray(length);
+        for (int i = 0; i < length; i++) {
+            slice.setBit(i, bits.getBit(offset + i));
+        }
+        return slice;
+    }
+
+    private static int getMaxLength(ModbusReadFunctionCode functionCode) {
+        return switch (functionCode) {
+            case READ_COILS, READ_INPUT_DISCRETES -> ModbusConstants.MAX_BITS_READ_COUNT;
+            default -> ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        };
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusWriteResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.core.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ModbusWriteCoalescer} collects the writes to one endpoint for a short time and combines them into as few
+ * requests as possible.
+ *
+ * Writes to adjacent holding registers (or coils) of the same slave are combined into one "write multiple registers"
+ * (or "write multiple coils") request. If a register is written several times, only the last value is written.
+ *
+ * Writes are sent in batches. The next batch is only sent when all requests of the previous batch have been
+ * completed, so the writes to one register are always executed in the order they were submitted.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusWriteCoalescer {
+
+    /**
+     * Protocol limits of function codes 16 and 15
+     */
+    private static final int MAX_REGISTERS_WRITE_COUNT = 123;
+    private static final int MAX_COILS_WRITE_COUNT = 1968;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusWriteCoalescer.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+
+    // guarded by this
+    private List<PendingWrite> pendingWrites = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private int requestsInFlight;
+    private boolean disposed;
+
+    private record PendingWrite(ModbusWriteRequestBlueprint request, ModbusWriteCallback resultCallback,
+            ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback) {
+    }
+
+    /**
+     * Registers (or coils) of one slave
+     */
+    private record TargetKey(int slaveId, boolean coils) {
+    }
+
+    /**
+     * Last value written to a register (or coil), and all writes that included the register
+     */
+    private static class Target {
+        int value;
+        int maxTries;
+        boolean writeMultiple;
+        final Set<Completion> completions = new LinkedHashSet<>();
+    }
+
+    /**
+     * Tracks the requests covering the registers of one submitted write. The callbacks of the write are called when
+     * all of these requests have been completed.
+     */
+    private static class Completion {
+        private final PendingWrite write;
+        private int remaining;
+        private @Nullable Exception failure;
+
+        Completion(PendingWrite write) {
+            this.write = write;
+        }
+
+        void add() {
+            remaining++;
+        }
+
+        void completed(@Nullable AsyncModbusWriteResult result, @Nullable Exception cause) {
+            synchronized (this) {
+                if (cause != null && failure == null) {
+                    failure = cause;
+                }
+                if (--remaining > 0) {
+                    return;
+                }
+            }
+            Exception localFailure = failure;
+            if (localFailure != null) {
+                write.failureCallback().handle(new AsyncModbusFailure<>(write.request(), localFailure));
+            } else if (result != null) {
+                write.resultCallback().handle(new AsyncModbusWriteResult(write.request(), result.getResponse()));
+            }
+        }
+    }
+
+    /**
+     * Request to be sent, and the writes it completes
+     */
+    private record CombinedWrite(ModbusWriteRequestBlueprint request, List<Completion> completions) {
+    }
+
+    /**
+     * Create a new coalescer
+     *
+     * @param comms communication interface of the endpoint
+     * @param scheduler scheduler used to delay sending the writes
+     * @param windowMillis time in milliseconds the writes are collected before they are sent
+     */
+    public ModbusWriteCoalescer(ModbusCommunicationInterface comms, ScheduledExecutorService scheduler,
+            long windowMillis) {
+        this.comms = comms;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Submit a write. Like {@link ModbusCommunicationInterface#submitOneTimeWrite}, the callbacks are called with the
+     * given request.
+     *
+     * @param request request to write
+     * @param resultCallback callback for the result
+     * @param failureCallback callback for failures
+     */
+    public synchronized void submit(ModbusWriteRequestBlueprint request, ModbusWriteCallback resultCallback,
+            ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback) {
+        if (disposed) {
+            return;
+        }
+        pendingWrites.add(new PendingWrite(request, resultCallback, failureCallback));
+        scheduleFlush();
+    }
+
+    /**
+     * Discard pending writes
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        ScheduledFuture<?> localFlushJob = flushJob;
+        if (localFlushJob != null) {
+            localFlushJob.cancel(false);
+            flushJob = null;
+        }
+        if (!pendingWrites.isEmpty()) {
+            logger.debug("Discarding {} pending writes to endpoint {}", pendingWrites.size(), comms.getEndpoint());
+        }
+        pendingWrites = new ArrayList<>();
+    }
+
+    private void scheduleFlush() {
+        if (flushJob == null && requestsInFlight == 0 && !pendingWrites.isEmpty()) {
+            flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        List<PendingWrite> writes;
+        synchronized (this) {
+            flushJob = null;
+            if (disposed || pendingWrites.isEmpty()) {
+                return;
+            }
+            writes = pendingWrites;
+            pendingWrites = new ArrayList<>();
+        }
+        List<CombinedWrite> combinedWrites = combine(writes);
+        synchronized (this) {
+            requestsInFlight = combinedWrites.size();
+        }
+        logger.debug("Writing {} writes to endpoint {} with {} requests", writes.size(), comms.getEndpoint(),
+                combinedWrites.size());
+        for (CombinedWrite combinedWrite : combinedWrites) {
+            logger.trace("Submitting combined write task {} to endpoint {}", combinedWrite.request(),
+                    comms.getEndpoint());
+            try {
+                comms.submitOneTimeWrite(combinedWrite.request(), result -> {
+                    combinedWrite.completions().forEach(completion -> completion.completed(result, null));
+                    requestCompleted();
+                }, failure -> {
+                    combinedWrite.completions().forEach(completion -> completion.completed(null, failure.getCause()));
+                    requestCompleted();
+                });
+            } catch (RuntimeException e) {
+                // e.g. the communication interface has been closed, the callbacks will never be called
+                logger.debug("Could not submit combined write task {} to endpoint {}: {}", combinedWrite.request(),
+                        comms.getEndpoint(), e.getMessage());
+                combinedWrite.completions().forEach(completion -> completion.completed(null, e));
+                requestCompleted();
+            }
+        }
+    }
+
+    private synchronized void requestCompleted() {
+        if (--requestsInFlight <= 0) {
+            requestsInFlight = 0;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Combine the writes to adjacent registers (and coils) of the same slave
+     */
+    private static List<CombinedWrite> combine(List<PendingWrite> writes) {
+        List<CombinedWrite> result = new ArrayList<>();
+        Map<TargetKey, TreeMap<Integer, Target>> targets = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            Completion completion = new Completion(write);
+            ModbusWriteRequestBlueprint request = write.request();
+            if (request instanceof ModbusWriteRegisterRequestBlueprint registerRequest) {
+                byte[] bytes = registerRequest.getRegisters().getBytes();
+                boolean writeMultiple = request.getFunctionCode() == ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS;
+                TreeMap<Integer, Target> slaveTargets = targets
+                        .computeIfAbsent(new TargetKey(request.getUnitID(), false), k -> new TreeMap<>());
+                for (int i = 0; i < bytes.length / 2; i++) {
+                    int value = ((bytes[2 * i] & 0xff) << 8) | (bytes[2 * i + 1] & 0xff);
+                    updateTarget(slaveTargets, request.getReference() + i, value, request.getMaxTries(),
+                            writeMultiple, completion);
+                }
+            } else if (request instanceof ModbusWriteCoilRequestBlueprint coilRequest) {
+                BitArray coils = coilRequest.getCoils();
+                boolean writeMultiple = request.getFunctionCode() == ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS;
+                TreeMap<Integer, Target> slaveTargets = targets
+                        .computeIfAbsent(new TargetKey(request.getUnitID(), true), k -> new TreeMap<>());
+                for (int i = 0; i < coils.size(); i++) {
+                    updateTarget(slaveTargets, request.getReference() + i, coils.getBit(i) ? 1 : 0,
+                            request.getMaxTries(), writeMultiple, completion);
+                }
+            } else {
+                // unknown type of request, write as is
+                completion.add();
+                result.add(new CombinedWrite(request, List.of(completion)));
+            }
+        }
+
+        targets.forEach((key, slaveTargets) -> {
+            List<Map.Entry<Integer, Target>> run = new ArrayList<>();
+            int maxLength = key.coils() ? MAX_COILS_WRITE_COUNT : MAX_REGISTERS_WRITE_COUNT;
+            for (Map.Entry<Integer, Target> entry : slaveTargets.entrySet()) {
+                if (!run.isEmpty() && (entry.getKey() != run.get(run.size() - 1).getKey() + 1
+                        || run.size() >= maxLength)) {
+                    result.add(createCombinedWrite(key, run));
+                    run = new ArrayList<>();
+                }
+                run.add(entry);
+            }
+            if (!run.isEmpty()) {
+                result.add(createCombinedWrite(key, run));
+            }
+        });
+        return result;
+    }
+
+    private static void updateTarget(TreeMap<Integer, Target> slaveTargets, int address, int value, int maxTries,
+            boolean writeMultiple, Completion completion) {
+        Target target = slaveTargets.computeIfAbsent(address, k -> new Target());
+        // later writes replace the value of earlier ones
+        target.value = value;
+        target.maxTries = Math.max(target.maxTries, maxTries);
+        target.writeMultiple |= writeMultiple;
+        target.completions.add(completion);
+    }
+
+    private static CombinedWrite createCombinedWrite(TargetKey key, List<Map.Entry<Integer, Target>> run) {
+        int start = run.get(0).getKey();
+        int maxTries = 0;
+        boolean writeMultiple = run.size() > 1;
+        Set<Completion> completions = new LinkedHashSet<>();
+        for (Map.Entry<Integer, Target> entry : run) {
+            Target target = entry.getValue();
+            maxTries = Math.max(maxTries, target.maxTries);
+            writeMultiple |= target.writeMultiple;
+            completions.addAll(target.completions);
+        }
+        completions.forEach(Completion::add);
+
+        ModbusWriteRequestBlueprint request;
+        if (key.coils()) {
+            BitArray coils = new BitArray(run.size());
+            for (int i = 0; i < run.size(); i++) {
+                coils.setBit(i, run.get(i).getValue().value != 0);
+            }
+            request = new ModbusWriteCoilRequestBlueprint(key.slaveId(), start, coils, writeMultiple, maxTries);
+        } else {
+            byte[] bytes = new byte[run.size() * 2];
+            for (int i = 0; i < run.size(); i++) {
+                int value = run.get(i).getValue().value;
+                bytes[2 * i] = (byte) (value >> 8);
+                bytes[2 * i + 1] = (byte) value;
+            }
+            request = new ModbusWriteRegisterRequestBlueprint(key.slaveId(), start, new ModbusRegisterArray(bytes),
+                    writeMultiple, maxTries);
+        }
+        return new CombinedWrite(request, List.copyOf(completions));
+    }
+}
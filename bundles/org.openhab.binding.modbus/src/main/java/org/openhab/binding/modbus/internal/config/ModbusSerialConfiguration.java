@@ -39,6 +39,9 @@ public class ModbusSerialConfiguration {
     private int afterConnectionDelayMillis;
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
+    private boolean coalescePolls;
+    private int coalesceMaxGap = 10;
+    private int coalesceWritesMillis;
 
     public @Nullable String getPort() {
         return port;
@@ -167,4 +170,28 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public int getCoalesceMaxGap() {
+        return coalesceMaxGap;
+    }
+
+    public void setCoalesceMaxGap(int coalesceMaxGap) {
+        this.coalesceMaxGap = coalesceMaxGap;
+    }
+
+    public int getCoalesceWritesMillis() {
+        return coalesceWritesMillis;
+    }
+
+    public void setCoalesceWritesMillis(int coalesceWritesMillis) {
+        this.coalesceWritesMillis = coalesceWritesMillis;
+    }
 }
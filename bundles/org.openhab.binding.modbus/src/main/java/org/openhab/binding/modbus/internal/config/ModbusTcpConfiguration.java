@@ -34,6 +34,9 @@ public class ModbusTcpConfiguration {
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
     private boolean rtuEncoded;
+    private boolean coalescePolls;
+    private int coalesceMaxGap = 10;
+    private int coalesceWritesMillis;
 
     public boolean getRtuEncoded() {
         return rtuEncoded;
@@ -118,4 +121,28 @@ public class ModbusTcpConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public boolean isCoalescePolls() {
+        return coalescePolls;
+    }
+
+    public void setCoalescePolls(boolean coalescePolls) {
+        this.coalescePolls = coalescePolls;
+    }
+
+    public int getCoalesceMaxGap() {
+        return coalesceMaxGap;
+    }
+
+    public void setCoalesceMaxGap(int coalesceMaxGap) {
+        this.coalesceMaxGap = coalesceMaxGap;
+    }
+
+    public int getCoalesceWritesMillis() {
+        return coalesceWritesMillis;
+    }
+
+    public void setCoalesceWritesMillis(int coalesceWritesMillis) {
+        this.coalesceWritesMillis = coalesceWritesMillis;
+    }
 }
@@ -14,9 +14,12 @@ package org.openhab.binding.modbus.internal.handler;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.ModbusBindingConstants;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusPollCoalescer;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.io.transport.modbus.ModbusManager;
 import org.openhab.core.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -30,6 +33,9 @@ import org.openhab.core.types.Command;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * Base class for Modbus Slave endpoint thing handlers
  *
@@ -42,12 +48,21 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEndpoint, C> extends BaseBridgeHandler
         implements ModbusEndpointThingHandler {
 
+    private static final String PROPERTY_POLLERS = "pollers";
+    private static final String PROPERTY_POLL_REQUESTS = "pollRequests";
+
     protected volatile @Nullable C config;
     protected volatile @Nullable E endpoint;
     protected ModbusManager modbusManager;
     protected volatile @NonNullByDefault({}) EndpointPoolConfiguration poolConfiguration;
+    protected volatile boolean coalescePolls;
+    protected volatile int coalesceMaxGap;
+    protected volatile int coalesceWritesMillis;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusPollCoalescer pollCoalescer;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
+    private volatile @Nullable MeterRegistry meterRegistry;
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, ModbusManager modbusManager) {
         super(bridge);
@@ -76,6 +91,16 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 }
                 try {
                     comms = modbusManager.newModbusCommunicationInterface(endpoint, poolConfiguration);
+                    pollCoalescer = coalescePolls
+                            ? new ModbusPollCoalescer(comms, scheduler, coalesceMaxGap, this::updatePollProperties)
+                            : null;
+                    ModbusPollCoalescer localPollCoalescer = pollCoalescer;
+                    if (localPollCoalescer != null) {
+                        localPollCoalescer.setMeterRegistry(meterRegistry, getMeterTags());
+                    }
+                    writeCoalescer = coalesceWritesMillis > 0
+                            ? new ModbusWriteCoalescer(comms, scheduler, coalesceWritesMillis)
+                            : null;
                     updateStatus(ThingStatus.ONLINE);
                 } catch (IllegalArgumentException e) {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
@@ -93,6 +118,16 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        ModbusPollCoalescer localPollCoalescer = pollCoalescer;
+        if (localPollCoalescer != null) {
+            localPollCoalescer.dispose();
+            pollCoalescer = null;
+        }
+        ModbusWriteCoalescer localWriteCoalescer = writeCoalescer;
+        if (localWriteCoalescer != null) {
+            localWriteCoalescer.dispose();
+            writeCoalescer = null;
+        }
         try {
             ModbusCommunicationInterface localComms = comms;
             if (localComms != null) {
@@ -115,6 +150,51 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
         return endpoint;
     }
 
+    /**
+     * Get the coalescer merging the polls of the pollers of this endpoint
+     *
+     * Note that this is <code>null</code> if polls should not be merged or in case of incomplete initialization
+     *
+     * @return coalescer for the polls of this endpoint
+     */
+    public @Nullable ModbusPollCoalescer getPollCoalescer() {
+        return pollCoalescer;
+    }
+
+    /**
+     * Get the coalescer combining the writes to this endpoint
+     *
+     * Note that this is <code>null</code> if writes should not be combined or in case of incomplete initialization
+     *
+     * @return coalescer for the writes to this endpoint
+     */
+    public @Nullable ModbusWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
+    /**
+     * Set the registry of the meters of merged polls
+     *
+     * @param meterRegistry registry of the meters, or <code>null</code> to not report any metrics
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        ModbusPollCoalescer localPollCoalescer = pollCoalescer;
+        if (localPollCoalescer != null) {
+            localPollCoalescer.setMeterRegistry(meterRegistry, getMeterTags());
+        }
+    }
+
+    private Tags getMeterTags() {
+        return Tags.of("binding", ModbusBindingConstants.BINDING_ID, "thing", getThing().getUID().getAsString());
+    }
+
+    private void updatePollProperties(ModbusPollCoalescer coalescer) {
+        ModbusPollCoalescer.Statistics statistics = coalescer.getStatistics();
+        updateProperty(PROPERTY_POLLERS, String.valueOf(statistics.pollers()));
+        updateProperty(PROPERTY_POLL_REQUESTS, String.valueOf(statistics.requests()));
+    }
+
     @Override
     public abstract int getSlaveId() throws EndpointNotInitializedException;
 
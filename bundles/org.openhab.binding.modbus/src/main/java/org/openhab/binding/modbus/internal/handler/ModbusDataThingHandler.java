@@ -34,7 +34,9 @@ import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusDecodedRegisters;
 import org.openhab.binding.modbus.internal.ModbusTransformation;
+import org.openhab.binding.modbus.internal.ModbusWriteCoalescer;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
 import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
@@ -137,6 +139,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile @Nullable ModbusReadRequestBlueprint readRequest;
     private volatile long updateUnchangedValuesEveryMillis;
     private volatile @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusWriteCoalescer writeCoalescer;
     private volatile boolean isWriteEnabled;
     private volatile boolean isReadEnabled;
     private volatile boolean writeParametersHavingTransformationOnly;
@@ -145,6 +148,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    // numeric state the channel states in channelLastState were transformed from
+    private volatile @Nullable State lastNumericState;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -218,7 +223,22 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
 
         logger.trace("Submitting write task {} to endpoint {}", request, comms.getEndpoint());
-        comms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+        submitWrite(comms, request);
+    }
+
+    /**
+     * Submit a write, through the coalescer of the endpoint if writes are combined
+     *
+     * @param localComms communication interface
+     * @param request request to write
+     */
+    private void submitWrite(ModbusCommunicationInterface localComms, ModbusWriteRequestBlueprint request) {
+        ModbusWriteCoalescer localWriteCoalescer = writeCoalescer;
+        if (localWriteCoalescer != null) {
+            localWriteCoalescer.submit(request, this::onWriteResponse, this::handleWriteError);
+        } else {
+            localComms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+        }
     }
 
     /**
@@ -385,7 +405,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         requests.stream().forEach(request -> {
             logger.trace("Submitting write request: {} to endpoint {} (based from transformation {})", request,
                     localComms.getEndpoint(), transformOutput);
-            localComms.submitOneTimeWrite(request, this::onWriteResponse, this::handleWriteError);
+            submitWrite(localComms, request);
         });
     }
 
@@ -414,6 +434,9 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             if (bridgeHandler instanceof ModbusEndpointThingHandler endpointHandler) {
                 slaveId = endpointHandler.getSlaveId();
                 comms = endpointHandler.getCommunicationInterface();
+                writeCoalescer = endpointHandler instanceof AbstractModbusEndpointThingHandler<?, ?> abstractEndpointHandler
+                        ? abstractEndpointHandler.getWriteCoalescer()
+                        : null;
                 childOfEndpoint = true;
                 functionCode = null;
                 readRequest = null;
@@ -432,6 +455,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 slaveId = localReadRequest.getUnitID();
                 functionCode = localReadRequest.getFunctionCode();
                 comms = localPollerHandler.getCommunicationInterface();
+                writeCoalescer = localPollerHandler.getWriteCoalescer();
                 pollStart = localReadRequest.getReference();
                 childOfEndpoint = false;
             } else {
@@ -468,6 +492,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         pollStart = 0;
         slaveId = 0;
         comms = null;
+        writeCoalescer = null;
         functionCode = null;
         readRequest = null;
         isWriteEnabled = false;
@@ -480,6 +505,25 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastNumericState = null;
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        synchronized (this) {
+            // the new channel has no state yet, so the next value must be transformed again
+            lastNumericState = null;
+        }
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        synchronized (this) {
+            // the last states still contain the unlinked channel, transform the next value only for the linked ones
+            lastNumericState = null;
+        }
+        super.channelUnlinked(channelUID);
     }
 
     @Override
@@ -792,7 +836,20 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     }
 
     public synchronized void onReadResult(AsyncModbusReadResult result) {
-        result.getRegisters().ifPresent(registers -> onRegisters(result.getRequest(), registers));
+        onReadResult(result, null);
+    }
+
+    /**
+     * Handle a poll result
+     *
+     * @param result result of the poll
+     * @param decodedRegisters registers of the result decoded by the poller, shared with the other data things of the
+     *            poller. <code>null</code> to decode the registers here.
+     */
+    public synchronized void onReadResult(AsyncModbusReadResult result,
+            @Nullable ModbusDecodedRegisters decodedRegisters) {
+        result.getRegisters().ifPresent(registers -> onRegisters(result.getRequest(),
+                decodedRegisters != null ? decodedRegisters : new ModbusDecodedRegisters(registers)));
         result.getBits().ifPresent(bits -> onBits(result.getRequest(), bits));
     }
 
@@ -804,7 +861,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         onError(failure.getRequest(), failure.getCause());
     }
 
-    private synchronized void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+    private synchronized void onRegisters(ModbusReadRequestBlueprint request, ModbusDecodedRegisters registers) {
         if (hasConfigurationError()) {
             return;
         } else if (!isReadEnabled) {
@@ -835,14 +892,14 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        numericState = registers.getState(extractIndex, readValueType).map(state -> (State) state)
+                .orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
-                boolValue, registers, request);
+                boolValue, registers.getRegisters(), request);
     }
 
     private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
@@ -889,6 +946,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 tryUpdateState(uid, state);
             });
 
+            lastNumericState = null;
             updateStatusIfChanged(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                     String.format("Error (%s) with read. Request: %s. Description: %s. Message: %s",
                             error.getClass().getSimpleName(), request, error.toString(), error.getMessage()));
@@ -959,6 +1017,17 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             logger.trace("No transformation available, aborting processUpdatedValue");
             return Collections.emptyMap();
         }
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (numericState.equals(lastNumericState)) {
+            // Value has not changed, the transformation would result in the same states
+            Map<ChannelUID, State> states = new HashMap<>(channelLastState);
+            states.remove(lastReadSuccessUID);
+            if (isLinked(lastReadSuccessUID)) {
+                states.put(lastReadSuccessUID, new DateTimeType());
+            }
+            updateExpiredChannels(states);
+            return states;
+        }
         Map<ChannelUID, State> states = new HashMap<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
@@ -1013,11 +1082,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             }
         });
 
-        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
         if (isLinked(lastReadSuccessUID)) {
             states.put(lastReadSuccessUID, new DateTimeType());
         }
         updateExpiredChannels(states);
+        lastNumericState = numericState;
         return states;
     }
 
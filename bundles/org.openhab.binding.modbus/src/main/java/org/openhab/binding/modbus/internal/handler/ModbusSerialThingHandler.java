@@ -70,6 +70,10 @@ public class ModbusSerialThingHandler
         poolConfiguration.setInterConnectDelayMillis(1000);
         poolConfiguration.setReconnectAfterMillis(-1);
 
+        coalescePolls = config.isCoalescePolls();
+        coalesceMaxGap = config.getCoalesceMaxGap();
+        coalesceWritesMillis = config.getCoalesceWritesMillis();
+
         endpoint = new ModbusSerialSlaveEndpoint(port, baud, flowControlIn, flowControlOut, config.getDataBits(),
                 stopBits, parity, encoding, config.isEcho(), config.getReceiveTimeoutMillis());
     }
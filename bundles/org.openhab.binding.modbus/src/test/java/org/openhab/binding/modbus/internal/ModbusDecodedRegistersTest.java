@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusDecodedRegistersTest {
+
+    @Test
+    public void testValuesAreDecoded() {
+        ModbusDecodedRegisters registers = new ModbusDecodedRegisters(new ModbusRegisterArray(1, 2, 0xffff));
+
+        assertThat(registers.getState(1, ValueType.UINT16), is(equalTo(Optional.of(new DecimalType(2)))));
+        assertThat(registers.getState(0, ValueType.UINT32), is(equalTo(Optional.of(new DecimalType(65538)))));
+        assertThat(registers.getState(2, ValueType.INT16), is(equalTo(Optional.of(new DecimalType(-1)))));
+        // low byte of first register
+        assertThat(registers.getState(0, ValueType.UINT8), is(equalTo(Optional.of(new DecimalType(1)))));
+    }
+
+    @Test
+    public void testValuesAreDecodedOnce() {
+        ModbusDecodedRegisters registers = new ModbusDecodedRegisters(new ModbusRegisterArray(1, 2));
+
+        assertThat(registers.getState(1, ValueType.UINT16), is(sameInstance(registers.getState(1, ValueType.UINT16))));
+    }
+}
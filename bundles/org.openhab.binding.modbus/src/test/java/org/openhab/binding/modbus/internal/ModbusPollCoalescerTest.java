@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.binding.modbus.internal.ModbusPollCoalescer.Span;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.openhab.core.thing.ThingUID;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollCoalescerTest {
+
+    private static ModbusReadRequestBlueprint request(int start, int length) {
+        return new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, 3);
+    }
+
+    /**
+     * Scheduler which plans the requests immediately
+     */
+    private static ScheduledExecutorService immediateScheduler() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        when(future.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return future;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        return scheduler;
+    }
+
+    @Test
+    public void testPlanMergesAdjacentAndOverlapping() {
+        ModbusReadRequestBlueprint first = request(0, 10);
+        ModbusReadRequestBlueprint adjacent = request(10, 5);
+        ModbusReadRequestBlueprint overlapping = request(12, 10);
+
+        List<Span> spans = ModbusPollCoalescer.plan(List.of(overlapping, first, adjacent), 125, 0);
+
+        assertThat(spans.size(), is(equalTo(1)));
+        assertThat(spans.get(0).start(), is(equalTo(0)));
+        assertThat(spans.get(0).length(), is(equalTo(22)));
+        assertThat(spans.get(0).requests(), is(equalTo(List.of(first, adjacent, overlapping))));
+    }
+
+    @Test
+    public void testPlanRespectsMaxGap() {
+        ModbusReadRequestBlueprint first = request(0, 10);
+        ModbusReadRequestBlueprint smallGap = request(15, 5);
+        ModbusReadRequestBlueprint largeGap = request(40, 5);
+
+        List<Span> spans = ModbusPollCoalescer.plan(List.of(first, smallGap, largeGap), 125, 5);
+
+        assertThat(spans.size(), is(equalTo(2)));
+        assertThat(spans.get(0).start(), is(equalTo(0)));
+        assertThat(spans.get(0).length(), is(equalTo(20)));
+        assertThat(spans.get(1).start(), is(equalTo(40)));
+        assertThat(spans.get(1).length(), is(equalTo(5)));
+    }
+
+    @Test
+    public void testPlanRespectsMaxLength() {
+        List<Span> spans = ModbusPollCoalescer.plan(List.of(request(0, 100), request(100, 25), request(125, 1)), 125,
+                0);
+
+        assertThat(spans.size(), is(equalTo(2)));
+        assertThat(spans.get(0).length(), is(equalTo(125)));
+        assertThat(spans.get(1).start(), is(equalTo(125)));
+    }
+
+    @Test
+    public void testSliceRegisters() {
+        ModbusRegisterArray registers = new ModbusRegisterArray(1, 2, 3, 4, 5);
+        assertThat(ModbusPollCoalescer.sliceRegisters(registers, 1, 3),
+                is(equalTo(new ModbusRegisterArray(2, 3, 4))));
+    }
+
+    @Test
+    public void testSliceBits() {
+        BitArray bits = new BitArray(true, false, true, true, false);
+        BitArray slice = ModbusPollCoalescer.sliceBits(bits, 2, 3);
+        assertThat(slice.size(), is(equalTo(3)));
+        assertThat(slice.getBit(0), is(true));
+        assertThat(slice.getBit(1), is(true));
+        assertThat(slice.getBit(2), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testResponsesAreDelegatedToPollers() {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        List<ModbusPollCoalescer> plans = new ArrayList<>();
+        ModbusPollCoalescer coalescer = new ModbusPollCoalescer(comms, immediateScheduler(), 0, plans::add);
+
+        ModbusReadRequestBlueprint firstRequest = request(100, 2);
+        ModbusReadRequestBlueprint secondRequest = request(102, 3);
+        ModbusReadCallback firstCallback = mock(ModbusReadCallback.class);
+        ModbusReadCallback secondCallback = mock(ModbusReadCallback.class);
+        ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:first"), firstRequest, 1000, firstCallback,
+                failureCallback);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:second"), secondRequest, 1000, secondCallback,
+                failureCallback);
+
+        ArgumentCaptor<ModbusReadRequestBlueprint> requestCaptor = ArgumentCaptor
+                .forClass(ModbusReadRequestBlueprint.class);
+        ArgumentCaptor<ModbusReadCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        ArgumentCaptor<ModbusFailureCallback<ModbusReadRequestBlueprint>> failureCaptor = ArgumentCaptor
+                .forClass(ModbusFailureCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(requestCaptor.capture(), eq(1000L), eq(0L),
+                callbackCaptor.capture(), failureCaptor.capture());
+        ModbusReadRequestBlueprint mergedRequest = requestCaptor.getValue();
+        assertThat(mergedRequest.getReference(), is(equalTo(100)));
+        assertThat(mergedRequest.getDataLength(), is(equalTo(5)));
+        assertThat(coalescer.getStatistics().pollers(), is(equalTo(2)));
+        assertThat(coalescer.getStatistics().requests(), is(equalTo(1)));
+        assertThat(plans.isEmpty(), is(false));
+
+        callbackCaptor.getValue()
+                .handle(new AsyncModbusReadResult(mergedRequest, new ModbusRegisterArray(1, 2, 3, 4, 5)));
+
+        ArgumentCaptor<AsyncModbusReadResult> resultCaptor = ArgumentCaptor.forClass(AsyncModbusReadResult.class);
+        verify(firstCallback).handle(resultCaptor.capture());
+        assertThat(resultCaptor.getValue().getRequest(), is(sameInstance(firstRequest)));
+        assertThat(resultCaptor.getValue().getRegisters().get(), is(equalTo(new ModbusRegisterArray(1, 2))));
+        verify(secondCallback).handle(resultCaptor.capture());
+        assertThat(resultCaptor.getValue().getRequest(), is(sameInstance(secondRequest)));
+        assertThat(resultCaptor.getValue().getRegisters().get(), is(equalTo(new ModbusRegisterArray(3, 4, 5))));
+        assertThat(coalescer.getStatistics().savedRequests(), is(equalTo(1L)));
+
+        failureCaptor.getValue().handle(new AsyncModbusFailure<>(mergedRequest, new Exception("failure")));
+        verify(failureCallback, times(2)).handle(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testShortResponseIsReportedAsFailure() {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollCoalescer coalescer = new ModbusPollCoalescer(comms, immediateScheduler(), 0, plan -> {
+        });
+
+        ModbusReadRequestBlueprint firstRequest = request(100, 2);
+        ModbusReadRequestBlueprint secondRequest = request(102, 3);
+        ModbusReadCallback firstCallback = mock(ModbusReadCallback.class);
+        ModbusReadCallback secondCallback = mock(ModbusReadCallback.class);
+        ModbusFailureCallback<ModbusReadRequestBlueprint> firstFailureCallback = mock(ModbusFailureCallback.class);
+        ModbusFailureCallback<ModbusReadRequestBlueprint> secondFailureCallback = mock(ModbusFailureCallback.class);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:first"), firstRequest, 1000, firstCallback,
+                firstFailureCallback);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:second"), secondRequest, 1000, secondCallback,
+                secondFailureCallback);
+
+        ArgumentCaptor<ModbusReadRequestBlueprint> requestCaptor = ArgumentCaptor
+                .forClass(ModbusReadRequestBlueprint.class);
+        ArgumentCaptor<ModbusReadCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(requestCaptor.capture(), eq(1000L), eq(0L),
+                callbackCaptor.capture(), any());
+
+        // the response only covers the registers of the first poller
+        callbackCaptor.getValue()
+                .handle(new AsyncModbusReadResult(requestCaptor.getValue(), new ModbusRegisterArray(1, 2, 3)));
+
+        verify(firstCallback).handle(any(AsyncModbusReadResult.class));
+        verifyNoInteractions(firstFailureCallback);
+        verifyNoInteractions(secondCallback);
+        ArgumentCaptor<AsyncModbusFailure<ModbusReadRequestBlueprint>> failureCaptor = ArgumentCaptor
+                .forClass(AsyncModbusFailure.class);
+        verify(secondFailureCallback).handle(failureCaptor.capture());
+        assertThat(failureCaptor.getValue().getRequest(), is(sameInstance(secondRequest)));
+        assertThat(failureCaptor.getValue().getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEmptyResponseIsReportedAsFailure() {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollCoalescer coalescer = new ModbusPollCoalescer(comms, immediateScheduler(), 0, plan -> {
+        });
+
+        ModbusReadCallback callback = mock(ModbusReadCallback.class);
+        ModbusFailureCallback<ModbusReadRequestBlueprint> firstFailureCallback = mock(ModbusFailureCallback.class);
+        ModbusFailureCallback<ModbusReadRequestBlueprint> secondFailureCallback = mock(ModbusFailureCallback.class);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:first"), request(100, 2), 1000, callback,
+                firstFailureCallback);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:second"), request(102, 3), 1000, callback,
+                secondFailureCallback);
+
+        ArgumentCaptor<ModbusReadCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(any(), eq(1000L), eq(0L), callbackCaptor.capture(), any());
+
+        AsyncModbusReadResult emptyResult = mock(AsyncModbusReadResult.class);
+        when(emptyResult.getRegisters()).thenReturn(Optional.empty());
+        when(emptyResult.getBits()).thenReturn(Optional.empty());
+        callbackCaptor.getValue().handle(emptyResult);
+
+        verifyNoInteractions(callback);
+        verify(firstFailureCallback).handle(any());
+        verify(secondFailureCallback).handle(any());
+    }
+
+    @Test
+    public void testMetrics() {
+        ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollCoalescer coalescer = new ModbusPollCoalescer(comms, immediateScheduler(), 0, plan -> {
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        coalescer.setMeterRegistry(meterRegistry, Tags.of("thing", "modbus:tcp:endpoint"));
+
+        ModbusReadCallback callback = mock(ModbusReadCallback.class);
+        coalescer.register(new ThingUID("modbus:poller:endpoint:first"), request(100, 2), 1000, callback,
+                mock(ModbusFailureCallback.class));
+        coalescer.register(new ThingUID("modbus:poller:endpoint:second"), request(102, 2), 1000, callback,
+                mock(ModbusFailureCallback.class));
+        coalescer.register(new ThingUID("modbus:poller:endpoint:third"), request(104, 2), 1000, callback,
+                mock(ModbusFailureCallback.class));
+
+        ArgumentCaptor<ModbusReadRequestBlueprint> requestCaptor = ArgumentCaptor
+                .forClass(ModbusReadRequestBlueprint.class);
+        ArgumentCaptor<ModbusReadCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(requestCaptor.capture(), eq(1000L), eq(0L),
+                callbackCaptor.capture(), any());
+        AsyncModbusReadResult result = new AsyncModbusReadResult(requestCaptor.getValue(),
+                new ModbusRegisterArray(1, 2, 3, 4, 5, 6));
+        callbackCaptor.getValue().handle(result);
+        callbackCaptor.getValue().handle(result);
+
+        // three polls merged into one request save two requests per response
+        assertThat(meterRegistry.get("openhab.binding.modbus.poll.saved").tag("thing", "modbus:tcp:endpoint")
+                .counter().count(), is(equalTo(4.0)));
+        // the cycle time is known from the second response on
+        assertThat(meterRegistry.get("openhab.binding.modbus.poll.cycle").timer().count(), is(equalTo(1L)));
+
+        coalescer.dispose();
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
+}
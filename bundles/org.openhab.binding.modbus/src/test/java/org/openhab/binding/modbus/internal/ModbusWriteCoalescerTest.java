@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusWriteResult;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.ModbusResponse;
+import org.openhab.core.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.core.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusWriteRequestBlueprint;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusWriteCoalescerTest {
+
+    private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private @NonNullByDefault({}) ModbusWriteCoalescer coalescer;
+
+    @BeforeEach
+    public void setUp() {
+        comms = mock(ModbusCommunicationInterface.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+        coalescer = new ModbusWriteCoalescer(comms, scheduler, 50);
+    }
+
+    private void runScheduledTasks() {
+        List<Runnable> tasks = new ArrayList<>(scheduledTasks);
+        scheduledTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static ModbusWriteRegisterRequestBlueprint registerWrite(int start, int... values) {
+        return new ModbusWriteRegisterRequestBlueprint(1, start, new ModbusRegisterArray(values), false, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ModbusWriteRequestBlueprint> captureWrites(List<ModbusWriteCallback> callbacks,
+            List<ModbusFailureCallback<ModbusWriteRequestBlueprint>> failureCallbacks) {
+        ArgumentCaptor<ModbusWriteRequestBlueprint> requestCaptor = ArgumentCaptor
+                .forClass(ModbusWriteRequestBlueprint.class);
+        ArgumentCaptor<ModbusWriteCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusWriteCallback.class);
+        ArgumentCaptor<ModbusFailureCallback<ModbusWriteRequestBlueprint>> failureCaptor = ArgumentCaptor
+                .forClass(ModbusFailureCallback.class);
+        verify(comms, atLeastOnce()).submitOneTimeWrite(requestCaptor.capture(), callbackCaptor.capture(),
+                failureCaptor.capture());
+        callbacks.addAll(callbackCaptor.getAllValues());
+        failureCallbacks.addAll(failureCaptor.getAllValues());
+        return requestCaptor.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAdjacentRegisterWritesAreCombined() {
+        ModbusWriteRegisterRequestBlueprint first = registerWrite(10, 1);
+        ModbusWriteRegisterRequestBlueprint second = registerWrite(11, 2, 3);
+        ModbusWriteCallback firstCallback = mock(ModbusWriteCallback.class);
+        ModbusWriteCallback secondCallback = mock(ModbusWriteCallback.class);
+        ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        coalescer.submit(first, firstCallback, failureCallback);
+        coalescer.submit(second, secondCallback, failureCallback);
+        verifyNoInteractions(comms);
+
+        runScheduledTasks();
+
+        List<ModbusWriteCallback> callbacks = new ArrayList<>();
+        List<ModbusWriteRequestBlueprint> requests = captureWrites(callbacks, new ArrayList<>());
+        assertThat(requests.size(), is(equalTo(1)));
+        ModbusWriteRegisterRequestBlueprint combined = (ModbusWriteRegisterRequestBlueprint) requests.get(0);
+        assertThat(combined.getReference(), is(equalTo(10)));
+        assertThat(combined.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS)));
+        assertThat(combined.getRegisters(), is(equalTo(new ModbusRegisterArray(1, 2, 3))));
+
+        callbacks.get(0).handle(new AsyncModbusWriteResult(combined, mock(ModbusResponse.class)));
+        ArgumentCaptor<AsyncModbusWriteResult> resultCaptor = ArgumentCaptor.forClass(AsyncModbusWriteResult.class);
+        verify(firstCallback).handle(resultCaptor.capture());
+        assertThat(resultCaptor.getValue().getRequest(), is(sameInstance(first)));
+        verify(secondCallback).handle(resultCaptor.capture());
+        assertThat(resultCaptor.getValue().getRequest(), is(sameInstance(second)));
+        verifyNoInteractions(failureCallback);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLastWriteToRegisterWins() {
+        ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        coalescer.submit(registerWrite(5, 1), mock(ModbusWriteCallback.class), failureCallback);
+        coalescer.submit(registerWrite(5, 2), mock(ModbusWriteCallback.class), failureCallback);
+
+        runScheduledTasks();
+
+        List<ModbusWriteRequestBlueprint> requests = captureWrites(new ArrayList<>(), new ArrayList<>());
+        assertThat(requests.size(), is(equalTo(1)));
+        ModbusWriteRegisterRequestBlueprint combined = (ModbusWriteRegisterRequestBlueprint) requests.get(0);
+        assertThat(combined.getReference(), is(equalTo(5)));
+        // single register is still written with function code 6
+        assertThat(combined.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_SINGLE_REGISTER)));
+        assertThat(combined.getRegisters(), is(equalTo(new ModbusRegisterArray(2))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSeparateRequestsForGapsAndCoils() {
+        ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        coalescer.submit(registerWrite(0, 1), mock(ModbusWriteCallback.class), failureCallback);
+        coalescer.submit(registerWrite(2, 2), mock(ModbusWriteCallback.class), failureCallback);
+        coalescer.submit(new ModbusWriteCoilRequestBlueprint(1, 0, true, false, 3), mock(ModbusWriteCallback.class),
+                failureCallback);
+        coalescer.submit(new ModbusWriteCoilRequestBlueprint(1, 1, false, false, 3),
+                mock(ModbusWriteCallback.class), failureCallback);
+
+        runScheduledTasks();
+
+        List<ModbusWriteRequestBlueprint> requests = captureWrites(new ArrayList<>(), new ArrayList<>());
+        assertThat(requests.size(), is(equalTo(3)));
+        ModbusWriteCoilRequestBlueprint coils = (ModbusWriteCoilRequestBlueprint) requests.get(2);
+        assertThat(coils.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS)));
+        assertThat(coils.getCoils().size(), is(equalTo(2)));
+        assertThat(coils.getCoils().getBit(0), is(true));
+        assertThat(coils.getCoils().getBit(1), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testNextBatchWaitsForPreviousAndFailuresAreDelegated() {
+        ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        ModbusWriteRegisterRequestBlueprint first = registerWrite(0, 1);
+        coalescer.submit(first, mock(ModbusWriteCallback.class), failureCallback);
+        runScheduledTasks();
+
+        coalescer.submit(registerWrite(0, 2), mock(ModbusWriteCallback.class), failureCallback);
+        // previous write is still in progress
+        assertThat(scheduledTasks.isEmpty(), is(true));
+
+        List<ModbusFailureCallback<ModbusWriteRequestBlueprint>> failureCallbacks = new ArrayList<>();
+        List<ModbusWriteRequestBlueprint> requests = captureWrites(new ArrayList<>(), failureCallbacks);
+        failureCallbacks.get(0).handle(new AsyncModbusFailure<>(requests.get(0), new Exception("failure")));
+
+        ArgumentCaptor<AsyncModbusFailure<ModbusWriteRequestBlueprint>> failureCaptor = ArgumentCaptor
+                .forClass(AsyncModbusFailure.class);
+        verify(failureCallback).handle(failureCaptor.capture());
+        assertThat(failureCaptor.getValue().getRequest(), is(sameInstance(first)));
+        assertThat(scheduledTasks.size(), is(equalTo(1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFailedSubmitCompletesWrites() {
+        // the first submit fails, e.g. because the endpoint has been closed
+        doThrow(new IllegalStateException("closed")).doAnswer(invocation -> null).when(comms)
+                .submitOneTimeWrite(any(), any(), any());
+        ModbusWriteCallback callback = mock(ModbusWriteCallback.class);
+        ModbusFailureCallback<ModbusWriteRequestBlueprint> failureCallback = mock(ModbusFailureCallback.class);
+        ModbusWriteRegisterRequestBlueprint write = registerWrite(0, 1);
+        coalescer.submit(write, callback, failureCallback);
+
+        runScheduledTasks();
+
+        ArgumentCaptor<AsyncModbusFailure<ModbusWriteRequestBlueprint>> failureCaptor = ArgumentCaptor
+                .forClass(AsyncModbusFailure.class);
+        verify(failureCallback).handle(failureCaptor.capture());
+        assertThat(failureCaptor.getValue().getRequest(), is(sameInstance(write)));
+        assertThat(failureCaptor.getValue().getCause(), is(instanceOf(IllegalStateException.class)));
+        verifyNoInteractions(callback);
+
+        // the failed request doesn't block the following writes
+        coalescer.submit(registerWrite(0, 2), mock(ModbusWriteCallback.class), failureCallback);
+        assertThat(scheduledTasks.size(), is(equalTo(1)));
+        runScheduledTasks();
+        verify(comms, times(2)).submitOneTimeWrite(any(), any(), any());
+    }
+}
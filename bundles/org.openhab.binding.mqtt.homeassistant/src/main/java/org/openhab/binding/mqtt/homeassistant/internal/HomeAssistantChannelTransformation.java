@@ -20,11 +20,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.homeassistant.internal.component.AbstractComponent;
 import org.openhab.core.thing.binding.generic.ChannelTransformation;
+import org.openhab.transform.jinja.internal.template.JinjaTemplateRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +36,7 @@ import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 import com.hubspot.jinjava.interpret.InvalidInputException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * Provides a channel transformation for a Home Assistant channel with a
@@ -55,6 +58,9 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
     private final Jinjava jinjava;
     private final AbstractComponent component;
     private final String template;
+    private final @Nullable Node parsedTemplate;
+    // other templates of the component, e.g. the command templates of a light; templates with errors are not kept
+    private final Map<String, Node> parsedTemplates = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public HomeAssistantChannelTransformation(Jinjava jinjava, AbstractComponent component, String template) {
@@ -62,6 +68,7 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         this.jinjava = jinjava;
         this.component = component;
         this.template = template;
+        this.parsedTemplate = JinjaTemplateRenderer.parse(jinjava, template);
     }
 
     @Override
@@ -95,7 +102,8 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         String transformationResult;
 
         try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = JinjaTemplateRenderer.render(jinjava, template, getParsedTemplate(template),
+                    bindings);
         } catch (FatalTemplateErrorsException e) {
             var error = e.getErrors().iterator();
             Exception exception = null;
@@ -116,6 +124,13 @@ public class HomeAssistantChannelTransformation extends ChannelTransformation {
         return Optional.of(transformationResult);
     }
 
+    private @Nullable Node getParsedTemplate(String template) {
+        if (template.equals(this.template)) {
+            return parsedTemplate;
+        }
+        return parsedTemplates.computeIfAbsent(template, t -> JinjaTemplateRenderer.parse(jinjava, t));
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -14,18 +14,21 @@ package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -43,6 +46,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfiguratio
 import org.openhab.binding.mqtt.homeassistant.internal.config.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.config.dto.AbstractChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.config.discovery.DiscoveryResult;
@@ -76,13 +80,25 @@ import com.google.gson.GsonBuilder;
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantDiscovery.class);
     private HomeAssistantConfiguration configuration;
+    // guarded by componentsPerThingID
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
-    protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
+    private final Map<String, DiscoveredThing> changedThings = new HashMap<>();
+
+    private final Map<String, byte[]> payloadPerTopic = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final ExecutorService discoveryPool = ThreadPoolManager.getPool(DISCOVERY_THREAD_POOL_NAME);
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
 
+    /**
+     * Latest component configuration received for a thing
+     */
+    private record DiscoveredThing(ThingUID thingUID, ThingUID bridgeUID, String baseTopic,
+            AbstractChannelConfiguration config) {
+    }
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -100,6 +116,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     static final String BASE_TOPIC = "homeassistant";
     static final String BIRTH_TOPIC = "homeassistant/status";
     static final String ONLINE_STATUS = "online";
+    static final String DISCOVERY_THREAD_POOL_NAME = "mqtt-homeassistant-discovery";
 
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
@@ -188,14 +205,36 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
+        // Retained configurations are received again on each reconnect, skip the ones that didn't change
+        // an unchanged configuration keeps the one stored before, so its pending processing is not skipped below
+        byte[] storedPayload = payloadPerTopic.merge(topic, payload,
+                (previous, current) -> Arrays.equals(previous, current) ? previous : current);
+        if (storedPayload != payload) {
+            logger.trace("Skipping unchanged HomeAssistant configuration {}", topic);
+            return;
         }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
+        pendingMessages.incrementAndGet();
+        try {
+            discoveryPool.execute(() -> {
+                try {
+                    // skip the configuration if a different one of the same topic has been received in the meantime
+                    if (payloadPerTopic.get(topic) == payload) {
+                        processConfiguration(connectionBridge, topic, payload);
+                    }
+                } finally {
+                    pendingMessages.decrementAndGet();
+                    schedulePublishResults();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingMessages.decrementAndGet();
+            payloadPerTopic.remove(topic);
+            logger.debug("HomeAssistant discover error: {}", e.getMessage());
+        }
+    }
+
+    private void processConfiguration(ThingUID connectionBridge, String topic, byte[] payload) {
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
@@ -209,42 +248,21 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             final ThingUID thingUID = new ThingUID(MqttBindingConstants.HOMEASSISTANT_MQTT_THING, connectionBridge,
                     thingID);
 
-            thingIDPerTopic.put(topic, thingUID);
-
-            // We need to keep track of already found component topics for a specific thing
-            final List<HaID> components;
-            {
-                Set<HaID> componentsUnordered = componentsPerThingID.computeIfAbsent(thingID,
-                        key -> ConcurrentHashMap.newKeySet());
-
-                // Invariant. For compiler, computeIfAbsent above returns always
-                // non-null
-                Objects.requireNonNull(componentsUnordered);
-                componentsUnordered.add(haID);
+            synchronized (componentsPerThingID) {
+                ThingUID previousThingUID = thingIDPerTopic.put(topic, thingUID);
+                if (previousThingUID != null && !previousThingUID.equals(thingUID)) {
+                    // the component moved to another thing
+                    Set<HaID> previousComponents = componentsPerThingID.get(previousThingUID.getId());
+                    if (previousComponents != null) {
+                        previousComponents.remove(haID);
+                    }
+                }
 
-                components = componentsUnordered.stream().collect(Collectors.toList());
-                // We sort the components for consistent jsondb serialization order of 'topics' thing property
-                // Sorting key is HaID::toString, i.e. using the full topic string
-                components.sort(Comparator.comparing(HaID::toString));
+                // We need to keep track of already found component topics for a specific thing
+                componentsPerThingID.computeIfAbsent(thingID, key -> new HashSet<>()).add(haID);
+                // The discovery result of the thing is created once all received components have been processed
+                changedThings.put(thingID, new DiscoveredThing(thingUID, connectionBridge, haID.baseTopic, config));
             }
-
-            final String componentNames = getComponentNamesSummary(
-                    components.stream().map(id -> id.component).map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)));
-
-            final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
-
-            Map<String, Object> properties = new HashMap<>();
-            HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
-            properties = handlerConfig.appendToProperties(properties);
-            properties = config.appendToProperties(properties);
-            properties.put("deviceId", thingID);
-            properties.put("newStyleChannels", "true");
-
-            // Because we need the new properties map with the updated "components" list
-            results.put(thingUID.getAsString(),
-                    DiscoveryResultBuilder.create(thingUID).withProperties(properties)
-                            .withRepresentationProperty("deviceId").withBridge(connectionBridge)
-                            .withLabel(config.getThingName() + " (" + componentNames + ")").build());
         } catch (ConfigurationException e) {
             logger.warn("HomeAssistant discover error: invalid configuration of thing {} component {}: {}",
                     haID.objectID, haID.component, e.getMessage());
@@ -253,6 +271,41 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         }
     }
 
+    /**
+     * Reset the found-component timer.
+     * We will collect components for the thing label description for another 2 seconds.
+     */
+    private synchronized void schedulePublishResults() {
+        final ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
+    }
+
+    private DiscoveryResult createResult(String thingID, DiscoveredThing thing, Set<HaID> componentsUnordered) {
+        // We sort the components for consistent jsondb serialization order of 'topics' thing property
+        // Sorting key is HaID::toString, i.e. using the full topic string
+        final List<HaID> components = componentsUnordered.stream().sorted(Comparator.comparing(HaID::toString))
+                .toList();
+
+        final String componentNames = getComponentNamesSummary(
+                components.stream().map(id -> id.component).map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)));
+
+        final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+
+        Map<String, Object> properties = new HashMap<>();
+        HandlerConfiguration handlerConfig = new HandlerConfiguration(thing.baseTopic(), topics);
+        properties = handlerConfig.appendToProperties(properties);
+        properties = thing.config().appendToProperties(properties);
+        properties.put("deviceId", thingID);
+        properties.put("newStyleChannels", "true");
+
+        return DiscoveryResultBuilder.create(thing.thingUID()).withProperties(properties)
+                .withRepresentationProperty("deviceId").withBridge(thing.bridgeUID())
+                .withLabel(thing.config().getThingName() + " (" + componentNames + ")").build();
+    }
+
     @Override
     protected void startScan() {
         super.startScan();
@@ -266,6 +319,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     }
 
     private void triggerDeviceDiscovery() {
+        // all retained configurations are announced again
+        payloadPerTopic.clear();
         if (!configuration.status) {
             return;
         }
@@ -274,11 +329,17 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     }
 
     protected void publishResults() {
-        Collection<DiscoveryResult> localResults;
+        if (pendingMessages.get() > 0) {
+            // published when the remaining messages have been processed
+            return;
+        }
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
+        List<DiscoveryResult> localResults = new ArrayList<>();
+        synchronized (componentsPerThingID) {
+            changedThings.forEach((thingID, thing) -> localResults
+                    .add(createResult(thingID, thing, componentsPerThingID.getOrDefault(thingID, Set.of()))));
+            changedThings.clear();
+        }
         for (DiscoveryResult result : localResults) {
             thingDiscovered(result);
         }
@@ -289,8 +350,12 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
-            ThingUID thingUID = thingIDPerTopic.remove(topic);
+        payloadPerTopic.remove(topic);
+        @Nullable
+        ThingUID thingUID;
+        boolean removed = false;
+        synchronized (componentsPerThingID) {
+            thingUID = thingIDPerTopic.remove(topic);
             if (thingUID != null) {
                 final String thingID = thingUID.getId();
 
@@ -299,9 +364,14 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
                 Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
                 components.remove(haID);
                 if (components.isEmpty()) {
-                    thingRemoved(thingUID);
+                    componentsPerThingID.remove(thingID);
+                    changedThings.remove(thingID);
+                    removed = true;
                 }
             }
         }
+        if (thingUID != null && removed) {
+            thingRemoved(thingUID);
+        }
     }
 }
@@ -15,6 +15,7 @@ package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -93,6 +94,40 @@ public class HomeAssistantDiscoveryTests extends AbstractHomeAssistantTests {
                 "climate/0x847127fffe11dd6a_climate_zigbee2mqtt", "switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt"));
     }
 
+    @Test
+    public void testRetainedConfigurationsOnReconnect() throws Exception {
+        var discoveryListener = new LatchDiscoveryListener();
+        var latch = discoveryListener.createWaitForThingsDiscoveredLatch(1);
+        byte[] climateConfig = getResourceAsByteArray("component/configTS0601ClimateThermostat.json");
+        byte[] autoLockConfig = getResourceAsByteArray("component/configTS0601AutoLock.json");
+
+        discovery.addDiscoveryListener(discoveryListener);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config", climateConfig);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config", autoLockConfig);
+        assert latch.await(3, TimeUnit.SECONDS);
+
+        // When the retained configurations are received again, with one of them changed
+        latch = discoveryListener.createWaitForThingsDiscoveredLatch(1);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config", climateConfig);
+        discovery.receivedMessage(HA_UID, bridgeConnection,
+                "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config",
+                new String(autoLockConfig, StandardCharsets.UTF_8)
+                        .replace("Zigbee2MQTT 1.18.2", "Zigbee2MQTT 1.19.0").getBytes(StandardCharsets.UTF_8));
+
+        // Then the thing is updated once, still with both components
+        assert latch.await(3, TimeUnit.SECONDS);
+        var discoveryResults = discoveryListener.getDiscoveryResults();
+        assertThat(discoveryResults.size(), is(2));
+        var result = discoveryResults.get(1);
+        assertThat(result.getProperties().get(Thing.PROPERTY_FIRMWARE_VERSION), is("Zigbee2MQTT 1.19.0"));
+        assertThat(result.getLabel(), is("th1 (Climate Control, Switch)"));
+        assertThat((List<String>) result.getProperties().get(HandlerConfiguration.PROPERTY_TOPICS), hasItems(
+                "climate/0x847127fffe11dd6a_climate_zigbee2mqtt", "switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt"));
+    }
+
     private static class TestHomeAssistantDiscovery extends HomeAssistantDiscovery {
         public TestHomeAssistantDiscovery(MqttChannelTypeProvider typeProvider) {
             super(null);
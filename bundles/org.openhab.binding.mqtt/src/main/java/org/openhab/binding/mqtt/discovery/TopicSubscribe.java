@@ -24,7 +24,10 @@ import org.openhab.core.thing.ThingUID;
  * Represents a MQTT subscription for one specific topic. This is an immutable class.
  *
  * @author David Graeff - Initial contribution
+ * @deprecated The broker handlers no longer use this class. Register discovery participants with the
+ *             {@link MQTTTopicDiscoveryService} instead, which subscribes their topics once per broker connection.
  */
+@Deprecated
 @NonNullByDefault
 public class TopicSubscribe implements MqttMessageSubscriber {
     final @Nullable MqttBrokerConnection connection;
@@ -14,19 +14,24 @@ package org.openhab.binding.mqtt.handler;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
-import org.openhab.binding.mqtt.discovery.TopicSubscribe;
+import org.openhab.binding.mqtt.internal.MqttTopicTrie;
 import org.openhab.binding.mqtt.internal.action.MQTTActions;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.io.transport.mqtt.MqttConnectionObserver;
 import org.openhab.core.io.transport.mqtt.MqttConnectionState;
+import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
@@ -38,6 +43,12 @@ import org.openhab.core.types.Command;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * This base implementation handles connection changes of the {@link MqttBrokerConnection}
  * and puts the Thing on or offline. It also provides a basic dispose() implementation.
@@ -47,18 +58,123 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements MqttConnectionObserver {
     public static final int TIMEOUT_DEFAULT = 1200; /* timeout in milliseconds */
+    private static final String METRIC_CONNECTED = "openhab.binding.mqtt.connection.connected";
+    private static final String METRIC_DISCONNECTS = "openhab.binding.mqtt.connection.disconnects";
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
     final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
-    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new HashMap<>();
+
+    /**
+     * All discovery listeners, by the topic they registered for
+     */
+    private final MqttTopicTrie<DiscoveryListener> discoveryListeners = new MqttTopicTrie<>();
+    /**
+     * Number of discovery listeners per topic. Guarded by discoveryListeners.
+     */
+    private final Map<String, Integer> discoveryTopics = new TreeMap<>();
+    /**
+     * Subscriptions on the broker connection. Topics covered by another topic (e.g. "a/b/+" by "a/#") are not
+     * subscribed, their messages are routed by the subscription of the covering topic. Guarded by discoveryListeners.
+     */
+    private final Map<String, DiscoverySubscription> discoverySubscriptions = new HashMap<>();
+
+    private record DiscoveryListener(String topic, MQTTTopicDiscoveryParticipant listener) {
+    }
+
+    /**
+     * Subscription of a discovery topic on the broker connection. Incoming messages are passed to all listeners
+     * registered for a topic matching the message, if the subscription is responsible for their topic.
+     */
+    private class DiscoverySubscription implements MqttMessageSubscriber {
+        private final MqttBrokerConnection connection;
+        private final String filter;
+        private volatile Set<String> coveredTopics = Set.of();
+
+        DiscoverySubscription(MqttBrokerConnection connection, String filter) {
+            this.connection = connection;
+            this.filter = filter;
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            Set<String> coveredTopics = this.coveredTopics;
+            discoveryListeners.forEachMatch(topic, discoveryListener -> {
+                if (!coveredTopics.contains(discoveryListener.topic())) {
+                    // another subscription is responsible for this listener
+                    return;
+                }
+                deliver(discoveryListener, topic, payload);
+            });
+        }
+
+        private void deliver(DiscoveryListener discoveryListener, String topic, byte[] payload) {
+            if (payload.length > 0) {
+                discoveryListener.listener().receivedMessage(thing.getUID(), connection, topic, payload);
+            } else {
+                discoveryListener.listener().topicVanished(thing.getUID(), connection, topic);
+            }
+        }
+
+        /**
+         * Pass the retained messages received so far to a listener registered after the topic was subscribed. The
+         * broker only sends them once per subscription, but the connection replays them to every new subscriber of
+         * the topic, so the listener is subscribed with a subscriber of its own for the time of the replay.
+         */
+        void replayRetainedMessages(DiscoveryListener discoveryListener) {
+            MqttMessageSubscriber replaySubscriber = (topic, payload) -> {
+                if (MqttTopicTrie.covers(discoveryListener.topic(), topic)) {
+                    deliver(discoveryListener, topic, payload);
+                }
+            };
+            connection.subscribe(filter, replaySubscriber);
+            connection.unsubscribe(filter, replaySubscriber);
+        }
+
+        void start() {
+            connection.subscribe(filter, this).handle((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Failed to subscribe to discovery topic {} on broker {}", filter, thing.getUID());
+                } else {
+                    logger.trace("Subscribed to discovery topic {} on broker {}", filter, thing.getUID());
+                }
+                return null;
+            });
+        }
+
+        void stop() {
+            connection.unsubscribe(filter, this);
+            logger.trace("Unsubscribed from discovery topic {} on broker {}", filter, thing.getUID());
+        }
+    }
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
 
+    private @Nullable MeterRegistry meterRegistry;
+    private boolean metersEnabled;
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+    private volatile @Nullable Counter disconnectCounter;
+    private volatile MqttConnectionState lastConnectionState = MqttConnectionState.DISCONNECTED;
+
     public AbstractBrokerHandler(Bridge thing) {
         super(thing);
     }
 
+    /**
+     * Set the registry of the meters reporting the state of the broker connection
+     *
+     * The meters of an initialized handler are moved to the given registry right away.
+     *
+     * @param meterRegistry registry of the meters, or null to not report any metrics
+     */
+    public synchronized void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        removeMeters();
+        this.meterRegistry = meterRegistry;
+        if (metersEnabled) {
+            registerMeters();
+        }
+    }
+
     @Override
     public Collection<Class<? extends ThingHandlerService>> getServices() {
         return Set.of(MQTTActions.class);
@@ -104,6 +220,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
             channelStateByChannelUID.put(channel.getUID(), c);
         }
 
+        enableMeters(true);
         connection.addConnectionObserver(this);
 
         connection.start().exceptionally(e -> {
@@ -116,32 +233,20 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         });
         connectionFuture.complete(connection);
 
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.replaceAll((listener, oldTopicSubscribe) -> {
-                if (oldTopicSubscribe.isStarted()) {
-                    oldTopicSubscribe.stop();
-                }
-
-                TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-                if (discoveryEnabled()) {
-                    topicSubscribe.start().handle((result, ex) -> {
-                        if (ex != null) {
-                            logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        } else {
-                            logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        }
-                        return null;
-                    });
-                }
-                return topicSubscribe;
-            });
-        });
+        synchronized (discoveryListeners) {
+            stopDiscoverySubscriptions();
+            updateDiscoverySubscriptions(null);
+        }
     }
 
     @Override
     public void connectionStateChanged(MqttConnectionState state, @Nullable Throwable error) {
+        Counter localDisconnectCounter = disconnectCounter;
+        if (localDisconnectCounter != null && lastConnectionState == MqttConnectionState.CONNECTED
+                && state != MqttConnectionState.CONNECTED) {
+            localDisconnectCounter.increment();
+        }
+        lastConnectionState = state;
         if (state == MqttConnectionState.CONNECTED) {
             updateStatus(ThingStatus.ONLINE);
             channelStateByChannelUID.values().forEach(PublishTriggerChannel::start);
@@ -169,11 +274,9 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         channelStateByChannelUID.clear();
 
         // keep topics, but stop subscriptions
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.forEach((listener, topicSubscribe) -> {
-                topicSubscribe.stop();
-            });
-        });
+        synchronized (discoveryListeners) {
+            stopDiscoverySubscriptions();
+        }
 
         if (connection != null) {
             connection.removeConnectionObserver(this);
@@ -183,9 +286,48 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         }
         this.connection = null;
         connectionFuture = new CompletableFuture<>();
+        enableMeters(false);
+        lastConnectionState = MqttConnectionState.DISCONNECTED;
         super.dispose();
     }
 
+    private synchronized void enableMeters(boolean enabled) {
+        metersEnabled = enabled;
+        if (enabled) {
+            registerMeters();
+        } else {
+            removeMeters();
+        }
+    }
+
+    private void registerMeters() {
+        MeterRegistry localMeterRegistry = meterRegistry;
+        if (localMeterRegistry == null || !meters.isEmpty()) {
+            return;
+        }
+        Tags tags = Tags.of("binding", thing.getUID().getBindingId(), "thing", thing.getUID().getAsString());
+        Gauge connectedGauge = Gauge.builder(METRIC_CONNECTED, this, AbstractBrokerHandler::getConnectedValue)
+                .description("Whether the broker is connected").tags(tags).register(localMeterRegistry);
+        Counter localDisconnectCounter = Counter.builder(METRIC_DISCONNECTS)
+                .description("Number of times the connection to the broker was lost").tags(tags)
+                .register(localMeterRegistry);
+        meters.addAll(List.of(connectedGauge, localDisconnectCounter));
+        disconnectCounter = localDisconnectCounter;
+    }
+
+    private double getConnectedValue() {
+        return lastConnectionState == MqttConnectionState.CONNECTED ? 1 : 0;
+    }
+
+    private void removeMeters() {
+        MeterRegistry localMeterRegistry = meterRegistry;
+        if (localMeterRegistry != null) {
+            meters.forEach(localMeterRegistry::remove);
+        }
+        meters.clear();
+        disconnectCounter = null;
+    }
+
     /**
      * register a discovery listener to a specified topic on this broker (used by the handler factory)
      *
@@ -193,30 +335,16 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (wildcards supported)
      */
     public final void registerDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics
-                .computeIfAbsent(topic, t -> new HashMap<>());
-        topicListeners.compute(listener, (k, v) -> {
-            if (v != null) {
+        synchronized (discoveryListeners) {
+            DiscoveryListener discoveryListener = new DiscoveryListener(topic, listener);
+            if (!discoveryListeners.add(topic, discoveryListener)) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
                         listener, topic, thing.getUID());
-                v.stop();
-            }
-
-            TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-            if (discoveryEnabled()) {
-                topicSubscribe.start().handle((result, ex) -> {
-                    if (ex != null) {
-                        logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    } else {
-                        logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    }
-                    return null;
-                });
+            } else {
+                discoveryTopics.merge(topic, 1, Integer::sum);
             }
-            return topicSubscribe;
-        });
+            updateDiscoverySubscriptions(discoveryListener);
+        }
     }
 
     /**
@@ -226,29 +354,87 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (as specified during registration)
      */
     public final void unregisterDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        discoveryTopics.compute(topic, (k, v) -> {
-            if (v == null) {
+        synchronized (discoveryListeners) {
+            if (!discoveryTopics.containsKey(topic)) {
                 logger.warn(
                         "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered at all. Check discovery logic!",
                         listener, topic, thing.getUID());
-                return null;
+                return;
             }
-            v.compute(listener, (l, w) -> {
-                if (w == null) {
-                    logger.warn(
-                            "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
-                            listener, topic, thing.getUID());
-                } else {
-                    w.stop();
-                    logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic,
-                            thing.getUID());
+            if (!discoveryListeners.remove(topic, new DiscoveryListener(topic, listener))) {
+                logger.warn(
+                        "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
+                        listener, topic, thing.getUID());
+                return;
+            }
+            discoveryTopics.computeIfPresent(topic, (t, count) -> count > 1 ? count - 1 : null);
+            logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic, thing.getUID());
+            updateDiscoverySubscriptions(null);
+        }
+    }
+
+    /**
+     * Subscribe the topics on the broker connection that are not covered by other topics, and unsubscribe topics
+     * that are no longer needed. Must be called while holding the lock on discoveryListeners.
+     *
+     * @param addedListener a newly registered listener, or null. If its topic is covered by a topic that is already
+     *            subscribed, the retained messages received so far are passed to it.
+     */
+    private void updateDiscoverySubscriptions(@Nullable DiscoveryListener addedListener) {
+        MqttBrokerConnection connection = this.connection;
+        if (connection == null || !discoveryEnabled()) {
+            return;
+        }
+        // the topics that are not covered by another topic, with the topics they cover
+        Map<String, Set<String>> coveredTopics = new HashMap<>();
+        List<String> topics = List.copyOf(discoveryTopics.keySet());
+        List<String> subscribedTopics = topics.stream()
+                .filter(topic -> topics.stream().noneMatch(other -> isCoveringTopic(other, topic))).toList();
+        for (String topic : topics) {
+            String coveringTopic = subscribedTopics.stream()
+                    .filter(other -> other.equals(topic) || isCoveringTopic(other, topic)).findFirst().orElse(topic);
+            coveredTopics.computeIfAbsent(coveringTopic, t -> new HashSet<>()).add(topic);
+        }
+
+        discoverySubscriptions.entrySet().removeIf(entry -> {
+            if (!coveredTopics.containsKey(entry.getKey())) {
+                entry.getValue().stop();
+                return true;
+            }
+            return false;
+        });
+        coveredTopics.forEach((topic, covered) -> {
+            DiscoverySubscription subscription = discoverySubscriptions.get(topic);
+            if (subscription == null) {
+                subscription = new DiscoverySubscription(connection, topic);
+                subscription.coveredTopics = Set.copyOf(covered);
+                discoverySubscriptions.put(topic, subscription);
+                subscription.start();
+            } else {
+                subscription.coveredTopics = Set.copyOf(covered);
+                if (addedListener != null && covered.contains(addedListener.topic())) {
+                    subscription.replayRetainedMessages(addedListener);
                 }
-                return null;
-            });
-            return v.isEmpty() ? null : v;
+            }
         });
     }
 
+    /**
+     * Check whether a topic is subscribed instead of another topic
+     */
+    private static boolean isCoveringTopic(String topic, String other) {
+        if (topic.equals(other) || !MqttTopicTrie.covers(topic, other)) {
+            return false;
+        }
+        // topics covering each other (like "#" and "+/#"): the first one is subscribed
+        return !MqttTopicTrie.covers(other, topic) || topic.compareTo(other) < 0;
+    }
+
+    private void stopDiscoverySubscriptions() {
+        discoverySubscriptions.values().forEach(DiscoverySubscription::stop);
+        discoverySubscriptions.clear();
+    }
+
     /**
      * check whether discovery is disabled on this broker
      *
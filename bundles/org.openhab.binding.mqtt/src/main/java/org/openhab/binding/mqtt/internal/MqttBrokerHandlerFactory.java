@@ -27,6 +27,7 @@ import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
 import org.openhab.binding.mqtt.handler.BrokerHandler;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
@@ -34,6 +35,11 @@ import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * The {@link MqttBrokerHandlerFactory} is responsible for creating things and thing
@@ -62,6 +68,8 @@ public class MqttBrokerHandlerFactory extends BaseThingHandlerFactory implements
     protected final Set<AbstractBrokerHandler> handlers = Collections
             .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
+    private @Nullable MeterRegistry meterRegistry;
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -71,7 +79,8 @@ public class MqttBrokerHandlerFactory extends BaseThingHandlerFactory implements
      * Add the given broker handler to the list of known handlers. And then iterate over all topics and their respective
      * list of listeners, and register the respective new listener and topic with the given new broker handler.
      */
-    protected void createdHandler(AbstractBrokerHandler handler) {
+    protected synchronized void createdHandler(AbstractBrokerHandler handler) {
+        handler.setMeterRegistry(meterRegistry);
         handlers.add(handler);
         discoveryTopics.forEach((topic, listeners) -> {
             listeners.forEach(listener -> {
@@ -97,6 +106,18 @@ public class MqttBrokerHandlerFactory extends BaseThingHandlerFactory implements
         return handler;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry localMeterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        meterRegistry = localMeterRegistry;
+        handlers.forEach(handler -> handler.setMeterRegistry(localMeterRegistry));
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        meterRegistry = null;
+        handlers.forEach(handler -> handler.setMeterRegistry(null));
+    }
+
     /**
      * This factory also implements {@link MQTTTopicDiscoveryService} so consumers can subscribe to
      * a MQTT topic that is registered on all available broker connections.
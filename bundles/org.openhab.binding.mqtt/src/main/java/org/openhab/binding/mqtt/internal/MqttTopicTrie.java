@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A trie of MQTT topic filters. Each level of a filter is a node, so the values of all filters matching a topic are
+ * found by walking the levels of the topic once, independent of the number of filters.
+ *
+ * Filters support the single level wildcard <code>+</code> and the multi level wildcard <code>#</code>. Lookups can
+ * be done concurrently to modifications.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> type of the values
+ */
+@NonNullByDefault
+public class MqttTopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+        final Set<T> values = new CopyOnWriteArraySet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Add a value for a filter
+     *
+     * @param filter topic filter, wildcards supported
+     * @param value value
+     * @return true if the value was not registered for the filter yet
+     */
+    public synchronized boolean add(String filter, T value) {
+        Node<T> node = root;
+        for (String level : filter.split("/", -1)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        return node.values.add(value);
+    }
+
+    /**
+     * Remove a value of a filter
+     *
+     * @param filter topic filter, as it was added
+     * @param value value
+     * @return true if the value was registered for the filter
+     */
+    public synchronized boolean remove(String filter, T value) {
+        return remove(root, filter.split("/", -1), 0, value);
+    }
+
+    private boolean remove(Node<T> node, String[] levels, int index, T value) {
+        if (index == levels.length) {
+            return node.values.remove(value);
+        }
+        Node<T> child = node.children.get(levels[index]);
+        if (child == null) {
+            return false;
+        }
+        boolean removed = remove(child, levels, index + 1, value);
+        if (child.isEmpty()) {
+            node.children.remove(levels[index]);
+        }
+        return removed;
+    }
+
+    /**
+     * Call the consumer for the values of all filters matching a topic
+     *
+     * @param topic topic, without wildcards
+     * @param consumer consumer of the values
+     */
+    public void forEachMatch(String topic, Consumer<T> consumer) {
+        forEachMatch(root, topic.split("/", -1), 0, consumer);
+    }
+
+    private void forEachMatch(Node<T> node, String[] levels, int index, Consumer<T> consumer) {
+        // wildcards on the first level don't match topics starting with "$", like "$SYS/..."
+        boolean wildcards = index > 0 || !levels[0].startsWith("$");
+        // "#" also matches the parent level, e.g. "a/#" matches "a"
+        @Nullable
+        Node<T> multiLevel = wildcards ? node.children.get(MULTI_LEVEL_WILDCARD) : null;
+        if (multiLevel != null) {
+            multiLevel.values.forEach(consumer);
+        }
+        if (index == levels.length) {
+            node.values.forEach(consumer);
+            return;
+        }
+        @Nullable
+        Node<T> exact = node.children.get(levels[index]);
+        if (exact != null) {
+            forEachMatch(exact, levels, index + 1, consumer);
+        }
+        @Nullable
+        Node<T> singleLevel = wildcards ? node.children.get(SINGLE_LEVEL_WILDCARD) : null;
+        if (singleLevel != null) {
+            forEachMatch(singleLevel, levels, index + 1, consumer);
+        }
+    }
+
+    /**
+     * @return true if no values are registered
+     */
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    /**
+     * Check whether a filter matches all topics another filter matches
+     *
+     * @param filter topic filter
+     * @param other other topic filter
+     * @return true if all topics matched by <code>other</code> are matched by <code>filter</code>
+     */
+    public static boolean covers(String filter, String other) {
+        String[] levels = filter.split("/", -1);
+        String[] otherLevels = other.split("/", -1);
+        if (otherLevels[0].startsWith("$") && !levels[0].equals(otherLevels[0])) {
+            // wildcards on the first level don't match topics starting with "$"
+            return false;
+        }
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (MULTI_LEVEL_WILDCARD.equals(level)) {
+                // "a/#" matches "a" and everything below
+                return otherLevels.length >= i;
+            }
+            if (i >= otherLevels.length) {
+                return false;
+            }
+            String otherLevel = otherLevels[i];
+            if (MULTI_LEVEL_WILDCARD.equals(otherLevel)) {
+                return false;
+            }
+            if (!SINGLE_LEVEL_WILDCARD.equals(level) && !level.equals(otherLevel)) {
+                return false;
+            }
+        }
+        return levels.length == otherLevels.length;
+    }
+}
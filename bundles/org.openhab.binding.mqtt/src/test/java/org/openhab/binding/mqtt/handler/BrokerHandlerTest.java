@@ -14,7 +14,7 @@ package org.openhab.binding.mqtt.handler;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -40,9 +40,12 @@ import org.openhab.core.test.java.JavaTest;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusInfo;
+import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.ThingHandlerCallback;
 import org.osgi.service.cm.ConfigurationException;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * Test cases for {@link BrokerHandler}.
  *
@@ -96,6 +99,29 @@ public class BrokerHandlerTest extends JavaTest {
         verify(handler).createBrokerConnection();
     }
 
+    @Test
+    public void metersFollowTheRegistry() {
+        when(thingMock.getUID()).thenReturn(new ThingUID("mqtt:broker:test"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SimpleMeterRegistry laterMeterRegistry = new SimpleMeterRegistry();
+
+        // the meters of a handler without a registry are registered when the registry appears
+        handler.initialize();
+        handler.setMeterRegistry(meterRegistry);
+        assertEquals(0, meterRegistry.get("openhab.binding.mqtt.connection.disconnects").counter().count());
+
+        handler.setMeterRegistry(laterMeterRegistry);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+        assertEquals(2, laterMeterRegistry.getMeters().size());
+
+        handler.dispose();
+        assertTrue(laterMeterRegistry.getMeters().isEmpty());
+
+        // a disposed handler only remembers the registry
+        handler.setMeterRegistry(meterRegistry);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
     @Disabled("Temporarily disabled as broken since May 2022")
     @Test
     public void handlerInit() throws InterruptedException, IllegalArgumentException {
@@ -12,8 +12,9 @@
  */
 package org.openhab.binding.mqtt.internal;
 
-import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -141,4 +142,30 @@ public class MQTTTopicDiscoveryServiceTest {
         connection.getSubscribers().get("topic").messageArrived("topic", bytes, false);
         verify(listenerMock).topicVanished(eq(thingMock.getUID()), eq(connection), eq("topic"));
     }
+
+    @Test
+    public void laterListenersReceiveRetainedMessages() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(listenerMock, "topic/#");
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("topic/#").messageArrived("topic/a", bytes, true);
+        verify(listenerMock).receivedMessage(eq(thingMock.getUID()), eq(connection), eq("topic/a"), eq(bytes));
+
+        // listeners for the subscribed topic and for a topic covered by it
+        MQTTTopicDiscoveryParticipant sameTopicListener = mock(MQTTTopicDiscoveryParticipant.class);
+        MQTTTopicDiscoveryParticipant coveredTopicListener = mock(MQTTTopicDiscoveryParticipant.class);
+        subject.subscribe(sameTopicListener, "topic/#");
+        subject.subscribe(coveredTopicListener, "topic/+");
+
+        verify(sameTopicListener).receivedMessage(eq(thingMock.getUID()), eq(connection), eq("topic/a"), eq(bytes));
+        verify(coveredTopicListener).receivedMessage(eq(thingMock.getUID()), eq(connection), eq("topic/a"),
+                eq(bytes));
+        // the first listener doesn't receive the message again
+        verify(listenerMock, times(1)).receivedMessage(any(), any(), any(), any());
+        // the covered topic is not subscribed on its own
+        assertThat(connection.getSubscribers().containsKey("topic/+"), is(false));
+    }
 }
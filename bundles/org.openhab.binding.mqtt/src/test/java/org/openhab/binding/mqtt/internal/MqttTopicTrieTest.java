@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link MqttTopicTrie}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttTopicTrieTest {
+
+    private static List<String> match(MqttTopicTrie<String> trie, String topic) {
+        List<String> result = new ArrayList<>();
+        trie.forEachMatch(topic, result::add);
+        return result;
+    }
+
+    @Test
+    public void testWildcards() {
+        MqttTopicTrie<String> trie = new MqttTopicTrie<>();
+        for (String filter : List.of("a/b/c", "a/+/c", "a/#", "#", "+/+", "a/b/+/d", "b/#")) {
+            trie.add(filter, filter);
+        }
+
+        assertThat(match(trie, "a/b/c"), containsInAnyOrder("a/b/c", "a/+/c", "a/#", "#"));
+        assertThat(match(trie, "a"), containsInAnyOrder("a/#", "#"));
+        assertThat(match(trie, "a/b"), containsInAnyOrder("a/#", "#", "+/+"));
+        assertThat(match(trie, "a/b/x/d"), containsInAnyOrder("a/#", "#", "a/b/+/d"));
+        assertThat(match(trie, "c/d/e"), containsInAnyOrder("#"));
+        // wildcards on the first level don't match topics starting with "$"
+        assertThat(match(trie, "$SYS/broker"), is(empty()));
+    }
+
+    @Test
+    public void testRemove() {
+        MqttTopicTrie<String> trie = new MqttTopicTrie<>();
+        trie.add("a/+/c", "first");
+        trie.add("a/+/c", "second");
+
+        assertThat(trie.remove("a/+/c", "first"), is(true));
+        assertThat(trie.remove("a/+/c", "first"), is(false));
+        assertThat(match(trie, "a/b/c"), containsInAnyOrder("second"));
+        assertThat(trie.remove("a/+/c", "second"), is(true));
+        assertThat(trie.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testCovers() {
+        assertThat(MqttTopicTrie.covers("a/#", "a/b/+"), is(true));
+        assertThat(MqttTopicTrie.covers("a/#", "a"), is(true));
+        assertThat(MqttTopicTrie.covers("#", "a/#"), is(true));
+        assertThat(MqttTopicTrie.covers("a/+/c", "a/b/c"), is(true));
+        assertThat(MqttTopicTrie.covers("a/+", "a/#"), is(false));
+        assertThat(MqttTopicTrie.covers("a/b/+", "a/#"), is(false));
+        assertThat(MqttTopicTrie.covers("a/+/#", "a"), is(false));
+        assertThat(MqttTopicTrie.covers("a/b", "a/b/c"), is(false));
+        assertThat(MqttTopicTrie.covers("#", "$SYS/#"), is(false));
+    }
+
+    /**
+     * Replay a large number of retained topics, like Zigbee2MQTT, Tasmota and Home Assistant devices publish them,
+     * and compare the result with matching each filter on its own.
+     */
+    @Test
+    public void testReplayRetainedTopics() {
+        List<String> filters = List.of("homeassistant/#", "homeassistant/+/+/config", "homeassistant/+/+/+/config",
+                "+/+/$homie", "zigbee2mqtt/+", "zigbee2mqtt/bridge/#", "tasmota/discovery/+/config", "ruuvi/#",
+                "milight/states/#");
+        MqttTopicTrie<String> trie = new MqttTopicTrie<>();
+        filters.forEach(filter -> trie.add(filter, filter));
+
+        List<String> topics = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            topics.add("homeassistant/sensor/node" + i + "/temperature/config");
+            topics.add("homeassistant/switch/device" + i + "/config");
+            topics.add("zigbee2mqtt/device" + i);
+            topics.add("zigbee2mqtt/device" + i + "/availability");
+            topics.add("tasmota/discovery/" + Integer.toHexString(i) + "/config");
+            topics.add("homie" + i + "/device/$homie");
+        }
+
+        for (String topic : topics) {
+            Set<String> expected = new HashSet<>();
+            for (String filter : filters) {
+                if (MqttTopicTrie.covers(filter, topic)) {
+                    expected.add(filter);
+                }
+            }
+            assertThat(new HashSet<>(match(trie, topic)), is(expected));
+        }
+    }
+}
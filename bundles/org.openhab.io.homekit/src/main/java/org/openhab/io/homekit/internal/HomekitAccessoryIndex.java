@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.items.Item;
+
+/**
+ * Index of the items each root accessory is created from: the item of the accessory and, for a group, all its
+ * (nested) members. It is used to find the accessories which have to be rebuilt when an item changes.
+ *
+ * The index is only modified by one thread at a time, but can be read concurrently, so item changes are routed to
+ * their accessories without waiting for running updates.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class HomekitAccessoryIndex {
+    private final Map<String, Set<String>> itemsByAccessory = new HashMap<>();
+    private final Map<String, Set<String>> accessoriesByItem = new ConcurrentHashMap<>();
+
+    /**
+     * Record the items a root accessory is created from, replacing an earlier record of the accessory
+     *
+     * @param accessoryName name of the root accessory
+     * @param item item of the root accessory
+     */
+    void add(String accessoryName, Item item) {
+        remove(accessoryName);
+        final Set<String> itemNames = new HashSet<>();
+        collectItemNames(item, itemNames);
+        itemsByAccessory.put(accessoryName, itemNames);
+        for (String itemName : itemNames) {
+            accessoriesByItem.compute(itemName, (name, accessoryNames) -> {
+                final Set<String> newAccessoryNames = accessoryNames == null ? new HashSet<>()
+                        : new HashSet<>(accessoryNames);
+                newAccessoryNames.add(accessoryName);
+                return Set.copyOf(newAccessoryNames);
+            });
+        }
+    }
+
+    private static void collectItemNames(Item item, Set<String> itemNames) {
+        if (itemNames.add(item.getName()) && item instanceof GroupItem groupItem) {
+            groupItem.getMembers().forEach(member -> collectItemNames(member, itemNames));
+        }
+    }
+
+    /**
+     * Remove the items of a root accessory
+     *
+     * @param accessoryName name of the root accessory
+     */
+    void remove(String accessoryName) {
+        final @Nullable Set<String> itemNames = itemsByAccessory.remove(accessoryName);
+        if (itemNames == null) {
+            return;
+        }
+        for (String itemName : itemNames) {
+            accessoriesByItem.computeIfPresent(itemName, (name, accessoryNames) -> {
+                final Set<String> newAccessoryNames = new HashSet<>(accessoryNames);
+                newAccessoryNames.remove(accessoryName);
+                return newAccessoryNames.isEmpty() ? null : Set.copyOf(newAccessoryNames);
+            });
+        }
+    }
+
+    /**
+     * Remove all accessories
+     */
+    void clear() {
+        itemsByAccessory.clear();
+        accessoriesByItem.clear();
+    }
+
+    /**
+     * Get the root accessories an item is part of
+     *
+     * @param itemName name of the item
+     * @return names of the root accessories, empty if the item is not part of any
+     */
+    Set<String> getAccessoryNames(String itemName) {
+        return accessoriesByItem.getOrDefault(itemName, Set.of());
+    }
+
+    /**
+     * Check whether an item is part of any root accessory
+     *
+     * @param itemName name of the item
+     * @return true if the item is part of a root accessory
+     */
+    boolean contains(String itemName) {
+        return accessoriesByItem.containsKey(itemName);
+    }
+}
@@ -12,11 +12,20 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.StateChangeListener;
@@ -25,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
+import io.github.hapjava.server.impl.HomekitRoot;
 
 /**
  * Subscribes and unsubscribes from Item changes to enable notification to HomeKit
@@ -32,11 +42,61 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * If an event batching interval is set, changes are not passed on to HomeKit immediately, but collected for the
+ * interval. All collected changes are then sent within one update batch of the bridge, so each HomeKit client receives
+ * a single event with all changed characteristics. Repeated changes of the same item/key pair within the interval are
+ * only sent once, as the current value is read when the event is sent.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, StateChangeListener> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    // guarded by itself
+    private final Map<ItemKey, HomekitCharacteristicChangeCallback> pendingNotifications = new LinkedHashMap<>();
+    // guarded by pendingNotifications
+    private @Nullable ScheduledFuture<?> notificationJob;
+    private volatile @Nullable HomekitRoot bridge;
+    private volatile int eventBatchingInterval;
+
+    /**
+     * Set the bridge the changes are sent by, so changes collected within the event batching interval are sent
+     * within one update batch
+     *
+     * @param bridge the bridge, or null if the bridge is stopped
+     */
+    public void setBridge(@Nullable HomekitRoot bridge) {
+        this.bridge = bridge;
+    }
+
+    /**
+     * Set the interval changes are collected for before they are sent to HomeKit clients
+     *
+     * @param eventBatchingInterval interval in milliseconds, 0 to send each change immediately
+     */
+    public void setEventBatchingInterval(int eventBatchingInterval) {
+        this.eventBatchingInterval = eventBatchingInterval;
+        if (eventBatchingInterval <= 0) {
+            sendNotifications();
+        }
+    }
+
+    /**
+     * Stop collecting changes, changes collected so far are dropped
+     */
+    public void stop() {
+        synchronized (pendingNotifications) {
+            ScheduledFuture<?> job = notificationJob;
+            if (job != null) {
+                job.cancel(false);
+                notificationJob = null;
+            }
+            pendingNotifications.clear();
+        }
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -58,7 +118,7 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = (changedItem, oldState, newState) -> notifyChanged(itemKey, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -94,11 +154,54 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        ItemKey itemKey = new ItemKey(item, key);
+        subscriptionsByName.computeIfPresent(itemKey, (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
             return null;
         });
+        synchronized (pendingNotifications) {
+            pendingNotifications.remove(itemKey);
+        }
+    }
+
+    private void notifyChanged(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+        int interval = eventBatchingInterval;
+        if (interval <= 0) {
+            callback.changed();
+            return;
+        }
+        synchronized (pendingNotifications) {
+            // a pending change of the same item/key pair is superseded, HomeKit reads the current value anyway
+            pendingNotifications.put(itemKey, callback);
+            if (notificationJob == null) {
+                notificationJob = scheduler.schedule(this::sendNotifications, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sendNotifications() {
+        List<HomekitCharacteristicChangeCallback> callbacks;
+        synchronized (pendingNotifications) {
+            notificationJob = null;
+            if (pendingNotifications.isEmpty()) {
+                return;
+            }
+            callbacks = new ArrayList<>(pendingNotifications.values());
+            pendingNotifications.clear();
+        }
+        logger.trace("Sending {} collected changes", callbacks.size());
+        HomekitRoot bridge = this.bridge;
+        if (bridge != null) {
+            bridge.batchUpdate();
+        }
+        try {
+            callbacks.forEach(HomekitCharacteristicChangeCallback::changed);
+        } finally {
+            if (bridge != null) {
+                bridge.completeUpdateBatch();
+            }
+        }
     }
 
     @FunctionalInterface
@@ -17,12 +17,13 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
@@ -73,7 +74,13 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private int instance;
     private List<String> priorDummies = new ArrayList<>();
 
-    private final Set<String> pendingUpdates = new HashSet<>();
+    private final Set<String> pendingUpdates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Items each root accessory is created from. Only modified while holding the lock on this, but read without it,
+     * so item changes are routed to their accessories without waiting for running updates.
+     */
+    private final HomekitAccessoryIndex accessoryIndex = new HomekitAccessoryIndex();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -95,6 +102,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.metadataRegistry = metadataRegistry;
         this.storage = storage;
         this.instance = instance;
+        updater.setEventBatchingInterval(settings.eventBatchingInterval);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices-" + instance, scheduler,
                 Duration.ofMillis(1000), Clock.systemUTC(), this::applyUpdates);
         metadataChangeListener = new RegistryChangeListener<>() {
@@ -197,7 +205,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     @Override
-    public synchronized void added(Item item) {
+    public void added(Item item) {
         if (hasHomeKitMetadata(item)) {
             markDirty(item);
         }
@@ -210,11 +218,12 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     /**
      * Mark an item as dirty, plus any accessory groups to which it pertains, so that after a debounce period the
-     * accessory update can be applied.
+     * accessory update can be applied. The root accessories the item is part of are determined when the update is
+     * applied.
      *
      * @param item The item that has been changed or removed.
      */
-    private synchronized void markDirty(Item item) {
+    private void markDirty(Item item) {
         logger.trace("Mark dirty item {}", item.getName());
         pendingUpdates.add(item.getName());
         /*
@@ -235,8 +244,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     @Override
-    public synchronized void removed(Item item) {
-        if (hasHomeKitMetadata(item)) {
+    public void removed(Item item) {
+        if (hasHomeKitMetadata(item) || accessoryIndex.contains(item.getName())) {
             markDirty(item);
         }
     }
@@ -288,17 +297,24 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
 
         try {
+            // take the pending updates, items marked dirty from now on are applied by the next call
+            final List<String> dirtyItems = new ArrayList<>(pendingUpdates);
+            pendingUpdates.removeAll(dirtyItems);
+            // rebuild the accessories the dirty items are part of, and create accessories for new items
+            final Set<String> names = new LinkedHashSet<>(dirtyItems);
+            dirtyItems.forEach(name -> names.addAll(accessoryIndex.getAccessoryNames(name)));
+
             boolean changed = false;
-            for (final String name : pendingUpdates) {
+            for (final String name : names) {
                 String oldValue = knownAccessories.get(name);
                 accessoryRegistry.remove(name);
+                accessoryIndex.remove(name);
                 logger.trace(" Add items {}", name);
                 getItemOptional(name).ifPresent(this::createRootAccessories);
                 if (accessoryChanged(name, oldValue)) {
                     changed = true;
                 }
             }
-            pendingUpdates.clear();
             if (checkMissingAccessories() || changed) {
                 makeNewConfigurationRevision();
             }
@@ -321,8 +337,11 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     @Override
     public void updated(Item oldElement, Item element) {
-        markDirty(oldElement);
-        markDirty(element);
+        // only items with HomeKit metadata or being part of an accessory can change accessories
+        if (hasHomeKitMetadata(element) || accessoryIndex.contains(element.getName())) {
+            markDirty(oldElement);
+            markDirty(element);
+        }
     }
 
     public int getLastAccessoryCount() {
@@ -331,19 +350,23 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        accessoryIndex.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
         accessoryRegistry.setBridge(bridge);
+        updater.setBridge(bridge);
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setEventBatchingInterval(settings.eventBatchingInterval);
     }
 
     public void updateSettings(HomekitSettings settings) {
         boolean wasUsingDummyAccessories = this.settings.useDummyAccessories;
         this.settings = settings;
+        updater.setEventBatchingInterval(settings.eventBatchingInterval);
         // If they turned off dummy accessories, immediately prune them
         if (wasUsingDummyAccessories && !settings.useDummyAccessories) {
             pruneDummyAccessories();
@@ -355,6 +378,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.metadataRegistry.removeRegistryChangeListener(metadataChangeListener);
         applyUpdatesDebouncer.stop();
         accessoryRegistry.unsetBridge();
+        updater.setBridge(null);
+        updater.stop();
     }
 
     public Map<String, HomekitAccessory> getAccessories() {
@@ -482,6 +507,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                     });
             knownAccessories.put(taggedItem.getName(), accessory.toJson());
             accessoryRegistry.addRootAccessory(taggedItem.getName(), accessory);
+            accessoryIndex.add(taggedItem.getName(), item);
         } catch (HomekitException e) {
             logger.warn("Cannot create accessory {}: {}", taggedItem, e.getMessage());
         }
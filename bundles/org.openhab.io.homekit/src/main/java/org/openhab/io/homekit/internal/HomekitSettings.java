@@ -34,6 +34,7 @@ public class HomekitSettings {
     public boolean useFahrenheitTemperature = false;
     public boolean useOHmDNS = false;
     public boolean blockUserDeletion = false;
+    public int eventBatchingInterval = 0;
     public String networkInterface;
 
     @Override
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+
+/**
+ * Tests the maintenance of the {@link HomekitAccessoryIndex}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryIndexTest {
+
+    private final HomekitAccessoryIndex index = new HomekitAccessoryIndex();
+
+    @Test
+    public void testAddAndRemove() {
+        index.add("light", new SwitchItem("light"));
+        index.add("fan", new SwitchItem("fan"));
+
+        assertEquals(Set.of("light"), index.getAccessoryNames("light"));
+        assertEquals(Set.of("fan"), index.getAccessoryNames("fan"));
+        assertTrue(index.contains("light"));
+        assertFalse(index.contains("other"));
+        assertEquals(Set.of(), index.getAccessoryNames("other"));
+
+        index.remove("light");
+
+        assertFalse(index.contains("light"));
+        assertEquals(Set.of(), index.getAccessoryNames("light"));
+        assertEquals(Set.of("fan"), index.getAccessoryNames("fan"));
+
+        // removing an unknown accessory is ignored
+        index.remove("light");
+        assertTrue(index.contains("fan"));
+    }
+
+    @Test
+    public void testRename() {
+        index.add("light", new SwitchItem("light"));
+
+        // a renamed item is removed with its old name and added with its new one
+        index.remove("light");
+        index.add("lamp", new SwitchItem("lamp"));
+
+        assertFalse(index.contains("light"));
+        assertEquals(Set.of("lamp"), index.getAccessoryNames("lamp"));
+    }
+
+    @Test
+    public void testGroupMembers() {
+        GroupItem thermostat = new GroupItem("thermostat");
+        GroupItem sensors = new GroupItem("sensors");
+        NumberItem currentTemperature = new NumberItem("currentTemperature");
+        NumberItem targetTemperature = new NumberItem("targetTemperature");
+        sensors.addMember(currentTemperature);
+        thermostat.addMember(sensors);
+        thermostat.addMember(targetTemperature);
+
+        index.add("thermostat", thermostat);
+
+        for (String itemName : Set.of("thermostat", "sensors", "currentTemperature", "targetTemperature")) {
+            assertEquals(Set.of("thermostat"), index.getAccessoryNames(itemName), itemName);
+        }
+
+        // re-adding the accessory replaces the members recorded before
+        thermostat.removeMember(targetTemperature);
+        index.add("thermostat", thermostat);
+
+        assertFalse(index.contains("targetTemperature"));
+        assertEquals(Set.of("thermostat"), index.getAccessoryNames("currentTemperature"));
+
+        index.remove("thermostat");
+
+        assertFalse(index.contains("thermostat"));
+        assertFalse(index.contains("sensors"));
+        assertFalse(index.contains("currentTemperature"));
+    }
+
+    @Test
+    public void testItemInSeveralAccessories() {
+        SwitchItem shared = new SwitchItem("shared");
+        GroupItem first = new GroupItem("first");
+        GroupItem second = new GroupItem("second");
+        first.addMember(shared);
+        second.addMember(shared);
+
+        index.add("first", first);
+        index.add("second", second);
+
+        assertEquals(Set.of("first", "second"), index.getAccessoryNames("shared"));
+
+        index.remove("first");
+
+        assertEquals(Set.of("second"), index.getAccessoryNames("shared"));
+    }
+
+    @Test
+    public void testClear() {
+        GroupItem group = new GroupItem("group");
+        group.addMember(new SwitchItem("member"));
+        index.add("group", group);
+
+        index.clear();
+
+        assertFalse(index.contains("group"));
+        assertFalse(index.contains("member"));
+
+        // accessories added after clearing are indexed from scratch
+        index.add("group", group);
+        assertEquals(Set.of("group"), index.getAccessoryNames("member"));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.mockito.Mockito.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.OnOffType;
+
+import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
+import io.github.hapjava.server.impl.HomekitRoot;
+
+/**
+ * Tests the event batching of the {@link HomekitAccessoryUpdater}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryUpdaterTest {
+
+    private static final int BATCHING_INTERVAL = 500;
+    private static final int TIMEOUT = 5000;
+
+    private final HomekitRoot bridge = mock(HomekitRoot.class);
+    private final HomekitCharacteristicChangeCallback lightCallback = mock(HomekitCharacteristicChangeCallback.class);
+    private final HomekitCharacteristicChangeCallback fanCallback = mock(HomekitCharacteristicChangeCallback.class);
+    private final SwitchItem light = new SwitchItem("light");
+    private final SwitchItem fan = new SwitchItem("fan");
+
+    private @NonNullByDefault({}) HomekitAccessoryUpdater updater;
+
+    @BeforeEach
+    public void init() {
+        updater = new HomekitAccessoryUpdater();
+        updater.setBridge(bridge);
+        updater.subscribe(light, lightCallback);
+        updater.subscribe(fan, fanCallback);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        updater.stop();
+    }
+
+    @Test
+    public void testChangesAreSentImmediatelyByDefault() {
+        light.setState(OnOffType.ON);
+        fan.setState(OnOffType.ON);
+
+        verify(lightCallback, timeout(TIMEOUT)).changed();
+        verify(fanCallback, timeout(TIMEOUT)).changed();
+        verify(bridge, never()).batchUpdate();
+        verify(bridge, never()).completeUpdateBatch();
+    }
+
+    @Test
+    public void testCollectedChangesAreSentInOneBatch() {
+        updater.setEventBatchingInterval(BATCHING_INTERVAL);
+
+        light.setState(OnOffType.ON);
+        fan.setState(OnOffType.ON);
+        // a repeated change of the same item is only sent once
+        light.setState(OnOffType.OFF);
+
+        verify(bridge, timeout(TIMEOUT)).completeUpdateBatch();
+        verify(bridge, times(1)).batchUpdate();
+        verify(bridge, times(1)).completeUpdateBatch();
+        verify(lightCallback, times(1)).changed();
+        verify(fanCallback, times(1)).changed();
+
+        // the listeners of the items are notified by different threads, so only the order within the batch is fixed
+        for (HomekitCharacteristicChangeCallback callback : new HomekitCharacteristicChangeCallback[] { lightCallback,
+                fanCallback }) {
+            InOrder inOrder = inOrder(bridge, callback);
+            inOrder.verify(bridge).batchUpdate();
+            inOrder.verify(callback).changed();
+            inOrder.verify(bridge).completeUpdateBatch();
+        }
+    }
+
+    @Test
+    public void testDisablingBatchingSendsCollectedChanges() {
+        updater.setEventBatchingInterval(60000);
+
+        light.setState(OnOffType.ON);
+        verify(lightCallback, after(200).never()).changed();
+
+        updater.setEventBatchingInterval(0);
+
+        verify(lightCallback, times(1)).changed();
+        verify(bridge, times(1)).batchUpdate();
+        verify(bridge, times(1)).completeUpdateBatch();
+    }
+}
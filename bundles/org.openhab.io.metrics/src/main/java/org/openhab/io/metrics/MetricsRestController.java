@@ -12,15 +12,33 @@
  */
 package org.openhab.io.metrics;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -45,7 +63,11 @@ import org.slf4j.LoggerFactory;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import io.prometheus.client.exporter.common.TextFormat;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -74,13 +96,113 @@ public class MetricsRestController {
     private final Set<MetricsExporter> metricsExporters = new HashSet<>();
     private @Nullable MetricsConfiguration config;
 
+    /**
+     * Result of a complete scrape, served to all scrapes until it exceeds the configured age
+     */
+    private record CachedScrape(long nanoTime, byte[] content, byte @Nullable [] gzipContent) {
+    }
+
+    private final Object scrapeLock = new Object();
+    private @Nullable CachedScrape cachedScrape; // guarded by scrapeLock
+
     @GET
     @Path("/prometheus")
     @Produces(MediaType.TEXT_PLAIN)
     @Operation(operationId = "getPrometheusMetrics", summary = "Gets openHAB system and core metrics in a Prometheus compatible format.", responses = {
-            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = String.class))) })
-    public String getPrometheusMetrics() {
-        return prometheusMeterRegistry.scrape();
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = String.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid series selector") })
+    public Response getPrometheusMetrics(
+            @QueryParam("match[]") @Parameter(description = "series selectors") @Nullable List<String> match,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) @Nullable String acceptEncoding) {
+        List<PrometheusSeriesSelector> selectors = new ArrayList<>();
+        if (match != null) {
+            try {
+                for (String selector : match) {
+                    selectors.add(PrometheusSeriesSelector.parse(selector));
+                }
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST).type(MediaType.TEXT_PLAIN).entity(e.getMessage())
+                        .build();
+            }
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingOutput entity;
+        if (selectors.isEmpty() && getMaxAgeNanos() > 0) {
+            entity = output -> output.write(getCachedScrape(gzip));
+        } else {
+            entity = output -> {
+                OutputStream stream = gzip ? new GZIPOutputStream(output) : output;
+                writeScrape(stream, selectors);
+                if (stream instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+            };
+        }
+        // the encoding of the response depends on the request, caches must not mix them up
+        Response.ResponseBuilder response = Response.ok(entity, TextFormat.CONTENT_TYPE_004)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    private long getMaxAgeNanos() {
+        MetricsConfiguration config = this.config;
+        return config == null ? 0 : TimeUnit.SECONDS.toNanos(config.prometheusMaxAgeInSeconds);
+    }
+
+    /**
+     * Get the result of a complete scrape, scraping again if the cached result is too old. Concurrent scrapes wait for
+     * the same result.
+     */
+    private byte[] getCachedScrape(boolean gzip) throws IOException {
+        synchronized (scrapeLock) {
+            CachedScrape cachedScrape = this.cachedScrape;
+            if (cachedScrape == null || System.nanoTime() - cachedScrape.nanoTime() > getMaxAgeNanos()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                writeScrape(content, List.of());
+                cachedScrape = new CachedScrape(System.nanoTime(), content.toByteArray(), null);
+            }
+            byte[] gzipContent = cachedScrape.gzipContent();
+            if (gzip && gzipContent == null) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+                    gzipStream.write(cachedScrape.content());
+                }
+                gzipContent = compressed.toByteArray();
+                cachedScrape = new CachedScrape(cachedScrape.nanoTime(), cachedScrape.content(), gzipContent);
+            }
+            this.cachedScrape = cachedScrape;
+            return gzip ? gzipContent : cachedScrape.content();
+        }
+    }
+
+    /**
+     * Write the metrics in the Prometheus text format
+     *
+     * @param output the stream to write to, it is not closed
+     * @param selectors series selectors, only series matching any of them are written. All series are written if
+     *            there are none.
+     */
+    private void writeScrape(OutputStream output, List<PrometheusSeriesSelector> selectors) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (selectors.isEmpty()) {
+            prometheusMeterRegistry.scrape(writer);
+        } else {
+            List<MetricFamilySamples> families = new ArrayList<>();
+            for (MetricFamilySamples family : Collections
+                    .list(prometheusMeterRegistry.getPrometheusRegistry().metricFamilySamples())) {
+                List<Sample> samples = family.samples.stream()
+                        .filter(sample -> selectors.stream().anyMatch(selector -> selector.matches(sample))).toList();
+                if (!samples.isEmpty()) {
+                    families.add(new MetricFamilySamples(family.name, family.type, family.help, samples));
+                }
+            }
+            TextFormat.write004(writer, Collections.enumeration(families));
+        }
+        writer.flush();
     }
 
     @Reference
@@ -112,6 +234,9 @@ public class MetricsRestController {
 
     private void updateConfig(@Nullable Map<@Nullable String, @Nullable Object> configuration) {
         this.config = new Configuration(configuration).as(MetricsConfiguration.class);
+        synchronized (scrapeLock) {
+            cachedScrape = null;
+        }
         logger.debug("Configuration: {}", this.config);
         this.metricsExporters.forEach(e -> e.updateExporterState(config));
     }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+
+/**
+ * The {@link PrometheusSeriesSelector} class represents a Prometheus series selector, like
+ * <code>jvm_memory_used_bytes{area="heap"}</code>, as given by the <code>match[]</code> parameters of a scrape.
+ *
+ * A selector consists of a metric name, label matchers, or both. Label matchers support the operators <code>=</code>,
+ * <code>!=</code>, <code>=~</code> and <code>!~</code>, the label <code>__name__</code> matches the metric name.
+ * Like in Prometheus, regular expressions have to match the whole value and missing labels have an empty value.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PrometheusSeriesSelector {
+    private static final String NAME_LABEL = "__name__";
+    private static final Pattern SELECTOR_PATTERN = Pattern
+            .compile("\\s*([a-zA-Z_:][a-zA-Z0-9_:]*)?\\s*(?:\\{(.*)\\})?\\s*");
+    private static final Pattern MATCHER_PATTERN = Pattern
+            .compile("\\s*([a-zA-Z_][a-zA-Z0-9_]*)\\s*(=~|!~|!=|=)\\s*\"((?:[^\"\\\\]|\\\\.)*)\"\\s*(,|$)");
+
+    private record LabelMatcher(String label, String operator, String value, @Nullable Pattern pattern) {
+        boolean matches(String actual) {
+            Pattern pattern = this.pattern;
+            return switch (operator) {
+                case "=" -> value.equals(actual);
+                case "!=" -> !value.equals(actual);
+                case "=~" -> pattern != null && pattern.matcher(actual).matches();
+                default -> pattern != null && !pattern.matcher(actual).matches();
+            };
+        }
+    }
+
+    private final List<LabelMatcher> matchers;
+
+    private PrometheusSeriesSelector(List<LabelMatcher> matchers) {
+        this.matchers = matchers;
+    }
+
+    /**
+     * Parse a series selector
+     *
+     * @param selector the selector, e.g. <code>openhab_event_count{topic=~"openhab/items/.*"}</code>
+     * @return the parsed selector
+     * @throws IllegalArgumentException if the selector is invalid
+     */
+    public static PrometheusSeriesSelector parse(String selector) throws IllegalArgumentException {
+        Matcher selectorMatcher = SELECTOR_PATTERN.matcher(selector);
+        if (!selectorMatcher.matches()) {
+            throw new IllegalArgumentException("Invalid series selector: " + selector);
+        }
+        List<LabelMatcher> matchers = new ArrayList<>();
+        String name = selectorMatcher.group(1);
+        if (name != null) {
+            matchers.add(new LabelMatcher(NAME_LABEL, "=", name, null));
+        }
+        String labelMatchers = selectorMatcher.group(2);
+        if (labelMatchers != null && !labelMatchers.isBlank()) {
+            Matcher matcher = MATCHER_PATTERN.matcher(labelMatchers);
+            int position = 0;
+            while (position < labelMatchers.length()) {
+                if (!matcher.find(position) || matcher.start() != position) {
+                    throw new IllegalArgumentException("Invalid label matcher in series selector: " + selector);
+                }
+                String operator = matcher.group(2);
+                String value = matcher.group(3).replaceAll("\\\\(.)", "$1");
+                try {
+                    Pattern pattern = operator.contains("~") ? Pattern.compile(value) : null;
+                    matchers.add(new LabelMatcher(matcher.group(1), operator, value, pattern));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Invalid regular expression in series selector: " + selector);
+                }
+                position = matcher.end();
+            }
+        }
+        if (matchers.isEmpty()) {
+            throw new IllegalArgumentException("Empty series selector");
+        }
+        return new PrometheusSeriesSelector(matchers);
+    }
+
+    /**
+     * Check whether a sample is selected
+     *
+     * @param sample the sample
+     * @return true if all label matchers match the sample
+     */
+    public boolean matches(Sample sample) {
+        for (LabelMatcher matcher : matchers) {
+            String value;
+            if (NAME_LABEL.equals(matcher.label())) {
+                value = sample.name;
+            } else {
+                int index = sample.labelNames.indexOf(matcher.label());
+                value = index >= 0 ? sample.labelValues.get(index) : "";
+            }
+            if (!matcher.matches(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
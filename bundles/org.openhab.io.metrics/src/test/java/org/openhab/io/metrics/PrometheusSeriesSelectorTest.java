@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PrometheusSeriesSelectorTest {
+
+    private static final Sample HEAP = new Sample("jvm_memory_used_bytes", List.of("area", "id"),
+            List.of("heap", "G1 Eden Space"), 1);
+    private static final Sample NON_HEAP = new Sample("jvm_memory_used_bytes", List.of("area", "id"),
+            List.of("nonheap", "Metaspace"), 2);
+    private static final Sample EVENT = new Sample("openhab_event_count", List.of("topic"),
+            List.of("openhab/items/\"quoted\"/state"), 3);
+
+    private static boolean matches(String selector, Sample sample) {
+        return PrometheusSeriesSelector.parse(selector).matches(sample);
+    }
+
+    @Test
+    public void testMetricNameOnly() {
+        assertTrue(matches("jvm_memory_used_bytes", HEAP));
+        assertTrue(matches(" jvm_memory_used_bytes {} ", NON_HEAP));
+        assertFalse(matches("jvm_memory_used_bytes", EVENT));
+        assertTrue(matches("{__name__=\"openhab_event_count\"}", EVENT));
+    }
+
+    @Test
+    public void testEquals() {
+        assertTrue(matches("jvm_memory_used_bytes{area=\"heap\"}", HEAP));
+        assertFalse(matches("jvm_memory_used_bytes{area=\"heap\"}", NON_HEAP));
+        assertTrue(matches("{area=\"heap\", id=\"G1 Eden Space\"}", HEAP));
+        assertFalse(matches("{area=\"heap\", id=\"Metaspace\"}", HEAP));
+    }
+
+    @Test
+    public void testNotEquals() {
+        assertFalse(matches("{area!=\"heap\"}", HEAP));
+        assertTrue(matches("{area!=\"heap\"}", NON_HEAP));
+        // a missing label has an empty value
+        assertTrue(matches("{area!=\"heap\"}", EVENT));
+    }
+
+    @Test
+    public void testRegularExpression() {
+        assertTrue(matches("{__name__=~\"jvm_memory_.*\",area=~\"heap|other\"}", HEAP));
+        assertFalse(matches("{__name__=~\"jvm_memory_.*\",area=~\"heap|other\"}", NON_HEAP));
+        // the expression has to match the whole value
+        assertFalse(matches("{area=~\"hea\"}", HEAP));
+        assertTrue(matches("{area=~\"\"}", EVENT));
+    }
+
+    @Test
+    public void testNegatedRegularExpression() {
+        assertFalse(matches("{area!~\"h.*\"}", HEAP));
+        assertTrue(matches("{area!~\"h.*\"}", NON_HEAP));
+        assertTrue(matches("{area!~\"hea\"}", HEAP));
+    }
+
+    @Test
+    public void testEscapedQuotes() {
+        assertTrue(matches("openhab_event_count{topic=\"openhab/items/\\\"quoted\\\"/state\"}", EVENT));
+        assertTrue(matches("{topic=~\".*\\\"quoted\\\".*\"}", EVENT));
+        assertFalse(matches("{topic=\"openhab/items/quoted/state\"}", EVENT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", " ", "{}", "1metric", "metric{", "metric{area}", "metric{area=heap}",
+            "metric{area=\"heap\"", "metric{area==\"heap\"}", "metric{area=\"heap\" id=\"x\"}", "metric{area=~\"(\"}",
+            "metric{area=\"heap\"}x" })
+    public void testMalformedSelector(String selector) {
+        assertThrows(IllegalArgumentException.class, () -> PrometheusSeriesSelector.parse(selector));
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -27,19 +28,25 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemFactory;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.ItemUtil;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -50,11 +57,13 @@ import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
+import org.openhab.persistence.influxdb.internal.InfluxDBSpillStore;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
@@ -69,6 +78,13 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the InfluxDB {@link PersistenceService}. It
  * persists item values using the <a href="http://influxdb.org">InfluxDB</a> time
@@ -89,8 +105,8 @@ import org.slf4j.LoggerFactory;
  *         branch from Dominik Vorreiter
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class,
-        QueryablePersistenceService.class }, configurationPid = "org.openhab.influxdb", //
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        InfluxDBPersistenceService.class }, configurationPid = "org.openhab.influxdb", //
         property = Constants.SERVICE_PID + "=org.openhab.influxdb")
 @ConfigurableService(category = "persistence", label = "InfluxDB Persistence Service", description_uri = InfluxDBPersistenceService.CONFIG_URI)
 public class InfluxDBPersistenceService implements ModifiablePersistenceService {
@@ -99,8 +115,16 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
     private static final int COMMIT_INTERVAL = 3; // in s
+    private static final int REPLAY_BATCH_SIZE = 5000;
+    private static final long SPILL_SEGMENT_SIZE = 4L * 1024 * 1024;
+    private static final Path SPILL_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb");
     protected static final String CONFIG_URI = "persistence:influxdb";
 
+    private static final String METRIC_WRITE = "openhab.persistence.write";
+    private static final String METRIC_QUERY = "openhab.persistence.query";
+    private static final String METRIC_QUEUE_SIZE = "openhab.persistence.queue.size";
+    private static final String METRIC_DROPPED = "openhab.persistence.dropped";
+
     // External dependencies
     private final ItemRegistry itemRegistry;
     private final InfluxDBMetadataService influxDBMetadataService;
@@ -111,7 +135,15 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     // storage
     private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<InfluxPoint> pointsQueue;
+    private final @Nullable InfluxDBSpillStore spillStore;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    // metrics
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+    private volatile @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Timer writeTimer;
+    private volatile @Nullable Timer queryTimer;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -124,6 +156,11 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         this.influxDBMetadataService = influxDBMetadataService;
         this.configuration = new InfluxDBConfiguration(config);
         if (configuration.isValid()) {
+            this.pointsQueue = new LinkedBlockingQueue<>(configuration.getQueueMaxSize());
+            this.spillStore = configuration.isSpillEnabled()
+                    ? new InfluxDBSpillStore(getSpillFolder(), SPILL_SEGMENT_SIZE,
+                            configuration.getSpillMaxSize() * 1024L * 1024L)
+                    : null;
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
             this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
@@ -145,6 +182,11 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         };
     }
 
+    // Visible for testing
+    protected Path getSpillFolder() {
+        return SPILL_FOLDER;
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
@@ -156,7 +198,13 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         commit(); // ensure we at least tried to store the data;
 
         if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+            List<InfluxPoint> points = new ArrayList<>();
+            pointsQueue.drainTo(points);
+            spill(points);
+        }
+        InfluxDBSpillStore spillStore = this.spillStore;
+        if (spillStore != null) {
+            spillStore.close();
         }
 
         influxDBRepository.disconnect();
@@ -212,8 +260,15 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
             }
             if (pointsQueue.offer(point)) {
                 logger.trace("Queued {} for item {}", point, item);
+            } else if (spillStore != null) {
+                // queue is full, move the queued points and the new point to disk
+                List<InfluxPoint> points = new ArrayList<>();
+                pointsQueue.drainTo(points);
+                points.add(point);
+                spill(points);
             } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
+                droppedCount.incrementAndGet();
+                logger.warn("Failed to queue {} for item {}, queue is full", point, item);
             }
         });
     }
@@ -234,6 +289,18 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        return query(filter, null);
+    }
+
+    /**
+     * Query the database and let the server downsample the result. Only {@link NumberItem}s can be averaged or
+     * reduced to their minimum or maximum, for all other items the last value of each window is returned.
+     *
+     * @param filter the filter
+     * @param aggregation the window width and function, or <code>null</code> to return all points
+     * @return the (downsampled) values
+     */
+    public List<HistoricItem> query(FilterCriteria filter, @Nullable InfluxDBAggregation aggregation) {
         if (serviceActivated && checkConnection()) {
             logger.trace(
                     "Query-Filter: itemname: {}, ordering: {}, state: {},  operator: {}, getBeginDate: {}, getEndDate: {}, getPageSize: {}, getPageNumber: {}",
@@ -244,8 +311,17 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 return List.of();
             }
 
+            if (aggregation != null && aggregation.function() != InfluxDBAggregation.Function.LAST
+                    && !isNumberItem(Objects.requireNonNull(filter.getItemName()))) {
+                aggregation = new InfluxDBAggregation(aggregation.interval(), InfluxDBAggregation.Function.LAST);
+            }
+            long startNanos = System.nanoTime();
             List<InfluxDBRepository.InfluxRow> results = influxDBRepository.query(filter,
-                    configuration.getRetentionPolicy());
+                    configuration.getRetentionPolicy(), aggregation);
+            Timer queryTimer = this.queryTimer;
+            if (queryTimer != null) {
+                queryTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
             return results.stream().map(this::mapRowToHistoricItem).collect(Collectors.toList());
         } else {
             logger.debug("Query for persisted data ignored, InfluxDB is not connected");
@@ -253,6 +329,14 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         }
     }
 
+    private boolean isNumberItem(String itemName) {
+        Item item = itemRegistry.get(itemName);
+        if (item instanceof GroupItem groupItem) {
+            item = groupItem.getBaseItem();
+        }
+        return item instanceof NumberItem;
+    }
+
     private HistoricItem mapRowToHistoricItem(InfluxDBRepository.InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.value(), row.itemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.itemName(), state,
@@ -280,12 +364,48 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     }
 
     private void commit() {
-        if (!pointsQueue.isEmpty() && checkConnection()) {
+        InfluxDBSpillStore spillStore = this.spillStore;
+        boolean hasSpilledPoints = spillStore != null && !spillStore.isEmpty();
+        if (pointsQueue.isEmpty() && !hasSpilledPoints) {
+            return;
+        }
+        if (!checkConnection()) {
+            if (spillStore != null && !pointsQueue.isEmpty()) {
+                logger.debug("InfluxDB is not connected, spilling {} points to disk.", pointsQueue.size());
+                List<InfluxPoint> points = new ArrayList<>();
+                pointsQueue.drainTo(points);
+                spill(points);
+            }
+            return;
+        }
+
+        // spilled points are older than the queued points, so they are written first
+        if (spillStore != null && hasSpilledPoints) {
+            if (!spillStore.replay(influxDBRepository::write, REPLAY_BATCH_SIZE)) {
+                logger.warn("Failed to replay spilled points, will retry.");
+                influxDBRepository.disconnect();
+                return;
+            }
+            logger.debug("Replayed spilled points ({} points/s).", Math.round(spillStore.getLastReplayRate()));
+        }
+
+        if (!pointsQueue.isEmpty()) {
             List<InfluxPoint> points = new ArrayList<>();
             pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
+            long startNanos = System.nanoTime();
+            boolean written = influxDBRepository.write(points);
+            Timer writeTimer = this.writeTimer;
+            if (writeTimer != null) {
+                writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+            if (!written) {
+                if (spillStore != null) {
+                    logger.warn("Spilling {} elements to disk, failed to write batch.", points.size());
+                    spill(points);
+                } else {
+                    logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
+                    requeue(points);
+                }
                 influxDBRepository.disconnect();
             } else {
                 logger.trace("Wrote {} elements to database", points.size());
@@ -293,6 +413,60 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         }
     }
 
+    /**
+     * Move points to the spill store, or drop them if spilling is disabled
+     */
+    private void spill(List<InfluxPoint> points) {
+        InfluxDBSpillStore spillStore = this.spillStore;
+        int spilled = spillStore != null ? spillStore.append(points) : 0;
+        if (spilled < points.size()) {
+            int dropped = points.size() - spilled;
+            droppedCount.addAndGet(dropped);
+            logger.warn("InfluxDB failed to store {} points.", dropped);
+        } else {
+            logger.trace("Spilled {} points to disk", spilled);
+        }
+    }
+
+    /**
+     * Add points back to the queue (without blocking), points that don't fit are dropped
+     */
+    private void requeue(List<InfluxPoint> points) {
+        int dropped = 0;
+        for (InfluxPoint point : points) {
+            if (!pointsQueue.offer(point)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedCount.addAndGet(dropped);
+            logger.warn("InfluxDB failed to store {} points, queue is full.", dropped);
+        }
+    }
+
+    /**
+     * Get the number of points waiting in the in-memory queue
+     */
+    public int getQueueSize() {
+        return pointsQueue.size();
+    }
+
+    /**
+     * Get the total number of points that were dropped because neither the queue nor the spill store could take them
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the spill store
+     *
+     * @return the spill store or <code>null</code> if spilling is disabled
+     */
+    public @Nullable InfluxDBSpillStore getSpillStore() {
+        return spillStore;
+    }
+
     /**
      * Convert incoming data to an {@link InfluxPoint} for further processing. This is needed because storage is
      * asynchronous and the item data may have changed.
@@ -362,6 +536,36 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         calculateItemTypeClasses();
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", SERVICE_NAME);
+        Timer writeTimer = Timer.builder(METRIC_WRITE).description("Duration of writing a batch of points")
+                .tags(tags).register(meterRegistry);
+        Timer queryTimer = Timer.builder(METRIC_QUERY).description("Duration of queries").tags(tags)
+                .register(meterRegistry);
+        meters.addAll(List.of(writeTimer, queryTimer,
+                Gauge.builder(METRIC_QUEUE_SIZE, this, InfluxDBPersistenceService::getQueueSize)
+                        .description("Number of points waiting to be written").tags(tags).register(meterRegistry),
+                FunctionCounter.builder(METRIC_DROPPED, this, InfluxDBPersistenceService::getDroppedCount)
+                        .description("Number of points that could not be stored").tags(tags)
+                        .register(meterRegistry)));
+        this.writeTimer = writeTimer;
+        this.queryTimer = queryTimer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        writeTimer = null;
+        queryTimer = null;
+        MeterRegistry meterRegistry = this.meterRegistry;
+        if (meterRegistry != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+        meters.clear();
+        this.meterRegistry = null;
+    }
+
     private synchronized void calculateItemTypeClasses() {
         Map<String, Class<? extends State>> desiredClasses = new HashMap<>();
         itemFactories.forEach(factory -> {
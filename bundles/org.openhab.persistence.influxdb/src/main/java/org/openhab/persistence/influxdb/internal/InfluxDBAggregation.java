@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Downsampling of a query: the points are grouped into windows of a fixed width and each window is reduced to a
+ * single point by the server ({@code aggregateWindow} in Flux, {@code GROUP BY time()} in InfluxQL).
+ *
+ * @param interval the width of a window, at least one second
+ * @param function the function used to reduce the points of a window
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public record InfluxDBAggregation(Duration interval, Function function) {
+
+    public enum Function {
+        AVG("mean"),
+        MIN("min"),
+        MAX("max"),
+        LAST("last");
+
+        private final String influxName;
+
+        Function(String influxName) {
+            this.influxName = influxName;
+        }
+
+        /**
+         * Get the name of the function in Flux and InfluxQL
+         */
+        public String getInfluxName() {
+            return influxName;
+        }
+    }
+
+    public InfluxDBAggregation {
+        if (interval.getSeconds() < 1) {
+            throw new IllegalArgumentException("Interval must be at least one second");
+        }
+    }
+
+    /**
+     * Get the width of a window in (whole) seconds
+     */
+    public long getIntervalSeconds() {
+        return interval.getSeconds();
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.auth.Role;
+import org.openhab.core.io.rest.RESTConstants;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.persistence.dto.ItemHistoryDTO;
+import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.jaxrs.whiteboard.JaxrsWhiteboardConstants;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JSONRequired;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsApplicationSelect;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsResource;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * The {@link InfluxDBAggregationResource} provides the values of an item downsampled by the InfluxDB server, so
+ * charts of long periods don't need to load every stored value.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(immediate = true, service = InfluxDBAggregationResource.class)
+@JaxrsResource
+@JaxrsApplicationSelect("(" + JaxrsWhiteboardConstants.JAX_RS_NAME + "=" + RESTConstants.JAX_RS_NAME + ")")
+@Path(InfluxDBAggregationResource.PATH)
+@JSONRequired
+@RolesAllowed({ Role.USER, Role.ADMIN })
+@Tag(name = InfluxDBAggregationResource.PATH)
+@NonNullByDefault
+public class InfluxDBAggregationResource {
+    public static final String PATH = "influxdb-persistence";
+
+    private static final int DEFAULT_POINTS = 1000;
+    private static final Duration DEFAULT_PERIOD = Duration.ofDays(1);
+
+    private final InfluxDBPersistenceService persistenceService;
+
+    @Activate
+    public InfluxDBAggregationResource(final @Reference InfluxDBPersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    @GET
+    @Path("/items/{itemname: [a-zA-Z_0-9]+}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(operationId = "getAggregatedItemHistoryFromInfluxDB", summary = "Gets the values of an item downsampled by the InfluxDB server.", responses = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ItemHistoryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters") })
+    public Response getAggregatedItemHistory(
+            @PathParam("itemname") @Parameter(description = "the item name") String itemName,
+            @QueryParam("starttime") @Parameter(description = "start time as ISO-8601 date, one day before the end time by default") @Nullable String startTime,
+            @QueryParam("endtime") @Parameter(description = "end time as ISO-8601 date, now by default") @Nullable String endTime,
+            @QueryParam("window") @Parameter(description = "width of a window as ISO-8601 duration (e.g. PT15M), calculated from the number of points by default") @Nullable String window,
+            @QueryParam("points") @Parameter(description = "maximum number of values, if no window width is given (default 1000)") @Nullable Integer points,
+            @QueryParam("function") @Parameter(description = "function reducing the values of a window: AVG (default), MIN, MAX or LAST") @Nullable String function) {
+        try {
+            return Response.ok(queryAggregatedItemHistory(itemName, startTime, endTime, window, points, function))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).type(MediaType.TEXT_PLAIN).entity(e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Query the downsampled values of an item, see {@link #getAggregatedItemHistory} for the parameters
+     *
+     * @return the values
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    ItemHistoryDTO queryAggregatedItemHistory(String itemName, @Nullable String startTime, @Nullable String endTime,
+            @Nullable String window, @Nullable Integer points, @Nullable String function) {
+        FilterCriteria filter;
+        InfluxDBAggregation aggregation;
+        try {
+            ZonedDateTime end = endTime == null ? ZonedDateTime.now() : ZonedDateTime.parse(endTime);
+            ZonedDateTime begin = startTime == null ? end.minus(DEFAULT_PERIOD) : ZonedDateTime.parse(startTime);
+            if (!begin.isBefore(end)) {
+                throw new IllegalArgumentException("Start time must be before the end time");
+            }
+            Duration windowWidth = window != null ? Duration.parse(window)
+                    : windowWidth(begin, end, points == null ? DEFAULT_POINTS : points);
+            aggregation = new InfluxDBAggregation(windowWidth, function == null ? InfluxDBAggregation.Function.AVG
+                    : InfluxDBAggregation.Function.valueOf(function.toUpperCase(Locale.ROOT)));
+            filter = new FilterCriteria().setItemName(itemName).setBeginDate(begin).setEndDate(end)
+                    .setOrdering(Ordering.ASCENDING);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+
+        ItemHistoryDTO dto = new ItemHistoryDTO();
+        dto.name = itemName;
+        for (HistoricItem historicItem : persistenceService.query(filter, aggregation)) {
+            dto.addData(historicItem.getTimestamp().toInstant().toEpochMilli(), historicItem.getState());
+        }
+        dto.datapoints = Integer.toString(dto.data.size());
+        return dto;
+    }
+
+    private static Duration windowWidth(ZonedDateTime begin, ZonedDateTime end, int points) {
+        if (points < 1) {
+            throw new IllegalArgumentException("Number of points must be positive");
+        }
+        // round up, so the period is covered by at most the requested number of windows
+        long seconds = (Duration.between(begin, end).getSeconds() + points - 1) / points;
+        return Duration.ofSeconds(Math.max(1, seconds));
+    }
+}
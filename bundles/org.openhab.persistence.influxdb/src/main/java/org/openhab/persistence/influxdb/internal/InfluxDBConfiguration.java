@@ -39,6 +39,9 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String QUEUE_MAX_SIZE_PARAM = "queueMaxSize";
+    public static final String SPILL_ENABLED_PARAM = "spillEnabled";
+    public static final String SPILL_MAX_SIZE_PARAM = "spillMaxSize";
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
     private final String user;
@@ -51,6 +54,9 @@ public class InfluxDBConfiguration {
     private final boolean addCategoryTag;
     private final boolean addTypeTag;
     private final boolean addLabelTag;
+    private final int queueMaxSize;
+    private final boolean spillEnabled;
+    private final int spillMaxSize;
 
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = ConfigParser.valueAsOrElse(config.get(URL_PARAM), String.class, "http://127.0.0.1:8086");
@@ -64,6 +70,10 @@ public class InfluxDBConfiguration {
         addCategoryTag = ConfigParser.valueAsOrElse(config.get(ADD_CATEGORY_TAG_PARAM), Boolean.class, false);
         addLabelTag = ConfigParser.valueAsOrElse(config.get(ADD_LABEL_TAG_PARAM), Boolean.class, false);
         addTypeTag = ConfigParser.valueAsOrElse(config.get(ADD_TYPE_TAG_PARAM), Boolean.class, false);
+        queueMaxSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(QUEUE_MAX_SIZE_PARAM), Integer.class, 10000));
+        spillEnabled = ConfigParser.valueAsOrElse(config.get(SPILL_ENABLED_PARAM), Boolean.class, false);
+        spillMaxSize = Math.max(1, ConfigParser.valueAsOrElse(config.get(SPILL_MAX_SIZE_PARAM), Integer.class, 100));
     }
 
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
@@ -142,6 +152,21 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getQueueMaxSize() {
+        return queueMaxSize;
+    }
+
+    public boolean isSpillEnabled() {
+        return spillEnabled;
+    }
+
+    /**
+     * Get the maximum size of the spill store in MB
+     */
+    public int getSpillMaxSize() {
+        return spillMaxSize;
+    }
+
     public String getUser() {
         return user;
     }
@@ -160,6 +185,7 @@ public class InfluxDBConfiguration {
                 + " chars', token='" + token.length() + " chars', databaseName='" + databaseName
                 + "', retentionPolicy='" + retentionPolicy + "', version=" + version + ", replaceUnderscore="
                 + replaceUnderscore + ", addCategoryTag=" + addCategoryTag + ", addTypeTag=" + addTypeTag
-                + ", addLabelTag=" + addLabelTag + '}';
+                + ", addLabelTag=" + addLabelTag + ", queueMaxSize=" + queueMaxSize + ", spillEnabled=" + spillEnabled
+                + ", spillMaxSize=" + spillMaxSize + '}';
     }
 }
@@ -0,0 +1,455 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link InfluxDBSpillStore} is an append-only log of {@link InfluxPoint}s on disk. It is used to keep points
+ * that can't be written to InfluxDB (because the server is unreachable or the in-memory queue is full) until they
+ * can be replayed.
+ * <p>
+ * The log consists of numbered segment files. Points are always appended to the newest segment, a new segment is
+ * started when it exceeds the maximum segment size. Segments are replayed (and deleted) starting with the oldest one,
+ * so points are written to the database in the order they were spilled. Segments are kept across restarts.
+ * <p>
+ * Each record is stored as its length followed by the serialized point. A truncated record at the end of a segment
+ * (e.g. after a crash) is ignored.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBSpillStore {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+
+    /**
+     * Writes a batch of points to the database.
+     */
+    @FunctionalInterface
+    public interface PointWriter {
+        boolean write(List<InfluxPoint> points);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBSpillStore.class);
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final long maxSize;
+
+    // guarded by this
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+    private @Nullable FileOutputStream writer;
+    private long writerSegment = -1;
+    private long nextSegment = 0;
+    private long size = 0;
+    private boolean overflowLogged = false;
+
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile double lastReplayRate = 0;
+
+    /**
+     * Create a new spill store. Segments that are already present in the directory are picked up and will be
+     * replayed first.
+     *
+     * @param directory the directory for the segment files (created when the first point is spilled)
+     * @param maxSegmentSize the size in bytes after which a new segment is started
+     * @param maxSize the maximum size in bytes of all segments, points are dropped if it is exceeded
+     */
+    public InfluxDBSpillStore(Path directory, long maxSegmentSize, long maxSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSize = maxSize;
+
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                    SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : stream) {
+                    long segment = parseSegmentNumber(file);
+                    if (segment >= 0) {
+                        long fileSize = Files.size(file);
+                        segments.put(segment, fileSize);
+                        size += fileSize;
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read spilled points from '{}': {}", directory, e.getMessage());
+            }
+        }
+        if (!segments.isEmpty()) {
+            nextSegment = segments.lastKey() + 1;
+            logger.info("Found {} bytes of spilled points in {} segment(s), they will be written when InfluxDB is "
+                    + "available.", size, segments.size());
+        }
+    }
+
+    /**
+     * Append points to the log
+     *
+     * @param points the points
+     * @return the number of points that were spilled, the remaining points were dropped because the store is full
+     *         or could not be written
+     */
+    public synchronized int append(List<InfluxPoint> points) {
+        int appended = 0;
+        for (int i = 0; i < points.size(); i++) {
+            InfluxPoint point = points.get(i);
+            byte[] record;
+            try {
+                record = serialize(point);
+            } catch (IOException e) {
+                logger.warn("Failed to serialize {}: {}", point, e.getMessage());
+                droppedCount.incrementAndGet();
+                continue;
+            }
+            if (size + record.length > maxSize) {
+                droppedCount.addAndGet(points.size() - i);
+                if (!overflowLogged) {
+                    logger.warn("Spill store is full ({} bytes), dropping points until it has been replayed", maxSize);
+                    overflowLogged = true;
+                }
+                break;
+            }
+            try {
+                FileOutputStream writer = getWriter();
+                writer.write(record);
+                segments.merge(writerSegment, (long) record.length, Long::sum);
+                size += record.length;
+                appended++;
+                if (segments.getOrDefault(writerSegment, 0L) >= maxSegmentSize) {
+                    closeWriter();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to spill points to '{}': {}", directory, e.getMessage());
+                droppedCount.addAndGet(points.size() - i);
+                closeWriter();
+                break;
+            }
+        }
+        FileOutputStream writer = this.writer;
+        if (writer != null) {
+            try {
+                writer.getChannel().force(false);
+            } catch (IOException e) {
+                logger.debug("Failed to sync spill segment: {}", e.getMessage());
+            }
+        }
+        spilledCount.addAndGet(appended);
+        return appended;
+    }
+
+    /**
+     * Replay all spilled points, oldest segment first. A segment is deleted as soon as all its points have been
+     * written. If writing fails, replay stops and is continued from the beginning of that segment the next time.
+     *
+     * @param pointWriter the writer for the points
+     * @param batchSize the maximum number of points per write
+     * @return true if all segments have been replayed, false if writing failed
+     */
+    public boolean replay(PointWriter pointWriter, int batchSize) {
+        long start = System.nanoTime();
+        long replayed = 0;
+        try {
+            while (true) {
+                long segment;
+                synchronized (this) {
+                    Map.Entry<Long, Long> oldest = segments.firstEntry();
+                    if (oldest == null) {
+                        return true;
+                    }
+                    segment = oldest.getKey();
+                    if (segment == writerSegment) {
+                        // new points go to the next segment
+                        closeWriter();
+                    }
+                }
+
+                List<InfluxPoint> points = readSegment(getSegmentFile(segment));
+                for (int from = 0; from < points.size(); from += batchSize) {
+                    List<InfluxPoint> batch = points.subList(from, Math.min(points.size(), from + batchSize));
+                    if (!pointWriter.write(batch)) {
+                        return false;
+                    }
+                    replayed += batch.size();
+                }
+
+                synchronized (this) {
+                    Files.deleteIfExists(getSegmentFile(segment));
+                    Long segmentSize = segments.remove(segment);
+                    if (segmentSize != null) {
+                        size -= segmentSize;
+                    }
+                    overflowLogged = false;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to replay spilled points from '{}': {}", directory, e.getMessage());
+            return false;
+        } finally {
+            if (replayed > 0) {
+                long durationNanos = Math.max(1, System.nanoTime() - start);
+                lastReplayRate = replayed * 1_000_000_000.0 / durationNanos;
+                replayedCount.addAndGet(replayed);
+                logger.debug("Replayed {} spilled points in {} ms", replayed, durationNanos / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Close the current segment
+     */
+    public synchronized void close() {
+        closeWriter();
+    }
+
+    /**
+     * Check if there are spilled points that need to be replayed
+     */
+    public synchronized boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Get the size in bytes of all segments
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Get the total number of points written to the log
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * Get the total number of points replayed from the log
+     */
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    /**
+     * Get the total number of points that were dropped because the log was full or could not be written
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the throughput of the last replay in points per second
+     */
+    public double getLastReplayRate() {
+        return lastReplayRate;
+    }
+
+    private FileOutputStream getWriter() throws IOException {
+        FileOutputStream writer = this.writer;
+        if (writer == null) {
+            Files.createDirectories(directory);
+            long segment = nextSegment++;
+            writer = new FileOutputStream(getSegmentFile(segment).toFile(), true);
+            segments.put(segment, 0L);
+            writerSegment = segment;
+            this.writer = writer;
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        FileOutputStream writer = this.writer;
+        if (writer != null) {
+            try {
+                writer.getChannel().force(false);
+                writer.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close spill segment: {}", e.getMessage());
+            }
+        }
+        this.writer = null;
+        writerSegment = -1;
+    }
+
+    private Path getSegmentFile(long segment) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static long parseSegmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private List<InfluxPoint> readSegment(Path file) throws IOException {
+        List<InfluxPoint> points = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return points;
+        }
+        try (InputStream is = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_RECORD_SIZE) {
+                    logger.warn("Ignoring remaining records of '{}', invalid record length {}", file, length);
+                    break;
+                }
+                byte[] record = new byte[length];
+                try {
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    logger.warn("Ignoring truncated record at the end of '{}'", file);
+                    break;
+                }
+                try {
+                    points.add(deserialize(record));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Ignoring invalid record in '{}': {}", file, e.getMessage());
+                }
+            }
+        }
+        return points;
+    }
+
+    // Visible for testing
+    static byte[] serialize(InfluxPoint point) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // placeholder for the length
+        writeString(out, point.getMeasurementName());
+        out.writeLong(point.getTime().getEpochSecond());
+        out.writeInt(point.getTime().getNano());
+        Object value = point.getValue();
+        if (value instanceof BigDecimal decimal) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof Long longValue) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(longValue);
+        } else if (value instanceof Integer intValue) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(intValue);
+        } else if (value instanceof Double doubleValue) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(doubleValue);
+        } else if (value instanceof Boolean booleanValue) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(booleanValue);
+        } else {
+            out.writeByte(TYPE_STRING);
+            writeString(out, String.valueOf(value));
+        }
+        Map<String, String> tags = point.getTags();
+        out.writeInt(tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            writeString(out, tag.getKey());
+            writeString(out, tag.getValue());
+        }
+        out.flush();
+
+        byte[] record = bytes.toByteArray();
+        int length = record.length - Integer.BYTES;
+        record[0] = (byte) (length >>> 24);
+        record[1] = (byte) (length >>> 16);
+        record[2] = (byte) (length >>> 8);
+        record[3] = (byte) length;
+        return record;
+    }
+
+    // Visible for testing
+    static InfluxPoint deserialize(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(in));
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        builder.withTime(Instant.ofEpochSecond(seconds, nanos));
+        byte type = in.readByte();
+        Object value = switch (type) {
+            case TYPE_DECIMAL -> new BigDecimal(readString(in));
+            case TYPE_LONG -> in.readLong();
+            case TYPE_INTEGER -> in.readInt();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_STRING -> readString(in);
+            default -> throw new IOException("Unknown value type " + type);
+        };
+        builder.withValue(value);
+        int tagCount = in.readInt();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(readString(in), readString(in));
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
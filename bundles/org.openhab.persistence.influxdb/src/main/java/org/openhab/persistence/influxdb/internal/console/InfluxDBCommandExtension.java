@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal.console;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.ConsoleCommandCompleter;
+import org.openhab.core.io.console.StringsCompleter;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.persistence.PersistenceService;
+import org.openhab.core.persistence.PersistenceServiceRegistry;
+import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
+import org.openhab.persistence.influxdb.internal.InfluxDBSpillStore;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link InfluxDBCommandExtension} is responsible for handling console commands
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class InfluxDBCommandExtension extends AbstractConsoleCommandExtension implements ConsoleCommandCompleter {
+
+    private static final String CMD_QUEUE = "queue";
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_QUEUE), false);
+
+    private final PersistenceServiceRegistry persistenceServiceRegistry;
+
+    @Activate
+    public InfluxDBCommandExtension(final @Reference PersistenceServiceRegistry persistenceServiceRegistry) {
+        super(InfluxDBPersistenceService.SERVICE_NAME, "Interact with the InfluxDB persistence service.");
+        this.persistenceServiceRegistry = persistenceServiceRegistry;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1 || !CMD_QUEUE.equalsIgnoreCase(args[0])) {
+            printUsage(console);
+            return;
+        }
+        InfluxDBPersistenceService persistenceService = getPersistenceService();
+        if (persistenceService == null) {
+            console.println("InfluxDB persistence service is not active.");
+            return;
+        }
+        showQueue(persistenceService, console);
+    }
+
+    private @Nullable InfluxDBPersistenceService getPersistenceService() {
+        for (PersistenceService persistenceService : persistenceServiceRegistry.getAll()) {
+            if (persistenceService instanceof InfluxDBPersistenceService service) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    private void showQueue(InfluxDBPersistenceService persistenceService, Console console) {
+        console.println("Queued points:     " + persistenceService.getQueueSize());
+        console.println("Dropped points:    " + persistenceService.getDroppedCount());
+        InfluxDBSpillStore spillStore = persistenceService.getSpillStore();
+        if (spillStore == null) {
+            console.println("Spilling to disk is disabled.");
+            return;
+        }
+        console.println("Spill size:        " + spillStore.getSize() + " bytes in " + spillStore.getSegmentCount()
+                + " segment(s)");
+        console.println("Spilled points:    " + spillStore.getSpilledCount());
+        console.println("Replayed points:   " + spillStore.getReplayedCount());
+        console.println("Last replay rate:  " + Math.round(spillStore.getLastReplayRate()) + " points/s");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(CMD_QUEUE, "show write queue and spill store statistics"));
+    }
+
+    @Override
+    public @Nullable ConsoleCommandCompleter getCompleter() {
+        return this;
+    }
+
+    @Override
+    public boolean complete(String[] args, int cursorArgumentIndex, int cursorPosition, List<String> candidates) {
+        if (cursorArgumentIndex <= 0) {
+            return CMD_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
+        }
+        return false;
+    }
+}
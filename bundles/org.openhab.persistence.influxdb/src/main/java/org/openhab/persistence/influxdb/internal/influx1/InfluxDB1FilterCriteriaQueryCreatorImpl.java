@@ -13,6 +13,7 @@
 package org.openhab.persistence.influxdb.internal.influx1;
 
 import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
+import static org.influxdb.querybuilder.time.DurationLiteral.SECOND;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
@@ -28,6 +29,7 @@ import org.influxdb.querybuilder.clauses.SimpleClause;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -50,14 +52,23 @@ public class InfluxDB1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy,
+            @Nullable InfluxDBAggregation aggregation) {
         final String itemName = Objects.requireNonNull(criteria.getItemName()); // we checked non-null before
         final String tableName = getTableName(itemName);
         final boolean hasCriteriaName = itemName != null;
 
-        Select select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
-                .column("\"" + TAG_ITEM_NAME + "\"::tag")
-                .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        Select select;
+        if (aggregation == null) {
+            select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
+                    .column("\"" + TAG_ITEM_NAME + "\"::tag")
+                    .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        } else {
+            // the item tag can't be selected together with an aggregate, it is returned as tag of the series instead
+            select = select().column(aggregation.function().getInfluxName() + "(\"" + COLUMN_VALUE_NAME_V1 + "\")")
+                    .as(COLUMN_VALUE_NAME_V1)
+                    .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        }
 
         Where where = select.where();
 
@@ -77,6 +88,10 @@ public class InfluxDB1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
                     getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V1), stateToObject(filterState)));
         }
 
+        if (aggregation != null) {
+            select = select.groupBy(time(aggregation.getIntervalSeconds(), SECOND), TAG_ITEM_NAME).fill("none");
+        }
+
         if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
             select = select.orderBy(desc());
         } else if (criteria.getOrdering() == FilterCriteria.Ordering.ASCENDING) {
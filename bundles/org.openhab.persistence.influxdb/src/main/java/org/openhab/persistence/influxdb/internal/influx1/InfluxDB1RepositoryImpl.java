@@ -38,6 +38,7 @@ import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
@@ -168,11 +169,12 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(FilterCriteria filter, String retentionPolicy) {
+    public List<InfluxRow> query(FilterCriteria filter, String retentionPolicy,
+            @Nullable InfluxDBAggregation aggregation) {
         try {
             final InfluxDB currentClient = client;
             if (currentClient != null) {
-                String query = queryCreator.createQuery(filter, retentionPolicy);
+                String query = queryCreator.createQuery(filter, retentionPolicy, aggregation);
                 logger.trace("Query {}", query);
                 Query parsedQuery = new Query(query, configuration.getDatabaseName());
                 List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
@@ -200,6 +202,11 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                 for (QueryResult.Series series : allSeries) {
                     logger.trace("series {}", series);
                     String defaultItemName = series.getName();
+                    Map<String, String> tags = series.getTags();
+                    if (tags != null) {
+                        // aggregated queries are grouped by the item tag, so it is part of the series
+                        defaultItemName = Objects.requireNonNullElse(tags.get(TAG_ITEM_NAME), defaultItemName);
+                    }
                     List<List<Object>> allValues = series.getValues();
                     if (allValues == null) {
                         logger.debug("query returned no values");
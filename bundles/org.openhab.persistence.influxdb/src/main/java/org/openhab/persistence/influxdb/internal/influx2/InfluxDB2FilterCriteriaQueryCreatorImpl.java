@@ -21,9 +21,11 @@ import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -49,7 +51,8 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy,
+            @Nullable InfluxDBAggregation aggregation) {
         Flux flux = Flux.from(retentionPolicy);
 
         RangeFlux range = flux.range();
@@ -85,6 +88,11 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
             flux = flux.filter(restrictions);
         }
 
+        if (aggregation != null) {
+            flux = flux.expression("aggregateWindow(every:" + aggregation.getIntervalSeconds() + "s, fn:"
+                    + aggregation.function().getInfluxName() + ", timeSrc:\"_start\", createEmpty:false)");
+        }
+
         flux = applyOrderingAndPageSize(criteria, flux);
 
         return flux.toString();
@@ -12,22 +12,28 @@
  */
 package org.openhab.persistence.influxdb;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.DATABASE_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.PASSWORD_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.RETENTION_POLICY_PARAM;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.SPILL_ENABLED_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.TOKEN_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.URL_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.USER_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.VERSION_PARAM;
 
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -75,6 +81,7 @@ public class InfluxDBPersistenceServiceTest {
             RETENTION_POLICY_PARAM, "default");
 
     private @Mock @NonNullByDefault({}) InfluxDBRepository influxDBRepositoryMock;
+    private @TempDir @NonNullByDefault({}) Path spillFolder;
 
     private final InfluxDBMetadataService influxDBMetadataService = new InfluxDBMetadataService(
             mock(MetadataRegistry.class));
@@ -124,12 +131,29 @@ public class InfluxDBPersistenceServiceTest {
         verify(influxDBRepositoryMock, never()).write(any());
     }
 
+    @Test
+    public void failedWriteIsReplayedFromDisk() throws UnexpectedConditionException {
+        Map<String, Object> config = new HashMap<>(VALID_V2_CONFIGURATION);
+        config.put(SPILL_ENABLED_PARAM, true);
+        InfluxDBPersistenceService instance = getService(config);
+        when(influxDBRepositoryMock.isConnected()).thenReturn(true);
+        when(influxDBRepositoryMock.write(any())).thenReturn(false, true);
+        instance.store(ItemTestHelper.createNumberItem("number", 5));
+        verify(influxDBRepositoryMock, timeout(10000).times(2)).write(any());
+        assertThat(instance.getDroppedCount(), is(0L));
+    }
+
     private InfluxDBPersistenceService getService(Map<String, Object> config) {
         return new InfluxDBPersistenceService(mock(ItemRegistry.class), influxDBMetadataService, config) {
             @Override
             protected InfluxDBRepository createInfluxDBRepository() {
                 return influxDBRepositoryMock;
             }
+
+            @Override
+            protected Path getSpillFolder() {
+                return spillFolder;
+            }
         };
     }
 }
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBSpillStoreTest {
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    private @TempDir @NonNullByDefault({}) Path folder;
+
+    @Test
+    public void replayReturnsPointsInOrder() {
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, 200, MAX_SIZE);
+        List<InfluxPoint> points = IntStream.range(0, 20).mapToObj(i -> point("item", i)).toList();
+        assertThat(store.append(points.subList(0, 10)), is(10));
+        assertThat(store.append(points.subList(10, 20)), is(10));
+        assertThat(store.getSegmentCount(), is(greaterThan(1)));
+
+        List<InfluxPoint> replayed = new ArrayList<>();
+        assertThat(store.replay(batch -> replayed.addAll(batch), 3), is(true));
+
+        assertThat(replayed.stream().map(InfluxPoint::getValue).toList(),
+                is(points.stream().map(InfluxPoint::getValue).toList()));
+        assertThat(store.isEmpty(), is(true));
+        assertThat(store.getSize(), is(0L));
+        assertThat(store.getSpilledCount(), is(20L));
+        assertThat(store.getReplayedCount(), is(20L));
+    }
+
+    @Test
+    public void pointsAreRestoredCompletely() {
+        Instant time = Instant.parse("2024-01-01T10:15:30.123456789Z");
+        List<InfluxPoint> points = List.of(
+                InfluxPoint.newBuilder("decimal").withTime(time).withValue(new BigDecimal("12.345"))
+                        .withTag("item", "decimal").withTag("floor", "ground").build(),
+                InfluxPoint.newBuilder("integer").withTime(time).withValue(1).withTag("item", "integer").build(),
+                InfluxPoint.newBuilder("long").withTime(time).withValue(1704104130123L).build(),
+                InfluxPoint.newBuilder("string").withTime(time).withValue("ä text\nwith newline").build());
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, MAX_SIZE, MAX_SIZE);
+        store.append(points);
+
+        List<InfluxPoint> replayed = new ArrayList<>();
+        store.replay(batch -> replayed.addAll(batch), 100);
+
+        assertThat(replayed, hasSize(points.size()));
+        for (int i = 0; i < points.size(); i++) {
+            InfluxPoint expected = points.get(i);
+            InfluxPoint actual = replayed.get(i);
+            assertThat(actual.getMeasurementName(), is(expected.getMeasurementName()));
+            assertThat(actual.getTime(), is(expected.getTime()));
+            assertThat(actual.getValue(), is(expected.getValue()));
+            assertThat(actual.getTags(), is(expected.getTags()));
+        }
+    }
+
+    @Test
+    public void spilledPointsSurviveRestart() {
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, 200, MAX_SIZE);
+        store.append(IntStream.range(0, 10).mapToObj(i -> point("item", i)).toList());
+        store.close();
+
+        InfluxDBSpillStore restarted = new InfluxDBSpillStore(folder, 200, MAX_SIZE);
+        assertThat(restarted.isEmpty(), is(false));
+        assertThat(restarted.getSize(), is(store.getSize()));
+        restarted.append(List.of(point("item", 10)));
+
+        List<InfluxPoint> replayed = new ArrayList<>();
+        restarted.replay(batch -> replayed.addAll(batch), 100);
+        assertThat(replayed.stream().map(InfluxPoint::getValue).toList(),
+                is(IntStream.range(0, 11).mapToObj(i -> (Object) i).toList()));
+    }
+
+    @Test
+    public void failedReplayKeepsSegment() {
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, MAX_SIZE, MAX_SIZE);
+        store.append(IntStream.range(0, 5).mapToObj(i -> point("item", i)).toList());
+
+        assertThat(store.replay(batch -> false, 100), is(false));
+        assertThat(store.isEmpty(), is(false));
+
+        // new points go to a new segment and are replayed after the old ones
+        store.append(List.of(point("item", 5)));
+        assertThat(store.getSegmentCount(), is(2));
+        List<InfluxPoint> replayed = new ArrayList<>();
+        assertThat(store.replay(batch -> replayed.addAll(batch), 100), is(true));
+        assertThat(replayed, hasSize(6));
+        assertThat(replayed.get(5).getValue(), is(5));
+    }
+
+    @Test
+    public void pointsAreDroppedWhenFull() {
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, MAX_SIZE, 100);
+        int spilled = store.append(IntStream.range(0, 10).mapToObj(i -> point("item", i)).toList());
+
+        assertThat(spilled, is(lessThan(10)));
+        assertThat(store.getDroppedCount(), is((long) (10 - spilled)));
+        assertThat(store.getSize(), is(lessThanOrEqualTo(100L)));
+    }
+
+    @Test
+    public void truncatedRecordIsIgnored() throws IOException {
+        InfluxDBSpillStore store = new InfluxDBSpillStore(folder, MAX_SIZE, MAX_SIZE);
+        store.append(List.of(point("item", 0), point("item", 1)));
+        store.close();
+        try (Stream<Path> files = Files.list(folder)) {
+            Path segment = files.collect(Collectors.toList()).get(0);
+            Files.write(segment, new byte[] { 0, 0, 1, 0, 42 }, StandardOpenOption.APPEND);
+        }
+
+        InfluxDBSpillStore restarted = new InfluxDBSpillStore(folder, MAX_SIZE, MAX_SIZE);
+        List<InfluxPoint> replayed = new ArrayList<>();
+        assertThat(restarted.replay(batch -> replayed.addAll(batch), 100), is(true));
+        assertThat(replayed, hasSize(2));
+    }
+
+    private InfluxPoint point(String name, int value) {
+        return InfluxPoint.newBuilder(name).withTime(Instant.ofEpochSecond(value)).withValue(value)
+                .withTag("item", name).build();
+    }
+}
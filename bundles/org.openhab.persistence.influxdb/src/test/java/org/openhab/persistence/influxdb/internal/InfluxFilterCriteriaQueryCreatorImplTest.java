@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -186,6 +187,23 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
                 \t|> last()"""));
     }
 
+    @Test
+    public void testAggregation() {
+        FilterCriteria criteria = createBaseCriteria();
+        criteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        InfluxDBAggregation aggregation = new InfluxDBAggregation(Duration.ofHours(1),
+                InfluxDBAggregation.Function.AVG);
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY, aggregation);
+        assertThat(queryV2, equalTo("""
+                from(bucket:"origin")
+                \t|> range(start:-100y, stop:100y)
+                \t|> filter(fn: (r) => r["_measurement"] == "sampleItem")
+                \t|> keep(columns:["_measurement", "_time", "_value"])
+                \t|> aggregateWindow(every:3600s, fn:mean, timeSrc:"_start", createEmpty:false)
+                \t|> sort(desc:false, columns:["_time"])"""));
+    }
+
     private FilterCriteria createBaseCriteria() {
         FilterCriteria criteria = new FilterCriteria();
         criteria.setItemName(ITEM_NAME);
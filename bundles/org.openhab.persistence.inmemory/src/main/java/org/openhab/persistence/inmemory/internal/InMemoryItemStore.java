@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link InMemoryItemStore} is the base class for the storage of the values of a single item. The entries are
+ * ordered by their timestamp, only one value is kept for each timestamp.
+ * <p>
+ * Implementations are not thread-safe, the caller needs to synchronize access.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public abstract class InMemoryItemStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryItemStore.class);
+
+    /**
+     * Add a value to the store. If a value with the same timestamp is already present, the new value is ignored.
+     *
+     * @param timestamp the timestamp of the value
+     * @param state the value
+     * @return {@code false} if the state can't be stored in this store, {@code true} otherwise
+     */
+    public abstract boolean add(ZonedDateTime timestamp, State state);
+
+    /**
+     * Remove the oldest entries until the store contains at most the given number of entries.
+     *
+     * @param maxEntries the maximum number of entries, 0 for unlimited
+     */
+    public abstract void trim(long maxEntries);
+
+    /**
+     * Get the number of entries in this store
+     *
+     * @return the number of entries
+     */
+    public abstract int size();
+
+    /**
+     * Get the timestamp of the oldest entry
+     *
+     * @return the timestamp or {@code null} if the store is empty
+     */
+    public abstract @Nullable ZonedDateTime getEarliest();
+
+    /**
+     * Get the timestamp of the newest entry
+     *
+     * @return the timestamp or {@code null} if the store is empty
+     */
+    public abstract @Nullable ZonedDateTime getLatest();
+
+    /**
+     * Query the store. Begin and end date, the state filter, the ordering and the paging of the filter are
+     * respected.
+     *
+     * @param itemName the name that should be used for the returned {@link HistoricItem}s
+     * @param filter the filter
+     * @return a list of all matching entries
+     */
+    public abstract List<HistoricItem> query(String itemName, FilterCriteria filter);
+
+    /**
+     * Remove all entries matching the begin and end date and the state filter of the filter.
+     *
+     * @param filter the filter
+     */
+    public abstract void remove(FilterCriteria filter);
+
+    /**
+     * Perform an action for each entry of the store in ascending order
+     *
+     * @param action the action
+     */
+    public abstract void forEach(BiConsumer<ZonedDateTime, State> action);
+
+    /**
+     * Check if a state matches the state filter of the filter. Begin and end date are not checked, this needs to be
+     * done by the implementation.
+     *
+     * @param state the state to check
+     * @param filter the filter
+     * @return {@code true} if the state matches the filter (or the filter has no state filter)
+     */
+    @SuppressWarnings("unchecked")
+    protected static boolean applies(State state, FilterCriteria filter) {
+        State refState = filter.getState();
+        FilterCriteria.Operator operator = filter.getOperator();
+        if (refState == null) {
+            // no state filter
+            return true;
+        }
+
+        if (operator == FilterCriteria.Operator.EQ) {
+            return state.equals(refState);
+        }
+
+        if (operator == FilterCriteria.Operator.NEQ) {
+            return !state.equals(refState);
+        }
+
+        if (state instanceof Comparable comparableState && state.getClass().equals(refState.getClass())) {
+            if (operator == FilterCriteria.Operator.GT) {
+                return comparableState.compareTo(refState) > 0;
+            }
+            if (operator == FilterCriteria.Operator.GTE) {
+                return comparableState.compareTo(refState) >= 0;
+            }
+            if (operator == FilterCriteria.Operator.LT) {
+                return comparableState.compareTo(refState) < 0;
+            }
+            if (operator == FilterCriteria.Operator.LTE) {
+                return comparableState.compareTo(refState) <= 0;
+            }
+        } else {
+            LOGGER.warn("Using operator {} but state {} is not comparable!", operator, refState);
+        }
+        return true;
+    }
+
+    protected static HistoricItem toHistoricItem(String itemName, ZonedDateTime timestamp, State state) {
+        return new HistoricItem() {
+            @Override
+            public ZonedDateTime getTimestamp() {
+                return timestamp;
+            }
+
+            @Override
+            public State getState() {
+                return state;
+            }
+
+            @Override
+            public String getName() {
+                return itemName;
+            }
+        };
+    }
+}
@@ -12,16 +12,14 @@
  */
 package org.openhab.persistence.inmemory.internal;
 
-import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -66,11 +64,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     protected static final String CONFIG_URI = "persistence:inmemory";
     private final String MAX_ENTRIES_CONFIG = "maxEntries";
     private final long MAX_ENTRIES_DEFAULT = 512;
+    private final String STORAGE_MODE_CONFIG = "storageMode";
+    private final String STORAGE_MODE_COMPACT = "compact";
 
     private final Logger logger = LoggerFactory.getLogger(InMemoryPersistenceService.class);
 
     private final Map<String, PersistItem> persistMap = new ConcurrentHashMap<>();
     private long maxEntries = MAX_ENTRIES_DEFAULT;
+    private boolean compactStorage = false;
 
     @Activate
     public void activate(Map<String, Object> config) {
@@ -81,14 +82,17 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     @Modified
     public void modified(Map<String, Object> config) {
         maxEntries = ConfigParser.valueAsOrElse(config.get(MAX_ENTRIES_CONFIG), Long.class, MAX_ENTRIES_DEFAULT);
+        compactStorage = STORAGE_MODE_COMPACT
+                .equals(ConfigParser.valueAsOrElse(config.get(STORAGE_MODE_CONFIG), String.class, ""));
 
         persistMap.values().forEach(persistItem -> {
-            Lock lock = persistItem.lock();
+            Lock lock = persistItem.lock;
             lock.lock();
             try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
+                if (compactStorage != persistItem.store instanceof NumericItemStore) {
+                    migrate(persistItem);
                 }
+                persistItem.store.trim(maxEntries);
             } finally {
                 lock.unlock();
             }
@@ -148,11 +152,10 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return false;
         }
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock;
         lock.lock();
         try {
-            List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
-            toRemove.forEach(persistItem.database()::remove);
+            persistItem.store.remove(filter);
         } finally {
             lock.unlock();
         }
@@ -171,16 +174,10 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             return List.of();
         }
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock;
         lock.lock();
-
-        Comparator<PersistEntry> comparator = filter.getOrdering() == FilterCriteria.Ordering.ASCENDING
-                ? Comparator.comparing(PersistEntry::timestamp)
-                : Comparator.comparing(PersistEntry::timestamp).reversed();
-
         try {
-            return persistItem.database().stream().filter(e -> applies(e, filter)).sorted(comparator)
-                    .map(e -> toHistoricItem(itemName, e)).toList();
+            return persistItem.store.query(itemName, filter);
         } finally {
             lock.unlock();
         }
@@ -193,13 +190,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
     }
 
     private PersistenceItemInfo toItemInfo(Map.Entry<String, PersistItem> itemEntry) {
-        Lock lock = itemEntry.getValue().lock();
+        Lock lock = itemEntry.getValue().lock;
         lock.lock();
         try {
             String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
+            InMemoryItemStore store = itemEntry.getValue().store;
+            Integer count = store.size();
+            ZonedDateTime earliest = store.getEarliest();
+            ZonedDateTime latest = store.getLatest();
             return new PersistenceItemInfo() {
 
                 @Override
@@ -214,12 +212,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
                 @Override
                 public @Nullable Date getEarliest() {
-                    return Date.from(earliest);
+                    return earliest == null ? null : Date.from(earliest.toInstant());
                 }
 
                 @Override
                 public @Nullable Date getLatest() {
-                    return Date.from(latest);
+                    return latest == null ? null : Date.from(latest.toInstant());
                 }
             };
         } finally {
@@ -227,95 +225,72 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
     }
 
-    private HistoricItem toHistoricItem(String itemName, PersistEntry entry) {
-        return new HistoricItem() {
-            @Override
-            public ZonedDateTime getTimestamp() {
-                return entry.timestamp();
-            }
-
-            @Override
-            public State getState() {
-                return entry.state();
-            }
-
-            @Override
-            public String getName() {
-                return itemName;
-            }
-        };
-    }
-
     private void internalStore(String itemName, ZonedDateTime timestamp, State state) {
         if (state instanceof UnDefType) {
             return;
         }
 
-        PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
-                k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
+        PersistItem persistItem = Objects.requireNonNull(
+                persistMap.computeIfAbsent(itemName, k -> new PersistItem(createStore(timestamp, state))));
 
-        Lock lock = persistItem.lock();
+        Lock lock = persistItem.lock;
         lock.lock();
         try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
-
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
+            if (!persistItem.store.add(timestamp, state)) {
+                // the state can't be stored in the compact store, fall back to objects for this item
+                logger.debug("Switching item '{}' to object storage, state '{}' can't be stored in compact form",
+                        itemName, state);
+                ObjectItemStore store = new ObjectItemStore();
+                persistItem.store.forEach(store::add);
+                store.add(timestamp, state);
+                persistItem.store = store;
             }
+            persistItem.store.trim(maxEntries);
         } finally {
             lock.unlock();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private boolean applies(PersistEntry entry, FilterCriteria filter) {
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null && beginDate.isAfter(entry.timestamp())) {
-            return false;
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null && endDate.isBefore(entry.timestamp())) {
-            return false;
-        }
-
-        State refState = filter.getState();
-        FilterCriteria.Operator operator = filter.getOperator();
-        if (refState == null) {
-            // no state filter
-            return true;
-        }
-
-        if (operator == FilterCriteria.Operator.EQ) {
-            return entry.state().equals(refState);
+    private InMemoryItemStore createStore(ZonedDateTime timestamp, State state) {
+        if (compactStorage) {
+            InMemoryItemStore store = NumericItemStore.create(timestamp, state);
+            if (store != null) {
+                return store;
+            }
         }
+        return new ObjectItemStore();
+    }
 
-        if (operator == FilterCriteria.Operator.NEQ) {
-            return !entry.state().equals(refState);
+    /**
+     * Move the values of an item to a new store that matches the current storage mode. The item lock must be held.
+     */
+    private void migrate(PersistItem persistItem) {
+        List<Map.Entry<ZonedDateTime, State>> entries = new ArrayList<>(persistItem.store.size());
+        persistItem.store.forEach((timestamp, state) -> entries.add(Map.entry(timestamp, state)));
+        if (entries.isEmpty()) {
+            persistItem.store = new ObjectItemStore();
+            return;
         }
 
-        if (entry.state() instanceof Comparable comparableState && entry.state.getClass().equals(refState.getClass())) {
-            if (operator == FilterCriteria.Operator.GT) {
-                return comparableState.compareTo(refState) > 0;
-            }
-            if (operator == FilterCriteria.Operator.GTE) {
-                return comparableState.compareTo(refState) >= 0;
-            }
-            if (operator == FilterCriteria.Operator.LT) {
-                return comparableState.compareTo(refState) < 0;
-            }
-            if (operator == FilterCriteria.Operator.LTE) {
-                return comparableState.compareTo(refState) <= 0;
+        InMemoryItemStore store = createStore(entries.get(0).getKey(), entries.get(0).getValue());
+        for (Map.Entry<ZonedDateTime, State> entry : entries) {
+            if (!store.add(entry.getKey(), entry.getValue())) {
+                store = new ObjectItemStore();
+                for (Map.Entry<ZonedDateTime, State> e : entries) {
+                    store.add(e.getKey(), e.getValue());
+                }
+                break;
             }
-        } else {
-            logger.warn("Using operator {} but state {} is not comparable!", operator, refState);
         }
-        return true;
+        persistItem.store = store;
     }
 
-    private record PersistEntry(ZonedDateTime timestamp, State state) {
-    }
+    private static class PersistItem {
+        private final Lock lock = new ReentrantLock();
+        private InMemoryItemStore store;
 
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+        public PersistItem(InMemoryItemStore store) {
+            this.store = store;
+        }
     }
 }
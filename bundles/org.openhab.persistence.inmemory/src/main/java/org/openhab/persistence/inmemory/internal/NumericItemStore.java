@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link NumericItemStore} stores numeric values of an item in primitive arrays (epoch milliseconds and double
+ * values). The type of the state, the unit and the time-zone are stored only once for the item.
+ * <p>
+ * Only states that are of the same type (and unit) as the first stored state and that can be represented as double
+ * without loss of precision are accepted, all other states are rejected by {@link #add(ZonedDateTime, State)}.
+ * Timestamps are stored with millisecond precision.
+ * <p>
+ * Valid entries are located between {@code head} and {@code head + size}. Removing the oldest entries only advances
+ * {@code head}, the arrays are compacted or grown when there is no free space left at the end.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NumericItemStore extends InMemoryItemStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Class<? extends State> type;
+    private final @Nullable Unit<?> unit;
+    private final ZoneId zone;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    private NumericItemStore(Class<? extends State> type, @Nullable Unit<?> unit, ZoneId zone) {
+        this.type = type;
+        this.unit = unit;
+        this.zone = zone;
+    }
+
+    /**
+     * Create a new store that is suitable for the given state
+     *
+     * @param timestamp the timestamp of the first value (used for the time-zone)
+     * @param state the first state
+     * @return the new store or {@code null} if the state is not numeric
+     */
+    public static @Nullable NumericItemStore create(ZonedDateTime timestamp, State state) {
+        if (state instanceof QuantityType<?> quantityType) {
+            return new NumericItemStore(QuantityType.class, quantityType.getUnit(), timestamp.getZone());
+        } else if (state instanceof PercentType) {
+            return new NumericItemStore(PercentType.class, null, timestamp.getZone());
+        } else if (state.getClass() == DecimalType.class) {
+            return new NumericItemStore(DecimalType.class, null, timestamp.getZone());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean add(ZonedDateTime timestamp, State state) {
+        if (state.getClass() != type) {
+            return false;
+        }
+        BigDecimal bigDecimal;
+        if (state instanceof QuantityType<?> quantityType) {
+            if (!quantityType.getUnit().equals(unit)) {
+                return false;
+            }
+            bigDecimal = quantityType.toBigDecimal();
+        } else {
+            bigDecimal = ((DecimalType) state).toBigDecimal();
+        }
+        double value = bigDecimal.doubleValue();
+        if (!Double.isFinite(value) || BigDecimal.valueOf(value).compareTo(bigDecimal) != 0) {
+            // can't be stored without loss of precision
+            return false;
+        }
+
+        long millis = timestamp.toInstant().toEpochMilli();
+        if (size == 0 || millis > timestamps[head + size - 1]) {
+            ensureTailCapacity();
+            timestamps[head + size] = millis;
+            values[head + size] = value;
+            size++;
+            return true;
+        }
+
+        int index = Arrays.binarySearch(timestamps, head, head + size, millis);
+        if (index >= 0) {
+            // keep the existing value, same as for the object store
+            return true;
+        }
+        insert(-index - 1 - head, millis, value);
+        return true;
+    }
+
+    @Override
+    public void trim(long maxEntries) {
+        if (maxEntries > 0 && size > maxEntries) {
+            head += size - (int) maxEntries;
+            size = (int) maxEntries;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public @Nullable ZonedDateTime getEarliest() {
+        return size == 0 ? null : toZonedDateTime(timestamps[head]);
+    }
+
+    @Override
+    public @Nullable ZonedDateTime getLatest() {
+        return size == 0 ? null : toZonedDateTime(timestamps[head + size - 1]);
+    }
+
+    @Override
+    public List<HistoricItem> query(String itemName, FilterCriteria filter) {
+        int pageSize = filter.getPageSize();
+        long skip = (long) filter.getPageNumber() * pageSize;
+        int from = lowerBound(filter.getBeginDate());
+        int to = upperBound(filter.getEndDate());
+        if (pageSize <= 0 || from >= to) {
+            return List.of();
+        }
+
+        boolean ascending = filter.getOrdering() != FilterCriteria.Ordering.DESCENDING;
+        boolean filterState = filter.getState() != null;
+        int step = ascending ? 1 : -1;
+        int end = ascending ? to : from - 1;
+
+        List<HistoricItem> result = new ArrayList<>();
+        for (int i = ascending ? from : to - 1; i != end; i += step) {
+            State state = null;
+            if (filterState) {
+                state = toState(values[i]);
+                if (!applies(state, filter)) {
+                    continue;
+                }
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(toHistoricItem(itemName, toZonedDateTime(timestamps[i]),
+                    state != null ? state : toState(values[i])));
+            if (result.size() >= pageSize) {
+                // page is full, no need to look at the remaining entries
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(FilterCriteria filter) {
+        int from = lowerBound(filter.getBeginDate());
+        int to = upperBound(filter.getEndDate());
+        if (from >= to) {
+            return;
+        }
+
+        int write = from;
+        if (filter.getState() != null) {
+            for (int read = from; read < to; read++) {
+                if (!applies(toState(values[read]), filter)) {
+                    timestamps[write] = timestamps[read];
+                    values[write] = values[read];
+                    write++;
+                }
+            }
+        }
+        int removed = to - write;
+        if (removed == 0) {
+            return;
+        }
+        if (write == head) {
+            // range starts at the head, no need to move anything
+            head += removed;
+        } else {
+            int tail = head + size - to;
+            System.arraycopy(timestamps, to, timestamps, write, tail);
+            System.arraycopy(values, to, values, write, tail);
+        }
+        size -= removed;
+    }
+
+    @Override
+    public void forEach(BiConsumer<ZonedDateTime, State> action) {
+        for (int i = head; i < head + size; i++) {
+            action.accept(toZonedDateTime(timestamps[i]), toState(values[i]));
+        }
+    }
+
+    /**
+     * Insert a value before the given position, moving the shorter part of the existing values
+     *
+     * @param position the position relative to {@code head}
+     * @param millis the timestamp
+     * @param value the value
+     */
+    private void insert(int position, long millis, double value) {
+        if (head > 0 && position < size / 2) {
+            System.arraycopy(timestamps, head, timestamps, head - 1, position);
+            System.arraycopy(values, head, values, head - 1, position);
+            head--;
+        } else {
+            ensureTailCapacity();
+            int index = head + position;
+            System.arraycopy(timestamps, index, timestamps, index + 1, size - position);
+            System.arraycopy(values, index, values, index + 1, size - position);
+        }
+        timestamps[head + position] = millis;
+        values[head + position] = value;
+        size++;
+    }
+
+    /**
+     * Make sure there is space for at least one more entry after the last entry. If at least half of the arrays is
+     * unused at the beginning, the entries are moved to the beginning, otherwise the arrays are grown.
+     */
+    private void ensureTailCapacity() {
+        if (head + size < timestamps.length) {
+            return;
+        }
+        if (head >= size) {
+            System.arraycopy(timestamps, head, timestamps, 0, size);
+            System.arraycopy(values, head, values, 0, size);
+        } else {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            long[] newTimestamps = new long[capacity];
+            double[] newValues = new double[capacity];
+            System.arraycopy(timestamps, head, newTimestamps, 0, size);
+            System.arraycopy(values, head, newValues, 0, size);
+            timestamps = newTimestamps;
+            values = newValues;
+        }
+        head = 0;
+    }
+
+    /**
+     * Get the index of the first entry that is not before the given date
+     */
+    private int lowerBound(@Nullable ZonedDateTime date) {
+        if (date == null) {
+            return head;
+        }
+        long millis = date.toInstant().toEpochMilli();
+        int index = Arrays.binarySearch(timestamps, head, head + size, millis);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Get the index after the last entry that is not after the given date
+     */
+    private int upperBound(@Nullable ZonedDateTime date) {
+        if (date == null) {
+            return head + size;
+        }
+        long millis = date.toInstant().toEpochMilli();
+        int index = Arrays.binarySearch(timestamps, head, head + size, millis);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private ZonedDateTime toZonedDateTime(long millis) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private State toState(double value) {
+        Unit<?> unit = this.unit;
+        if (unit != null) {
+            return new QuantityType<>(BigDecimal.valueOf(value), unit);
+        } else if (type == PercentType.class) {
+            return new PercentType(BigDecimal.valueOf(value));
+        }
+        return new DecimalType(BigDecimal.valueOf(value));
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * The {@link ObjectItemStore} stores the values of an item as objects in a {@link TreeSet}. It can store any type of
+ * {@link State}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ObjectItemStore extends InMemoryItemStore {
+    private final TreeSet<PersistEntry> database = new TreeSet<>(Comparator.comparing(PersistEntry::timestamp));
+
+    @Override
+    public boolean add(ZonedDateTime timestamp, State state) {
+        database.add(new PersistEntry(timestamp, state));
+        return true;
+    }
+
+    @Override
+    public void trim(long maxEntries) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        while (database.size() > maxEntries) {
+            database.pollFirst();
+        }
+    }
+
+    @Override
+    public int size() {
+        return database.size();
+    }
+
+    @Override
+    public @Nullable ZonedDateTime getEarliest() {
+        return database.isEmpty() ? null : database.first().timestamp();
+    }
+
+    @Override
+    public @Nullable ZonedDateTime getLatest() {
+        return database.isEmpty() ? null : database.last().timestamp();
+    }
+
+    @Override
+    public List<HistoricItem> query(String itemName, FilterCriteria filter) {
+        int pageSize = filter.getPageSize();
+        long skip = (long) filter.getPageNumber() * pageSize;
+        if (pageSize <= 0) {
+            return List.of();
+        }
+
+        NavigableSet<PersistEntry> range = getRange(filter);
+        if (filter.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
+            range = range.descendingSet();
+        }
+        boolean filterState = filter.getState() != null;
+
+        List<HistoricItem> result = new ArrayList<>();
+        for (PersistEntry entry : range) {
+            if (filterState && !applies(entry.state(), filter)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(toHistoricItem(itemName, entry.timestamp(), entry.state()));
+            if (result.size() >= pageSize) {
+                // page is full, no need to look at the remaining entries
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(FilterCriteria filter) {
+        NavigableSet<PersistEntry> range = getRange(filter);
+        if (filter.getState() == null) {
+            range.clear();
+        } else {
+            range.removeIf(e -> applies(e.state(), filter));
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<ZonedDateTime, State> action) {
+        database.forEach(e -> action.accept(e.timestamp(), e.state()));
+    }
+
+    /**
+     * Get a view of all entries of the database that are within the begin and end date of the filter (both inclusive).
+     *
+     * @param filter the filter
+     * @return a (possibly empty) view on the database in ascending order
+     */
+    private NavigableSet<PersistEntry> getRange(FilterCriteria filter) {
+        if (database.isEmpty()) {
+            return database;
+        }
+        // the entries are ordered by their ZonedDateTime, which for equal instants is further ordered by the local
+        // time. The probes are shifted to the most negative/positive offset, so they are the lowest/highest
+        // ZonedDateTime for that instant and no entry with the same instant (but another zone) is missed.
+        ZonedDateTime beginDate = filter.getBeginDate();
+        PersistEntry from = beginDate == null ? database.first()
+                : new PersistEntry(beginDate.withZoneSameInstant(ZoneOffset.MIN), UnDefType.NULL);
+        ZonedDateTime endDate = filter.getEndDate();
+        PersistEntry to = endDate == null ? database.last()
+                : new PersistEntry(endDate.withZoneSameInstant(ZoneOffset.MAX), UnDefType.NULL);
+        if (from.timestamp().compareTo(to.timestamp()) > 0) {
+            return new TreeSet<>();
+        }
+        return database.subSet(from, true, to, true);
+    }
+
+    private record PersistEntry(ZonedDateTime timestamp, State state) {
+    }
+}
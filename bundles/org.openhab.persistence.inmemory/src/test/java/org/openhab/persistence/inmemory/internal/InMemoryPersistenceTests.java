@@ -21,6 +21,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,6 +36,7 @@ import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -175,6 +177,64 @@ public class InMemoryPersistenceTests {
         assertThat(resultSet, contains(3, 2, 1));
     }
 
+    @Test
+    public void querySupportsPaging() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+        filterCriteria.setPageSize(3);
+        filterCriteria.setPageNumber(1);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(3, 4, 5));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        filterCriteria.setPageNumber(3);
+
+        resultSet.clear();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(0));
+    }
+
+    @Test
+    public void queryCombinesRangeStateFilterAndPaging() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        filterCriteria.setBeginDate(start.plusHours(2));
+        filterCriteria.setEndDate(start.plusHours(8));
+        filterCriteria.setState(new DecimalType(4));
+        filterCriteria.setOperator(FilterCriteria.Operator.GT);
+        filterCriteria.setPageSize(2);
+        filterCriteria.setPageNumber(1);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(6, 5));
+    }
+
+    @Test
+    public void queryWithRangeOutsideDataReturnsEmptyList() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(1), new DecimalType(2));
+
+        filterCriteria.setBeginDate(start.plusHours(2));
+        filterCriteria.setEndDate(start.plusHours(3));
+        assertThat(service.query(filterCriteria).iterator().hasNext(), is(false));
+
+        filterCriteria.setBeginDate(start.plusHours(3));
+        filterCriteria.setEndDate(start.plusHours(2));
+        assertThat(service.query(filterCriteria).iterator().hasNext(), is(false));
+    }
+
     @Test
     public void removeBetweenTimes() {
         State historicState1 = new StringType("value1");
@@ -275,4 +335,81 @@ public class InMemoryPersistenceTests {
 
         // begin date is before first date is already covered by case #1
     }
+
+    @Test
+    public void compactStorageStoresAndQueriesNumericValues() {
+        service.activate(Map.of("storageMode", "compact"));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        // store out of order, the query result needs to be ordered
+        service.store(item, start.plusHours(2), new QuantityType<>("3 W"));
+        service.store(item, start, new QuantityType<>("1 W"));
+        service.store(item, start.plusHours(1), new QuantityType<>("2.5 W"));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<HistoricItem> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(resultSet::add);
+
+        assertThat(resultSet, hasSize(3));
+        assertThat(resultSet.get(0).getState(), is(new QuantityType<>("1 W")));
+        assertThat(resultSet.get(0).getTimestamp(), is(start));
+        assertThat(resultSet.get(1).getState(), is(new QuantityType<>("2.5 W")));
+        assertThat(resultSet.get(2).getState(), is(new QuantityType<>("3 W")));
+        assertThat(resultSet.get(2).getTimestamp(), is(start.plusHours(2)));
+    }
+
+    @Test
+    public void compactStorageRespectsMaxEntries() {
+        service.activate(Map.of("storageMode", "compact", "maxEntries", 5L));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 100; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(95, 96, 97, 98, 99));
+    }
+
+    @Test
+    public void compactStorageFallsBackToObjectsForNonNumericStates() {
+        service.activate(Map.of("storageMode", "compact"));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(1), new StringType("value"));
+        service.store(item, start.plusHours(2), new DecimalType(3));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<State> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(h.getState()));
+        assertThat(resultSet, contains(new DecimalType(1), new StringType("value"), new DecimalType(3)));
+    }
+
+    @Test
+    public void compactStorageRemoveBetweenTimes() {
+        service.activate(Map.of("storageMode", "compact"));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusHours(i), new DecimalType(i));
+        }
+
+        filterCriteria.setBeginDate(start.plusHours(3));
+        filterCriteria.setEndDate(start.plusHours(6));
+        service.remove(filterCriteria);
+
+        filterCriteria = new FilterCriteria();
+        filterCriteria.setItemName(ITEM_NAME);
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(0, 1, 2, 7, 8, 9));
+    }
 }
@@ -66,6 +66,11 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    private boolean writeQueueEnabled = false;
+    private int writeQueueFlushInterval = 1000;
+    private int writeQueueMaxBatchSize = 500;
+    private int writeQueueMaxSize = 10000;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -191,6 +196,30 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String wq = (String) configuration.get("writeQueueEnabled");
+        if (wq != null && !wq.isBlank()) {
+            writeQueueEnabled = Boolean.parseBoolean(wq);
+            logger.debug("JDBC::updateConfig: writeQueueEnabled={}", writeQueueEnabled);
+        }
+
+        String wi = (String) configuration.get("writeQueueFlushInterval");
+        if (wi != null && !wi.isBlank() && isNumericPattern.matcher(wi).matches()) {
+            writeQueueFlushInterval = Math.max(1, Integer.parseInt(wi));
+            logger.debug("JDBC::updateConfig: writeQueueFlushInterval={}", writeQueueFlushInterval);
+        }
+
+        String wb = (String) configuration.get("writeQueueMaxBatchSize");
+        if (wb != null && !wb.isBlank() && isNumericPattern.matcher(wb).matches()) {
+            writeQueueMaxBatchSize = Math.max(1, Integer.parseInt(wb));
+            logger.debug("JDBC::updateConfig: writeQueueMaxBatchSize={}", writeQueueMaxBatchSize);
+        }
+
+        String ws = (String) configuration.get("writeQueueMaxSize");
+        if (ws != null && !ws.isBlank() && isNumericPattern.matcher(ws).matches()) {
+            writeQueueMaxSize = Math.max(1, Integer.parseInt(ws));
+            logger.debug("JDBC::updateConfig: writeQueueMaxSize={}", writeQueueMaxSize);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -404,6 +433,22 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    public boolean getWriteQueueEnabled() {
+        return writeQueueEnabled;
+    }
+
+    public int getWriteQueueFlushInterval() {
+        return writeQueueFlushInterval;
+    }
+
+    public int getWriteQueueMaxBatchSize() {
+        return writeQueueMaxBatchSize;
+    }
+
+    public int getWriteQueueMaxSize() {
+        return writeQueueMaxSize;
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
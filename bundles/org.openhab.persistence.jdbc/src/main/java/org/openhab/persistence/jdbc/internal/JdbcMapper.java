@@ -35,6 +35,8 @@ import org.openhab.core.types.State;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -225,6 +227,15 @@ public class JdbcMapper {
         errCnt = 0;
     }
 
+    protected void storeItemValues(Item item, List<JdbcItemValue> values) throws JdbcException {
+        logger.debug("JDBC::storeItemValues: item={} values={}", item, values.size());
+        String tableName = getTable(item);
+        long timerStart = System.currentTimeMillis();
+        conf.getDBDAO().doStoreItemValues(item, values, tableName);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
     public long getRowCount(String tableName) throws JdbcSQLException {
         return conf.getDBDAO().doGetRowCount(tableName);
     }
@@ -242,6 +253,18 @@ public class JdbcMapper {
         return result;
     }
 
+    protected List<HistoricItem> getAggregatedHistItemFilterQuery(FilterCriteria filter, JdbcAggregation aggregation,
+            String table, Item item) throws JdbcSQLException {
+        logger.debug("JDBC::getAggregatedHistItemFilterQuery aggregation='{}' table='{}' itemName='{}'", aggregation,
+                table, item.getName());
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetAggregatedHistItemFilterQuery(item, filter, aggregation,
+                table, timeZoneProvider.getTimeZone());
+        logTime("getAggregatedHistItemFilterQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     protected void deleteItemValues(FilterCriteria filter, String table) throws JdbcSQLException {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
@@ -23,6 +23,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -30,6 +33,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -46,6 +50,7 @@ import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.osgi.framework.BundleContext;
@@ -54,9 +59,15 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the JDBC {@link PersistenceService}.
  *
@@ -64,12 +75,15 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Migration to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class,
-        QueryablePersistenceService.class }, configurationPid = "org.openhab.jdbc", //
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        JdbcPersistenceService.class }, configurationPid = "org.openhab.jdbc", //
         property = Constants.SERVICE_PID + "=org.openhab.jdbc")
 @ConfigurableService(category = "persistence", label = "JDBC Persistence Service", description_uri = JdbcPersistenceServiceConstants.CONFIG_URI)
 public class JdbcPersistenceService extends JdbcMapper implements ModifiablePersistenceService {
 
+    private static final String METRIC_WRITE = "openhab.persistence.write";
+    private static final String METRIC_QUERY = "openhab.persistence.query";
+
     private final Logger logger = LoggerFactory.getLogger(JdbcPersistenceService.class);
 
     private final ItemRegistry itemRegistry;
@@ -77,6 +91,14 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    private volatile @Nullable JdbcWriteQueue writeQueue;
+    private @Nullable ScheduledFuture<?> writeQueueJob;
+    private final AtomicBoolean writeQueueFlushRequested = new AtomicBoolean();
+
+    private volatile @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Timer writeTimer;
+    private volatile @Nullable Timer queryTimer;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -120,6 +142,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
+        stopWriteQueue();
         // closeConnection();
         initialized = false;
     }
@@ -137,24 +160,129 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        if (!enqueue(item, null, item.getState())) {
+            scheduler.execute(() -> internalStore(item, null, item.getState()));
+        }
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        if (!enqueue(item, null, item.getState())) {
+            scheduler.execute(() -> internalStore(item, null, item.getState()));
+        }
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        if (!enqueue(item, date, state)) {
+            scheduler.execute(() -> internalStore(item, date, state));
+        }
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        if (!enqueue(item, date, state)) {
+            scheduler.execute(() -> internalStore(item, date, state));
+        }
+    }
+
+    /**
+     * Add a value to the write queue, if the queue is enabled. Values without a date are stored with the current
+     * time, because the database time of the (later) batch insert can't be used.
+     *
+     * @return true if the write queue is enabled and has handled the value, false otherwise
+     */
+    private boolean enqueue(Item item, @Nullable ZonedDateTime date, State state) {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue == null) {
+            return false;
+        }
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return true;
+        }
+        if (writeQueue.add(item, state, date == null ? ZonedDateTime.now() : date)
+                && writeQueue.size() >= conf.getWriteQueueMaxBatchSize()
+                && writeQueueFlushRequested.compareAndSet(false, true)) {
+            // enough values for a full batch, don't wait for the flush interval
+            scheduler.execute(this::flushWriteQueue);
+        }
+        return true;
+    }
+
+    private void flushWriteQueue() {
+        writeQueueFlushRequested.set(false);
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            flushWriteQueue(writeQueue, false);
+        }
+    }
+
+    /**
+     * Write the values of a write queue to the database.
+     *
+     * @param writeQueue the write queue
+     * @param last true if the queue is discarded afterwards, so values that can't be written are lost
+     */
+    private synchronized void flushWriteQueue(JdbcWriteQueue writeQueue, boolean last) {
+        if (writeQueue.size() == 0) {
+            return;
+        }
+        if (!checkDBAccessability()) {
+            if (last) {
+                logger.warn("JDBC::flushWriteQueue: No connection to database. {} queued values are dropped.",
+                        writeQueue.size());
+            } else {
+                logger.debug(
+                        "JDBC::flushWriteQueue: No connection to database. {} queued values will be stored when the connection is available again.",
+                        writeQueue.size());
+            }
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        int size = writeQueue.size();
+        writeQueue.flush();
+        record(writeTimer, timerStart);
+        if (logger.isDebugEnabled()) {
+            logger.debug("JDBC: Flushed {} queued values to SQL database in {} ms.", size,
+                    System.currentTimeMillis() - timerStart);
+        }
+    }
+
+    private void startWriteQueue() {
+        JdbcWriteQueue writeQueue = new JdbcWriteQueue(this::storeItemValues, conf.getWriteQueueMaxBatchSize(),
+                conf.getWriteQueueMaxSize());
+        this.writeQueue = writeQueue;
+        int interval = conf.getWriteQueueFlushInterval();
+        writeQueueJob = scheduler.scheduleWithFixedDelay(this::flushWriteQueue, interval, interval,
+                TimeUnit.MILLISECONDS);
+        logger.debug("JDBC::startWriteQueue: write queue started with flush interval {} ms", interval);
+    }
+
+    private void stopWriteQueue() {
+        ScheduledFuture<?> writeQueueJob = this.writeQueueJob;
+        if (writeQueueJob != null) {
+            writeQueueJob.cancel(false);
+            this.writeQueueJob = null;
+        }
+        // values stored from now on are written directly, so no value is added after the final flush
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        this.writeQueue = null;
+        if (writeQueue != null) {
+            // write remaining values before the queue is discarded
+            flushWriteQueue(writeQueue, true);
+        }
+    }
+
+    /**
+     * Get the write queue.
+     *
+     * @return the write queue or null if it is disabled
+     */
+    public @Nullable JdbcWriteQueue getWriteQueue() {
+        return writeQueue;
     }
 
     private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
@@ -172,6 +300,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         try {
             long timerStart = System.currentTimeMillis();
             storeItemValue(item, state, date);
+            record(writeTimer, timerStart);
             if (logger.isDebugEnabled()) {
                 logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(), state,
                         new Date(), System.currentTimeMillis() - timerStart);
@@ -196,6 +325,21 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
      */
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        return query(filter, null);
+    }
+
+    /**
+     * Queries the {@link PersistenceService} for data with a given filter
+     * criteria and lets the database downsample the result
+     *
+     * @param filter
+     *            the filter to apply to the query, paging and the state filter are not supported
+     * @param aggregation
+     *            the bucket width and the function used to reduce the values of each bucket, or null to
+     *            return all values
+     * @return a time series of items
+     */
+    public List<HistoricItem> query(FilterCriteria filter, @Nullable JdbcAggregation aggregation) {
         if (!checkDBAccessability()) {
             logger.warn("JDBC::query: database not connected, query aborted for item '{}'", filter.getItemName());
             return List.of();
@@ -239,7 +383,10 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
         try {
             long timerStart = System.currentTimeMillis();
-            List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+            List<HistoricItem> items = aggregation == null
+                    ? getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item)
+                    : getAggregatedHistItemFilterQuery(filter, aggregation, table, item);
+            record(queryTimer, timerStart);
             if (logger.isDebugEnabled()) {
                 logger.debug("JDBC: Query for item '{}' returned {} rows in {} ms", itemName, items.size(),
                         System.currentTimeMillis() - timerStart);
@@ -253,9 +400,40 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    private static void record(@Nullable Timer timer, long timerStart) {
+        if (timer != null) {
+            timer.record(System.currentTimeMillis() - timerStart, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", JdbcPersistenceServiceConstants.SERVICE_ID);
+        writeTimer = Timer.builder(METRIC_WRITE).description("Duration of storing a value or a batch of values")
+                .tags(tags).register(meterRegistry);
+        queryTimer = Timer.builder(METRIC_QUERY).description("Duration of queries").tags(tags)
+                .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        Timer writeTimer = this.writeTimer;
+        Timer queryTimer = this.queryTimer;
+        this.writeTimer = null;
+        this.queryTimer = null;
+        this.meterRegistry = null;
+        if (meterRegistry != null && writeTimer != null && queryTimer != null) {
+            meterRegistry.remove(writeTimer);
+            meterRegistry.remove(queryTimer);
+        }
+    }
+
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
@@ -270,6 +448,9 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         } else {
             initialized = false;
         }
+        if (conf.valid && conf.getWriteQueueEnabled()) {
+            startWriteQueue();
+        }
 
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.items.Item;
+import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link JdbcWriteQueue} collects values that should be stored per item, so they can be written to the
+ * database with JDBC batches instead of one statement per value.
+ * <p>
+ * The queue is bounded: when it contains the maximum number of values, new values are dropped until the next flush.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueue {
+
+    /**
+     * Writes a batch of values of a single item to the database.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(Item item, List<JdbcItemValue> values) throws JdbcException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteQueue.class);
+
+    private final BatchWriter writer;
+    private final int maxBatchSize;
+    private final int maxSize;
+
+    // guarded by this
+    private final Map<String, PendingValues> pending = new LinkedHashMap<>();
+    private int size = 0;
+    private boolean overflowLogged = false;
+
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public JdbcWriteQueue(BatchWriter writer, int maxBatchSize, int maxSize) {
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Add a value to the queue.
+     *
+     * @param item the item
+     * @param state the state to store
+     * @param date the timestamp of the state
+     * @return true if the value was queued, false if it was dropped because the queue is full
+     */
+    public synchronized boolean add(Item item, State state, ZonedDateTime date) {
+        if (size >= maxSize) {
+            droppedCount.incrementAndGet();
+            if (!overflowLogged) {
+                logger.warn("JDBC::writeQueue: Queue is full ({} values), dropping values until the next flush",
+                        maxSize);
+                overflowLogged = true;
+            }
+            return false;
+        }
+        PendingValues values = pending.computeIfAbsent(item.getName(), k -> new PendingValues(item));
+        values.item = item;
+        values.values.add(new JdbcItemValue(state, date));
+        size++;
+        queuedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Write all queued values to the database. Values of the same item are written in batches of at most
+     * the maximum batch size. If two values of an item have the same timestamp, only the last one is written.
+     */
+    public void flush() {
+        List<PendingValues> toWrite;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            toWrite = new ArrayList<>(pending.values());
+            pending.clear();
+            size = 0;
+            overflowLogged = false;
+        }
+
+        for (PendingValues itemValues : toWrite) {
+            Map<Long, JdbcItemValue> unique = new LinkedHashMap<>();
+            for (JdbcItemValue value : itemValues.values) {
+                unique.put(value.date().toInstant().toEpochMilli(), value);
+            }
+            int duplicates = itemValues.values.size() - unique.size();
+            if (duplicates > 0) {
+                flushedCount.addAndGet(duplicates);
+            }
+            List<JdbcItemValue> values = new ArrayList<>(unique.values());
+            for (int from = 0; from < values.size(); from += maxBatchSize) {
+                List<JdbcItemValue> batch = values.subList(from, Math.min(values.size(), from + maxBatchSize));
+                try {
+                    writer.write(itemValues.item, batch);
+                    flushedCount.addAndGet(batch.size());
+                } catch (JdbcException e) {
+                    droppedCount.addAndGet(batch.size());
+                    logger.warn("JDBC::writeQueue: Unable to store {} values for item '{}'", batch.size(),
+                            itemValues.item.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of values currently waiting in the queue
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the total number of values added to the queue
+     */
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * Get the total number of values written to the database (including values superseded by a value with the same
+     * timestamp)
+     */
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    /**
+     * Get the total number of values that were dropped because the queue was full or writing failed
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private static class PendingValues {
+        private Item item;
+        private final List<JdbcItemValue> values = new ArrayList<>();
+
+        private PendingValues(Item item) {
+            this.item = item;
+        }
+    }
+}
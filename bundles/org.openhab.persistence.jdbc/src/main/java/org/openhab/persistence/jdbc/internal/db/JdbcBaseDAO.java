@@ -18,12 +18,17 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -59,7 +64,9 @@ import org.openhab.core.types.TypeParser;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.DbMetaData;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
@@ -82,6 +89,10 @@ public class JdbcBaseDAO {
     // Get Database Meta data
     protected @Nullable DbMetaData dbMeta;
 
+    // SQL statements per table (and query shape), values are bound as parameters so the statements can be reused
+    private static final int SQL_CACHE_MAX_SIZE = 5000;
+    private final Map<List<Object>, String> sqlCache = new ConcurrentHashMap<>();
+
     protected String sqlPingDB = "SELECT 1";
     protected String sqlGetDB = "SELECT DATABASE()";
     protected String sqlIfTableExists = "SHOW TABLES LIKE '#searchTable#'";
@@ -430,8 +441,7 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
+        String sql = cachedSql(sqlInsertItemValue, new String[] { "#tableName#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
         Object[] params = { storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
@@ -444,10 +454,9 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+        String sql = storeItemValueWithDateQueryProvider(storedVO);
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = storeItemValueWithDateParamsProvider(timestamp, storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -456,13 +465,46 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Store several values of the same item with a single JDBC batch.
+     *
+     * @param item the item the values belong to
+     * @param values the values to store (with their timestamps)
+     * @param tableName the table of the item
+     * @throws JdbcSQLException on SQL errors
+     */
+    public void doStoreItemValues(Item item, List<JdbcItemValue> values, String tableName) throws JdbcSQLException {
+        if (values.isEmpty()) {
+            return;
+        }
+        String sql = "";
+        Object[][] params = new Object[values.size()][];
+        for (int i = 0; i < values.size(); i++) {
+            JdbcItemValue value = values.get(i);
+            ItemVO storedVO = storeItemValueProvider(item, value.state(), new ItemVO(tableName, null));
+            if (i == 0) {
+                // the statement only depends on the table and the data type, which is the same for all values
+                sql = storeItemValueWithDateQueryProvider(storedVO);
+            }
+            params[i] = storeItemValueWithDateParamsProvider(
+                    new java.sql.Timestamp(value.date().toInstant().toEpochMilli()), storedVO);
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, params.length);
+        try {
+            Yank.executeBatch(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
+        String sql = cachedHistItemFilterQuery(filter, numberDecimalcount, table, name, timeZone);
+        Object[] params = resolveTimeFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -470,27 +512,61 @@ public class JdbcBaseDAO {
             logger.debug("JDBC::doGetHistItemFilterQuery Query failed. Returning an empty list.");
             return List.of();
         }
-        // we already retrieve the unit here once as it is a very costly operation
-        String itemName = item.getName();
-        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
-        return m.stream()
-                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsZonedDateTime(o[0])))
-                .collect(Collectors.<HistoricItem> toList());
+        return rowsAsHistoricItems(item, m);
+    }
+
+    /**
+     * Query the values of an item, downsampled by the database. The values within the begin and end date of the
+     * filter are grouped into buckets and each bucket is reduced to one value. Paging and the state filter of the
+     * filter are not supported. Only {@link NumberItem}s can be averaged or reduced to their minimum or maximum, for
+     * all other items the last value of each bucket is returned.
+     *
+     * @param item the item
+     * @param filter the filter
+     * @param aggregation the bucket width and the function
+     * @param table the table of the item
+     * @param timeZone the time zone of the stored timestamps
+     * @return the downsampled values
+     * @throws JdbcSQLException on SQL errors
+     */
+    public List<HistoricItem> doGetAggregatedHistItemFilterQuery(Item item, FilterCriteria filter,
+            JdbcAggregation aggregation, String table, ZoneId timeZone) throws JdbcSQLException {
+        JdbcAggregation.Function function = item instanceof NumberItem ? aggregation.function()
+                : JdbcAggregation.Function.LAST;
+        long bucketSeconds = aggregation.getBucketSeconds();
+        String sql = cachedSql(
+                List.of("aggregate", table, function, bucketSeconds, filter.getOrdering(),
+                        filter.getBeginDate() != null, filter.getEndDate() != null),
+                () -> histItemFilterAggregateQueryProvider(filter, function, bucketSeconds, table, timeZone));
+        Object[] params = resolveTimeFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetAggregatedHistItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m;
+        try {
+            m = Yank.queryObjectArrays(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+        if (m == null) {
+            logger.debug("JDBC::doGetAggregatedHistItemFilterQuery Query failed. Returning an empty list.");
+            return List.of();
+        }
+        return rowsAsHistoricItems(item, m);
     }
 
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterDeleteProvider(filter, table, timeZone);
-        logger.debug("JDBC::doDeleteItemValues sql={}", sql);
+        String sql = cachedSql(List.of("delete", table, filter.getBeginDate() != null, filter.getEndDate() != null),
+                () -> histItemFilterDeleteProvider(filter, table, timeZone));
+        Object[] params = resolveTimeFilterParams(filter, timeZone);
+        logger.debug("JDBC::doDeleteItemValues sql={} params={}", sql, params);
         try {
-            Yank.execute(sql, null);
+            Yank.execute(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
     }
 
     public long doGetRowCount(String tableName) throws JdbcSQLException {
-        final String sql = StringUtilsExt.replaceArrayMerge(sqlGetRowCount, new String[] { "#tableName#" },
-                new String[] { tableName });
+        final String sql = cachedSql(sqlGetRowCount, new String[] { "#tableName#" }, new String[] { tableName });
         logger.debug("JDBC::doGetRowCount sql={}", sql);
         try {
             final @Nullable Long result = Yank.queryScalar(sql, Long.class, null);
@@ -528,6 +604,50 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Get the query for downsampled values. The first column of the result is the time, the second the value.
+     * <p>
+     * For {@link JdbcAggregation.Function#LAST} the rows with the latest time of each bucket are selected, for the
+     * other functions the first time of each bucket is returned together with the aggregated value.
+     *
+     * @param filter the filter (only begin date, end date and ordering are used)
+     * @param function the aggregate function
+     * @param bucketSeconds the width of a bucket in seconds
+     * @param table the table of the item
+     * @param timeZone the time zone of the stored timestamps
+     * @return the query
+     */
+    protected String histItemFilterAggregateQueryProvider(FilterCriteria filter, JdbcAggregation.Function function,
+            long bucketSeconds, String table, ZoneId timeZone) {
+        logger.debug("JDBC::histItemFilterAggregateQueryProvider filter = {}, function = {}, bucket = {}s, table = {}",
+                filter, function, bucketSeconds, table);
+
+        String filterString = resolveTimeFilter(filter, timeZone);
+        String bucket = timeBucketProvider(bucketSeconds);
+        String orderString = (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY 1 ASC" : " ORDER BY 1 DESC";
+        String queryString;
+        if (function == JdbcAggregation.Function.LAST) {
+            queryString = "SELECT time, value FROM " + table + " WHERE time IN (SELECT MAX(time) FROM " + table
+                    + filterString + " GROUP BY " + bucket + ")" + orderString;
+        } else {
+            queryString = "SELECT MIN(time), " + function.name() + "(value) FROM " + table + filterString
+                    + " GROUP BY " + bucket + orderString;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Get the SQL expression that maps the time column to a bucket. All times of a bucket need to result in the
+     * same value.
+     *
+     * @param bucketSeconds the width of a bucket in seconds
+     * @return the SQL expression
+     */
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR(UNIX_TIMESTAMP(time) / " + bucketSeconds + ")";
+    }
+
     protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
 
@@ -538,19 +658,106 @@ public class JdbcBaseDAO {
         return deleteString;
     }
 
+    /**
+     * Get the WHERE clause for the begin and end date of the filter. The dates are not part of the clause, they are
+     * bound as parameters, see {@link #resolveTimeFilterParams(FilterCriteria, ZoneId)}.
+     *
+     * @param filter the filter
+     * @param timeZone the time zone of the stored timestamps
+     * @return the WHERE clause (with leading space) or an empty string if the filter has no dates
+     */
     protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
         String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>=?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<=?";
+        }
+        return filterString;
+    }
+
+    /**
+     * Get the parameters for the WHERE clause returned by {@link #resolveTimeFilter(FilterCriteria, ZoneId)}.
+     *
+     * @param filter the filter
+     * @param timeZone the time zone of the stored timestamps
+     * @return the parameters (may be empty)
+     */
+    protected Object[] resolveTimeFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(2);
         ZonedDateTime beginDate = filter.getBeginDate();
         if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
+            params.add(timeFilterParam(beginDate, timeZone));
         }
         ZonedDateTime endDate = filter.getEndDate();
         if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
+            params.add(timeFilterParam(endDate, timeZone));
         }
-        return filterString;
+        return params.toArray();
+    }
+
+    /**
+     * Convert a date of the filter to a parameter that can be compared with the time column. The date is converted to
+     * the local time of the given time zone and truncated to seconds.
+     *
+     * @param date the date
+     * @param timeZone the time zone of the stored timestamps
+     * @return the parameter
+     */
+    protected Object timeFilterParam(ZonedDateTime date, ZoneId timeZone) {
+        return java.sql.Timestamp
+                .valueOf(date.withZoneSameInstant(timeZone).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Get the query for the filter from the cache or create it with
+     * {@link #histItemFilterQueryProvider(FilterCriteria, int, String, String, ZoneId)}.
+     */
+    protected String cachedHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName, ZoneId timeZone) {
+        List<Object> key = List.of("select", table, simpleName, numberDecimalcount, filter.getOrdering(),
+                filter.getBeginDate() != null, filter.getEndDate() != null, filter.getPageNumber(),
+                filter.getPageSize());
+        return cachedSql(key,
+                () -> histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName, timeZone));
+    }
+
+    /**
+     * Replace the placeholders of a SQL template. The result is cached, so the template is only processed once for
+     * the same values.
+     *
+     * @param template the SQL template
+     * @param keys the placeholders
+     * @param values the replacements
+     * @return the SQL statement
+     */
+    protected String cachedSql(String template, String[] keys, String[] values) {
+        return cachedSql(List.of(template, Arrays.asList(values)),
+                () -> StringUtilsExt.replaceArrayMerge(template, keys, values));
+    }
+
+    /**
+     * Get a SQL statement from the cache or create and cache it. The key needs to contain everything the statement
+     * depends on.
+     *
+     * @param key the key
+     * @param provider the provider for creating the statement
+     * @return the SQL statement
+     */
+    protected String cachedSql(List<Object> key, Supplier<String> provider) {
+        String sql = sqlCache.get(key);
+        if (sql == null) {
+            if (sqlCache.size() >= SQL_CACHE_MAX_SIZE) {
+                // a very large number of tables or query shapes, start over instead of growing without limit
+                sqlCache.clear();
+            }
+            sql = provider.get();
+            sqlCache.put(key, sql);
+        }
+        return sql;
     }
 
     private String updateItemTableNamesProvider(ItemVO itemTable) {
@@ -559,6 +766,29 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Get the SQL statement for storing a value with a given timestamp. The first parameter of the statement is the
+     * timestamp.
+     *
+     * @param storedVO the value as returned by {@link #storeItemValueProvider(Item, State, ItemVO)}
+     * @return the SQL statement
+     */
+    protected String storeItemValueWithDateQueryProvider(ItemVO storedVO) {
+        return cachedSql(sqlInsertItemValue, new String[] { "#tableName#", "#tablePrimaryValue#" },
+                new String[] { storedVO.getTableName(), "?" });
+    }
+
+    /**
+     * Get the parameters for the statement returned by {@link #storeItemValueWithDateQueryProvider(ItemVO)}.
+     *
+     * @param timestamp the timestamp of the value
+     * @param storedVO the value as returned by {@link #storeItemValueProvider(Item, State, ItemVO)}
+     * @return the parameters
+     */
+    protected Object[] storeItemValueWithDateParamsProvider(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestamp, storedVO.getValue(), storedVO.getValue() };
+    }
+
     protected ItemVO storeItemValueProvider(Item item, State itemState, ItemVO vo) {
         String itemType = getItemType(item);
 
@@ -657,6 +887,15 @@ public class JdbcBaseDAO {
     /*****************
      * H E L P E R S *
      *****************/
+    protected List<HistoricItem> rowsAsHistoricItems(Item item, List<Object[]> rows) {
+        // we already retrieve the unit here once as it is a very costly operation
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        return rows.stream()
+                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsZonedDateTime(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
     protected State objectAsState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v) {
         logger.debug(
                 "JDBC::ItemResultHandler::handleResult getState value = '{}', unit = '{}', getClass = '{}', clazz = '{}'",
@@ -13,7 +13,6 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -33,6 +32,7 @@ import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
@@ -181,8 +181,7 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
     @Override
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+        String sql = cachedSql(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName().toUpperCase(), storedVO.getDbType(),
                         sqlTypes.get("tablePrimaryValue") });
         Object[] params = { storedVO.getValue() };
@@ -195,28 +194,24 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
     }
 
     @Override
-    public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
-        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+    protected String storeItemValueWithDateQueryProvider(ItemVO storedVO) {
+        return cachedSql(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName().toUpperCase(), storedVO.getDbType(), "?" });
-        java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
-        try {
-            Yank.execute(sql, params);
-        } catch (YankSQLException e) {
-            throw new JdbcSQLException(e);
-        }
+    }
+
+    @Override
+    protected Object[] storeItemValueWithDateParamsProvider(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestamp, storedVO.getValue() };
     }
 
     @Override
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
+        String sql = cachedHistItemFilterQuery(filter, numberDecimalcount, table, name, timeZone);
+        Object[] params = resolveTimeFilterParams(filter, timeZone);
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -234,6 +229,18 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected String histItemFilterAggregateQueryProvider(FilterCriteria filter, JdbcAggregation.Function function,
+            long bucketSeconds, String table, ZoneId timeZone) {
+        return super.histItemFilterAggregateQueryProvider(filter, function, bucketSeconds, table.toUpperCase(),
+                timeZone);
+    }
+
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "{fn TIMESTAMPDIFF(SQL_TSI_SECOND, TIMESTAMP('1970-01-01 00:00:00'), time)} / " + bucketSeconds;
+    }
+
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -241,17 +248,7 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 StringUtilsExt.filterToString(filter), numberDecimalcount, table, simpleName);
 
-        String filterString = "";
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
-        }
+        String filterString = resolveTimeFilter(filter, timeZone);
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != 0x7fffffff) {
             // TODO: TESTING!!!
@@ -226,24 +226,25 @@ public class JdbcOracleDAO extends JdbcBaseDAO {
     }
 
     @Override
-    public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
-        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#" },
+    protected String storeItemValueWithDateQueryProvider(ItemVO storedVO) {
+        return cachedSql(sqlInsertItemValue, new String[] { "#tableName#", "#dbType#" },
                 new String[] { storedVO.getTableName(), storedVO.getDbType() });
-        java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
-        try {
-            Yank.execute(sql, params);
-        } catch (YankSQLException e) {
-            throw new JdbcSQLException(e);
-        }
+    }
+
+    @Override
+    protected Object[] storeItemValueWithDateParamsProvider(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestamp, storedVO.getValue() };
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR((CAST(time AS DATE) - DATE '1970-01-01') * 86400 / " + bucketSeconds + ")";
+    }
+
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -269,24 +270,6 @@ public class JdbcOracleDAO extends JdbcBaseDAO {
         return queryString;
     }
 
-    @Override
-    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
-        String filterString = "";
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>=TO_TIMESTAMP('" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone))
-                    + "', 'YYYY-MM-dd HH24:MI:SS')";
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<=TO_TIMESTAMP('" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone))
-                    + "', 'YYYY-MM-dd HH24:MI:SS')";
-        }
-        return filterString;
-    }
-
     @Override
     protected ZonedDateTime objectAsZonedDateTime(Object v) {
         if (v instanceof TIMESTAMP objectAsOracleTimestamp) {
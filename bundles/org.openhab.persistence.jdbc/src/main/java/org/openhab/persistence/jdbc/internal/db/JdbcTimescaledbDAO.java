@@ -46,6 +46,11 @@ public class JdbcTimescaledbDAO extends JdbcPostgresqlDAO {
         return properties;
     }
 
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "time_bucket(INTERVAL '" + bucketSeconds + " seconds', time)";
+    }
+
     @Override
     public void doCreateItemTable(ItemVO vo) throws JdbcSQLException {
         super.doCreateItemTable(vo);
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.dto;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Represents a downsampling of a query: the values are grouped into time buckets of a fixed width and each bucket
+ * is reduced to a single value by the database.
+ *
+ * @param bucket the width of a bucket, at least one second
+ * @param function the function used to reduce the values of a bucket
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public record JdbcAggregation(Duration bucket, Function function) {
+
+    public enum Function {
+        AVG,
+        MIN,
+        MAX,
+        LAST
+    }
+
+    public JdbcAggregation {
+        if (bucket.getSeconds() < 1) {
+            throw new IllegalArgumentException("Bucket width must be at least one second");
+        }
+    }
+
+    /**
+     * Get the width of a bucket in (whole) seconds
+     */
+    public long getBucketSeconds() {
+        return bucket.getSeconds();
+    }
+}
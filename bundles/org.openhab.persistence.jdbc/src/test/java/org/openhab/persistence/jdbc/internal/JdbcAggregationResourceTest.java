@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.dto.ItemHistoryDTO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+
+/**
+ * Tests the {@link JdbcAggregationResource}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcAggregationResourceTest {
+
+    private static final ZonedDateTime BEGIN = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    private static final ZonedDateTime END = ZonedDateTime.parse("2024-01-02T00:00:00Z");
+
+    private final JdbcPersistenceService persistenceService = mock(JdbcPersistenceService.class);
+    private final JdbcAggregationResource resource = new JdbcAggregationResource(persistenceService);
+
+    @BeforeEach
+    public void setup() {
+        when(persistenceService.query(any(), any())).thenReturn(List.of(
+                new JdbcHistoricItem("temperature", new DecimalType(20.5), BEGIN),
+                new JdbcHistoricItem("temperature", new DecimalType(21), BEGIN.plusHours(12))));
+    }
+
+    @Test
+    public void testBucketIsPassedToTheDatabase() {
+        ItemHistoryDTO dto = resource.queryAggregatedItemHistory("temperature", BEGIN.toString(), END.toString(),
+                "PT12H", null, "max");
+
+        ArgumentCaptor<FilterCriteria> filter = ArgumentCaptor.forClass(FilterCriteria.class);
+        verify(persistenceService).query(filter.capture(),
+                eq(new JdbcAggregation(Duration.ofHours(12), JdbcAggregation.Function.MAX)));
+        assertEquals("temperature", filter.getValue().getItemName());
+        assertEquals(BEGIN, filter.getValue().getBeginDate());
+        assertEquals(END, filter.getValue().getEndDate());
+        assertEquals(Ordering.ASCENDING, filter.getValue().getOrdering());
+
+        assertEquals("temperature", dto.name);
+        assertEquals("2", dto.datapoints);
+        assertEquals(BEGIN.toInstant().toEpochMilli(), dto.data.get(0).time);
+        assertEquals("20.5", dto.data.get(0).state);
+        assertEquals(BEGIN.plusHours(12).toInstant().toEpochMilli(), dto.data.get(1).time);
+    }
+
+    @Test
+    public void testBucketIsCalculatedFromPoints() {
+        resource.queryAggregatedItemHistory("temperature", BEGIN.toString(), END.toString(), null, 1000, null);
+
+        // one day in at most 1000 buckets
+        verify(persistenceService).query(any(),
+                eq(new JdbcAggregation(Duration.ofSeconds(87), JdbcAggregation.Function.AVG)));
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "null", value = { "yesterday, 2024-01-02T00:00:00Z, PT1H, null, null",
+            "2024-01-02T00:00:00Z, 2024-01-01T00:00:00Z, PT1H, null, null",
+            "2024-01-01T00:00:00Z, 2024-01-02T00:00:00Z, PT0.5S, null, null",
+            "2024-01-01T00:00:00Z, 2024-01-02T00:00:00Z, null, 0, null",
+            "2024-01-01T00:00:00Z, 2024-01-02T00:00:00Z, PT1H, null, median" })
+    public void testInvalidParameters(String startTime, String endTime, @Nullable String bucket,
+            @Nullable Integer points, @Nullable String function) {
+        assertThrows(IllegalArgumentException.class, () -> resource.queryAggregatedItemHistory("temperature",
+                startTime, endTime, bucket, points, function));
+        verify(persistenceService, never()).query(any(), any());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.dto.JdbcItemValue;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+
+/**
+ * Tests the {@link JdbcWriteQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueueTest {
+
+    private static final ZonedDateTime DATE = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    private final NumberItem item = new NumberItem("TestItem");
+    private final List<List<JdbcItemValue>> batches = new ArrayList<>();
+
+    @Test
+    void flushWritesBatchesOfMaximumSize() {
+        JdbcWriteQueue queue = new JdbcWriteQueue((i, values) -> batches.add(List.copyOf(values)), 2, 10);
+        for (int i = 0; i < 5; i++) {
+            queue.add(item, new DecimalType(i), DATE.plusSeconds(i));
+        }
+        assertThat(queue.size(), is(5));
+
+        queue.flush();
+
+        assertThat(queue.size(), is(0));
+        assertThat(batches.size(), is(3));
+        assertThat(batches.get(2), contains(new JdbcItemValue(new DecimalType(4), DATE.plusSeconds(4))));
+        assertThat(queue.getFlushedCount(), is(5L));
+    }
+
+    @Test
+    void flushKeepsLastValueForSameTimestamp() {
+        JdbcWriteQueue queue = new JdbcWriteQueue((i, values) -> batches.add(List.copyOf(values)), 10, 10);
+        queue.add(item, new DecimalType(1), DATE);
+        queue.add(item, new DecimalType(2), DATE);
+
+        queue.flush();
+
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), contains(new JdbcItemValue(new DecimalType(2), DATE)));
+    }
+
+    @Test
+    void addDropsValuesWhenQueueIsFull() {
+        JdbcWriteQueue queue = new JdbcWriteQueue((i, values) -> batches.add(List.copyOf(values)), 10, 2);
+        assertThat(queue.add(item, new DecimalType(1), DATE), is(true));
+        assertThat(queue.add(item, new DecimalType(2), DATE.plusSeconds(1)), is(true));
+        assertThat(queue.add(item, new DecimalType(3), DATE.plusSeconds(2)), is(false));
+
+        assertThat(queue.size(), is(2));
+        assertThat(queue.getQueuedCount(), is(2L));
+        assertThat(queue.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    void failedBatchIsCountedAsDropped() {
+        JdbcWriteQueue queue = new JdbcWriteQueue((i, values) -> {
+            throw new JdbcException("failed");
+        }, 10, 10);
+        queue.add(item, new DecimalType(1), DATE);
+
+        queue.flush();
+
+        assertThat(queue.size(), is(0));
+        assertThat(queue.getDroppedCount(), is(1L));
+    }
+}
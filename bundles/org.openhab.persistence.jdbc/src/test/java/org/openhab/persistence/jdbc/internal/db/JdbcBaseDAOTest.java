@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.Instant;
@@ -23,7 +24,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Objects;
 import java.util.stream.Stream;
 
 import javax.measure.Quantity;
@@ -66,6 +66,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -180,10 +181,8 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "' ORDER BY time DESC"));
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
     }
 
     @Test
@@ -206,10 +205,7 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
-        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "'"));
+        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=?"));
     }
 
     @Test
@@ -223,8 +219,7 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME>='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'"));
+        assertThat(sql, is(" WHERE TIME>=?"));
     }
 
     @Test
@@ -232,8 +227,7 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME<='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        assertThat(sql, is(" WHERE TIME<=?"));
     }
 
     @Test
@@ -242,11 +236,56 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql,
-                is(" WHERE TIME>='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate()))
-                        + "'" //
-                        + " AND TIME<='"
-                        + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        assertThat(sql, is(" WHERE TIME>=? AND TIME<=?"));
+    }
+
+    @Test
+    void testResolveTimeFilterParamsWithNoDatesReturnsEmptyArray() {
+        Object[] params = jdbcBaseDAO.resolveTimeFilterParams(filter, UTC_ZONE_ID);
+        assertThat(params.length, is(0));
+    }
+
+    @Test
+    void testResolveTimeFilterParamsWithStartAndEndDateReturnsLocalTimestampsInTimeZone() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+
+        Object[] params = jdbcBaseDAO.resolveTimeFilterParams(filter, ZoneId.of("Europe/Berlin"));
+        assertThat(params.length, is(2));
+        assertEquals(java.sql.Timestamp.valueOf("2022-01-10 16:01:44"), params[0]);
+        assertEquals(java.sql.Timestamp.valueOf("2022-01-15 16:01:44"), params[1]);
+    }
+
+    @Test
+    void testCachedHistItemFilterQueryIsIndependentOfDates() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql = jdbcBaseDAO.cachedHistItemFilterQuery(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+
+        filter.setBeginDate(parseDateTimeString("2022-01-11T15:01:44"));
+        assertSame(sql, jdbcBaseDAO.cachedHistItemFilterQuery(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID));
+
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+        assertThat(jdbcBaseDAO.cachedHistItemFilterQuery(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID),
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
+    }
+
+    @Test
+    void testHistItemFilterAggregateQueryProviderReturnsGroupedQuery() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.histItemFilterAggregateQueryProvider(filter, JdbcAggregation.Function.AVG, 3600,
+                DB_TABLE_NAME, UTC_ZONE_ID);
+        assertThat(sql, is("SELECT MIN(time), AVG(value) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 3600) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    void testHistItemFilterAggregateQueryProviderForLastSelectsLatestRowOfEachBucket() {
+        String sql = jdbcBaseDAO.histItemFilterAggregateQueryProvider(filter, JdbcAggregation.Function.LAST, 60,
+                DB_TABLE_NAME, UTC_ZONE_ID);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE time IN (SELECT MAX(time) FROM "
+                + DB_TABLE_NAME + " GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60)) ORDER BY 1 DESC"));
     }
 
     private ZonedDateTime parseDateTimeString(String dts) {
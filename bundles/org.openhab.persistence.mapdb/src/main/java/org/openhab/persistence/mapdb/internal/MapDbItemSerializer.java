@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary encoding of a {@link MapDbItem}. The name of the item is not included, it is the key of the map.
+ * <p>
+ * The common state types are encoded with a type tag, so they can be decoded without reflection. All other states
+ * are stored with their class name and full string representation (like the {@link StateTypeAdapter}).
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializer {
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_OTHER = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_PERCENT = 2;
+    private static final byte TYPE_QUANTITY = 3;
+    private static final byte TYPE_ON_OFF = 4;
+    private static final byte TYPE_OPEN_CLOSED = 5;
+    private static final byte TYPE_UP_DOWN = 6;
+    private static final byte TYPE_STRING = 7;
+    private static final byte TYPE_DATE_TIME = 8;
+    private static final byte TYPE_HSB = 9;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapDbItemSerializer.class);
+
+    private MapDbItemSerializer() {
+        // prevent instantiation
+    }
+
+    /**
+     * Encode the state and timestamp of an item
+     *
+     * @param item the item
+     * @return the encoded item
+     */
+    public static byte[] serialize(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // can't happen when writing to a byte array
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode an item
+     *
+     * @param name the name of the item
+     * @param data the encoded item
+     * @return the item or <code>null</code> if it can't be decoded
+     */
+    public static @Nullable MapDbItem deserialize(String name, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                LOGGER.warn("Couldn't deserialize '{}': unknown version {}", name, version);
+                return null;
+            }
+            long timestamp = in.readLong();
+            State state = readState(in);
+            if (state == null) {
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(timestamp));
+            return item;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't deserialize '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        if (state instanceof HSBType) {
+            // check before PercentType, HSBType is a subclass of it
+            out.writeByte(TYPE_HSB);
+            writeString(out, state.toFullString());
+        } else if (state instanceof PercentType percent) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, percent.toBigDecimal());
+        } else if (state instanceof DecimalType decimal && state.getClass() == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, decimal.toBigDecimal());
+        } else if (state instanceof QuantityType<?>) {
+            out.writeByte(TYPE_QUANTITY);
+            writeString(out, state.toFullString());
+        } else if (state instanceof OnOffType) {
+            out.writeByte(TYPE_ON_OFF);
+            out.writeBoolean(state == OnOffType.ON);
+        } else if (state instanceof OpenClosedType) {
+            out.writeByte(TYPE_OPEN_CLOSED);
+            out.writeBoolean(state == OpenClosedType.OPEN);
+        } else if (state instanceof UpDownType) {
+            out.writeByte(TYPE_UP_DOWN);
+            out.writeBoolean(state == UpDownType.UP);
+        } else if (state instanceof StringType) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.toFullString());
+        } else if (state instanceof DateTimeType) {
+            out.writeByte(TYPE_DATE_TIME);
+            writeString(out, state.toFullString());
+        } else {
+            out.writeByte(TYPE_OTHER);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static @Nullable State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_DECIMAL -> new DecimalType(readDecimal(in));
+            case TYPE_PERCENT -> new PercentType(readDecimal(in));
+            case TYPE_QUANTITY -> new QuantityType<>(readString(in));
+            case TYPE_ON_OFF -> OnOffType.from(in.readBoolean());
+            case TYPE_OPEN_CLOSED -> in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TYPE_UP_DOWN -> in.readBoolean() ? UpDownType.UP : UpDownType.DOWN;
+            case TYPE_STRING -> new StringType(readString(in));
+            case TYPE_DATE_TIME -> new DateTimeType(readString(in));
+            case TYPE_HSB -> new HSBType(readString(in));
+            case TYPE_OTHER -> readOtherState(readString(in), readString(in));
+            default -> throw new IOException("unknown state type " + type);
+        };
+    }
+
+    private static @Nullable State readOtherState(String typeName, String value) {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> valueType = (Class<? extends State>) Class.forName(typeName);
+            return TypeParser.parseState(List.of(valueType), value);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            LOGGER.warn("Couldn't deserialize state '{}' of type '{}': {}", value, typeName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readInt()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -24,16 +24,23 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
+import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.persistence.FilterCriteria;
@@ -48,12 +55,19 @@ import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the MapDB {@link PersistenceService}. To learn more about MapDB please visit their
  * <a href="http://www.mapdb.org/">website</a>.
@@ -62,15 +76,25 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, property = Constants.SERVICE_PID
-        + "=org.openhab.mapdb")
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", property = Constants.SERVICE_PID
+                + "=org.openhab.mapdb")
+@ConfigurableService(category = "persistence", label = "MapDB Persistence Service", description_uri = MapDbPersistenceService.CONFIG_URI)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
+    protected static final String CONFIG_URI = "persistence:mapdb";
+    private static final String CONFIG_COMMIT_INTERVAL = "commitInterval";
+    private static final String CONFIG_COMMIT_CHANGES = "commitChanges";
+
     private static final String SERVICE_ID = "mapdb";
     private static final String SERVICE_LABEL = "MapDB";
+    // item states as JSON, only read to migrate old databases and kept to allow a downgrade
+    private static final String LEGACY_STORE_NAME = "itemStore";
+    private static final String STORE_NAME = "itemStates";
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String METRIC_WRITE = "openhab.persistence.write";
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
@@ -81,15 +105,34 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
+
+    /**
+     * holds all stored items, so queries (e.g. restoring all items on startup) don't need to access the database
+     */
+    private final Map<String, MapDbItem> items = new ConcurrentHashMap<>();
+
+    // group commit, commitChanges only limits the changes collected within a commitInterval
+    private int commitInterval = 0;
+    private int commitChanges = 100;
+    private final AtomicInteger uncommittedChanges = new AtomicInteger();
+    private @Nullable ScheduledFuture<?> commitJob;
+
+    private volatile @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Timer writeTimer;
 
     private transient Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
 
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
+        commitInterval = Math.max(0,
+                ConfigParser.valueAsOrElse(config.get(CONFIG_COMMIT_INTERVAL), Integer.class, commitInterval));
+        commitChanges = Math.max(0,
+                ConfigParser.valueAsOrElse(config.get(CONFIG_COMMIT_CHANGES), Integer.class, commitChanges));
+
         try {
             Files.createDirectories(DB_DIR);
         } catch (IOException e) {
@@ -100,8 +143,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
-            db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            openDatabase(dbFile);
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException cnf) {
@@ -132,24 +174,88 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                     return;
                 }
 
-                db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                openDatabase(dbFile);
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
+                return;
             }
         }
+
+        if (commitInterval > 0) {
+            commitJob = ThreadPoolManager.getScheduledPool(SERVICE_ID).scheduleWithFixedDelay(() -> {
+                if (uncommittedChanges.get() > 0) {
+                    commit();
+                }
+            }, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> commitJob = this.commitJob;
+        if (commitJob != null) {
+            commitJob.cancel(false);
+            this.commitJob = null;
+        }
         if (db != null) {
+            if (uncommittedChanges.get() > 0) {
+                commit();
+            }
             db.close();
         }
     }
 
+    private void openDatabase(File dbFile) {
+        db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
+        boolean migrate = !db.exists(STORE_NAME) && db.exists(LEGACY_STORE_NAME);
+        map = db.createTreeMap(STORE_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        if (migrate) {
+            migrateLegacyStore();
+        }
+
+        // read all items at once, this is much faster than reading them one by one when they are restored
+        items.clear();
+        map.forEach((name, data) -> {
+            MapDbItem item = MapDbItemSerializer.deserialize(name, data);
+            if (item != null) {
+                items.put(name, item);
+            }
+        });
+        logger.debug("Loaded {} items from MapDB", items.size());
+    }
+
+    /**
+     * Convert the items stored as JSON by previous versions to the binary format. The old items are kept, so a
+     * downgrade doesn't lose the stored states, but they are not updated anymore.
+     */
+    private void migrateLegacyStore() {
+        Map<String, String> legacyMap = db.getTreeMap(LEGACY_STORE_NAME);
+        int migrated = 0;
+        for (Map.Entry<String, String> entry : legacyMap.entrySet()) {
+            Optional<MapDbItem> item = deserialize(entry.getValue());
+            if (item.isPresent()) {
+                map.put(entry.getKey(), MapDbItemSerializer.serialize(item.get()));
+                migrated++;
+            }
+        }
+        db.commit();
+        logger.info("Migrated {} items to the new MapDB storage format, the old storage is kept for a downgrade",
+                migrated);
+    }
+
+    private synchronized void commit() {
+        uncommittedChanges.set(0);
+        long startNanos = System.nanoTime();
+        db.commit();
+        Timer writeTimer = this.writeTimer;
+        if (writeTimer != null) {
+            writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     @Override
     public String getId() {
         return SERVICE_ID;
@@ -162,8 +268,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        return items.values().stream().collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
     }
 
     @Override
@@ -186,26 +291,24 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
+        items.put(localAlias, mItem);
         threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
-            db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+            // always write the most recent item, so a delayed task can't overwrite a newer state
+            MapDbItem latest = items.getOrDefault(localAlias, mItem);
+            map.put(localAlias, MapDbItemSerializer.serialize(latest));
+            int changes = uncommittedChanges.incrementAndGet();
+            if (commitInterval == 0 || (commitChanges > 0 && changes >= commitChanges)) {
+                commit();
+            }
+            logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, latest.getState());
         });
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
-            return List.of();
-        }
-        Optional<MapDbItem> item = deserialize(json);
-        return item.isPresent() ? List.of(item.get()) : List.of();
-    }
-
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+        String itemName = filter.getItemName();
+        MapDbItem item = itemName != null ? items.get(itemName) : null;
+        return item != null ? List.of(item) : List.of();
     }
 
     @SuppressWarnings("null")
@@ -221,8 +324,23 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        return opt.isPresent() ? Stream.of(opt.get()) : Stream.empty();
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", SERVICE_ID);
+        writeTimer = Timer.builder(METRIC_WRITE).description("Duration of writing the changes to disk").tags(tags)
+                .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        Timer writeTimer = this.writeTimer;
+        this.writeTimer = null;
+        this.meterRegistry = null;
+        if (meterRegistry != null && writeTimer != null) {
+            meterRegistry.remove(writeTimer);
+        }
     }
 
     @Override
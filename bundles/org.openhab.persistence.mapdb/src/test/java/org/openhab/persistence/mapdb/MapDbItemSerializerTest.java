@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.library.unit.Units;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+
+/**
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializerTest {
+    private static final List<State> VALUES = Stream.of(
+            List.of(DecimalType.ZERO, new DecimalType(1.123), new DecimalType(10000000), new DecimalType("-0.5")),
+            List.of(HSBType.BLACK, HSBType.WHITE, HSBType.fromRGB(11, 22, 33)),
+            List.of(OnOffType.ON, OnOffType.OFF, OpenClosedType.OPEN, OpenClosedType.CLOSED, UpDownType.UP,
+                    UpDownType.DOWN),
+            List.of(PercentType.ZERO, PercentType.HUNDRED, PercentType.valueOf("99.999")),
+            List.of(QuantityType.valueOf("1 kW"), new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS),
+                    QuantityType.valueOf(100, Units.METRE_PER_SQUARE_SECOND)),
+            List.of(StringType.valueOf("test"), StringType.valueOf(""), StringType.valueOf("äöü € 1 2 3")),
+            List.of(new PointType("52.5200066,13.4049540"))).flatMap(list -> list.stream())
+            .collect(Collectors.toList());
+
+    @ParameterizedTest
+    @MethodSource
+    public void readWriteRoundtripShouldRecreateTheWrittenState(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1704104130123L));
+
+        MapDbItem actual = Objects
+                .requireNonNull(MapDbItemSerializer.deserialize("item", MapDbItemSerializer.serialize(item)));
+        assertThat(actual.getName(), is("item"));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getState().getClass(), is(equalTo(state.getClass())));
+        assertThat(actual.getTimestamp(), is(item.getTimestamp()));
+    }
+
+    public static Stream<State> readWriteRoundtripShouldRecreateTheWrittenState() {
+        return VALUES.stream();
+    }
+
+    @Test
+    public void invalidDataShouldNotBeDeserialized() {
+        assertThat(MapDbItemSerializer.deserialize("item", new byte[0]), is(nullValue()));
+        assertThat(MapDbItemSerializer.deserialize("item", new byte[] { 42 }), is(nullValue()));
+        assertThat(MapDbItemSerializer.deserialize("item", new byte[] { 1, 0, 0, 0, 0, 0, 0, 0, 0, 99 }),
+                is(nullValue()));
+    }
+}
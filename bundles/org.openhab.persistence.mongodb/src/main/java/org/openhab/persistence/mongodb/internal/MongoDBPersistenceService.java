@@ -17,15 +17,21 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -55,6 +61,7 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.result.DeleteResult;
 
 /**
@@ -70,12 +77,40 @@ import com.mongodb.client.result.DeleteResult;
                 + "=org.openhab.mongodb")
 public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
+    private static final int DEFAULT_BULK_SIZE = 500;
+    // number of queries for which the position of the last returned page is remembered
+    private static final int MAX_PAGE_CURSORS = 100;
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
     private String url = "";
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private int flushInterval = 0;
+    private int bulkSize = DEFAULT_BULK_SIZE;
+
+    // collections for which the index has already been created
+    private final Set<String> preparedCollections = ConcurrentHashMap.newKeySet();
+
+    // documents waiting to be written, by collection name (guarded by itself)
+    private final Map<String, List<Document>> pendingDocuments = new LinkedHashMap<>();
+    private int pendingCount = 0;
+    private final Object flushLock = new Object();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    // position of the last returned page of recent queries, to continue with the next page without skipping
+    private final Map<String, PageCursor> pageCursors = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, PageCursor> eldest) {
+            return size() > MAX_PAGE_CURSORS;
+        }
+    };
+
+    private record PageCursor(int pageNumber, Date timestamp, Object id) {
+    }
 
     private boolean initialized = false;
 
@@ -114,16 +149,31 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        flushInterval = Math.max(0, ConfigParser.valueAsOrElse(config.get("flushInterval"), Integer.class, 0));
+        bulkSize = Math.max(1, ConfigParser.valueAsOrElse(config.get("bulkSize"), Integer.class, DEFAULT_BULK_SIZE));
+        logger.debug("MongoDB flush interval {} ms, bulk size {}", flushInterval, bulkSize);
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
 
+        if (flushInterval > 0) {
+            flushJob = ThreadPoolManager.getScheduledPool(getId()).scheduleWithFixedDelay(this::flush, flushInterval,
+                    flushInterval, TimeUnit.MILLISECONDS);
+        }
+
         initialized = true;
     }
 
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        flush();
         disconnectFromDatabase();
     }
 
@@ -223,9 +273,14 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
             MongoCollection<Document> mongoCollection = db.getDatabase(this.db).getCollection(collectionName);
 
-            Document idx = new Document();
-            idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1);
-            mongoCollection.createIndex(idx);
+            if (!preparedCollections.contains(collectionName)) {
+                // the id is part of the index, because it is used to order documents with the same timestamp
+                Document idx = new Document();
+                idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1)
+                        .append(MongoDBFields.FIELD_ID, 1);
+                mongoCollection.createIndex(idx);
+                preparedCollections.add(collectionName);
+            }
 
             return mongoCollection;
         } catch (Exception e) {
@@ -244,10 +299,14 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         }
 
         cl = null;
+        preparedCollections.clear();
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        // make sure buffered states are included
+        flush();
+
         MongoCollection<Document> collection = prepareCollection(filter);
         // If collection creation failed, return nothing.
         if (collection == null) {
@@ -276,11 +335,28 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
         logger.debug("Query: {}", query);
 
-        Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        int sortDir = ascending ? 1 : -1;
+        int pageNumber = filter.getPageNumber();
+        int pageSize = filter.getPageSize();
+
+        // continue after the last document of the previous page if it is known, skipping is slow for deep pages
+        String cursorKey = collection.getNamespace().getFullName() + ":" + query.toJson() + ":" + sortDir + ":"
+                + pageSize;
+        PageCursor pageCursor = pageNumber > 0 ? getPageCursor(cursorKey) : null;
+        int skip = pageNumber * pageSize;
+        if (pageCursor != null && pageCursor.pageNumber() == pageNumber - 1) {
+            query = new Document("$and", List.of(query, createKeysetQuery(pageCursor, ascending)));
+            skip = 0;
+        }
+
+        @Nullable
+        Document lastDocument = null;
         MongoCursor<Document> cursor = null;
         try {
-            cursor = collection.find(query).sort(new Document(MongoDBFields.FIELD_TIMESTAMP, sortDir))
-                    .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize()).iterator();
+            cursor = collection.find(query)
+                    .sort(new Document(MongoDBFields.FIELD_TIMESTAMP, sortDir).append(MongoDBFields.FIELD_ID, sortDir))
+                    .skip(skip).limit(pageSize).iterator();
 
             while (cursor.hasNext()) {
                 Document obj = cursor.next();
@@ -289,6 +365,7 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
                 items.add(new MongoDBItem(realItemName, state, ZonedDateTime
                         .ofInstant(obj.getDate(MongoDBFields.FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault())));
+                lastDocument = obj;
             }
         } finally {
             if (cursor != null) {
@@ -296,9 +373,33 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             }
         }
 
+        if (lastDocument != null && items.size() == pageSize) {
+            synchronized (pageCursors) {
+                pageCursors.put(cursorKey, new PageCursor(pageNumber,
+                        lastDocument.getDate(MongoDBFields.FIELD_TIMESTAMP), lastDocument.get(MongoDBFields.FIELD_ID)));
+            }
+        }
+
         return items;
     }
 
+    private @Nullable PageCursor getPageCursor(String key) {
+        synchronized (pageCursors) {
+            return pageCursors.get(key);
+        }
+    }
+
+    /**
+     * Creates a query for the documents after the given position (in the order of timestamp and id)
+     */
+    private Document createKeysetQuery(PageCursor pageCursor, boolean ascending) {
+        String op = ascending ? "$gt" : "$lt";
+        return new Document("$or",
+                List.of(new Document(MongoDBFields.FIELD_TIMESTAMP, new Document(op, pageCursor.timestamp())),
+                        new Document(MongoDBFields.FIELD_TIMESTAMP, pageCursor.timestamp())
+                                .append(MongoDBFields.FIELD_ID, new Document(op, pageCursor.id()))));
+    }
+
     private @Nullable Item getItem(String itemName) {
         try {
             return itemRegistry.getItem(itemName);
@@ -346,6 +447,34 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
+        String realItemName = item.getName();
+        String collectionName = collectionPerItem ? realItemName : this.collection;
+        String name = (alias != null) ? alias : realItemName;
+        Object value = MongoDBTypeConversions.convertValue(state);
+
+        Document obj = new Document();
+        obj.put(MongoDBFields.FIELD_ID, new ObjectId());
+        obj.put(MongoDBFields.FIELD_ITEM, name);
+        obj.put(MongoDBFields.FIELD_REALNAME, realItemName);
+        obj.put(MongoDBFields.FIELD_TIMESTAMP, date);
+        obj.put(MongoDBFields.FIELD_VALUE, value);
+        if (item instanceof NumberItem && state instanceof QuantityType<?>) {
+            obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
+        }
+
+        if (flushInterval > 0) {
+            int count;
+            synchronized (pendingDocuments) {
+                pendingDocuments.computeIfAbsent(collectionName, k -> new ArrayList<>()).add(obj);
+                count = ++pendingCount;
+            }
+            logger.debug("MongoDB buffered {}={}", name, value);
+            if (count >= bulkSize) {
+                flush();
+            }
+            return;
+        }
+
         // Connect to mongodb server if we're not already connected
         // If we can't connect, log.
         if (!tryConnectToDatabase()) {
@@ -355,9 +484,6 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String realItemName = item.getName();
-        String collectionName = collectionPerItem ? realItemName : this.collection;
-
         @Nullable
         MongoCollection<Document> collection = connectToCollection(collectionName);
 
@@ -366,18 +492,6 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String name = (alias != null) ? alias : realItemName;
-        Object value = MongoDBTypeConversions.convertValue(state);
-
-        Document obj = new Document();
-        obj.put(MongoDBFields.FIELD_ID, new ObjectId());
-        obj.put(MongoDBFields.FIELD_ITEM, name);
-        obj.put(MongoDBFields.FIELD_REALNAME, realItemName);
-        obj.put(MongoDBFields.FIELD_TIMESTAMP, date);
-        obj.put(MongoDBFields.FIELD_VALUE, value);
-        if (item instanceof NumberItem && state instanceof QuantityType<?>) {
-            obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
-        }
         try {
             collection.insertOne(obj);
         } catch (org.bson.BsonMaximumSizeExceededException e) {
@@ -387,6 +501,45 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         logger.debug("MongoDB save {}={}", name, value);
     }
 
+    /**
+     * Writes all buffered documents with one ordered bulk insert per collection
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            Map<String, List<Document>> documents;
+            synchronized (pendingDocuments) {
+                if (pendingDocuments.isEmpty()) {
+                    return;
+                }
+                documents = new LinkedHashMap<>(pendingDocuments);
+                pendingDocuments.clear();
+                pendingCount = 0;
+            }
+
+            if (!tryConnectToDatabase()) {
+                logger.warn("mongodb: No connection to database. Cannot persist {} buffered states!",
+                        documents.values().stream().mapToInt(List::size).sum());
+                return;
+            }
+
+            InsertManyOptions options = new InsertManyOptions().ordered(true);
+            documents.forEach((collectionName, collectionDocuments) -> {
+                MongoCollection<Document> collection = connectToCollection(collectionName);
+                if (collection == null) {
+                    // Logging is done in connectToCollection()
+                    return;
+                }
+                try {
+                    collection.insertMany(collectionDocuments, options);
+                    logger.debug("MongoDB saved {} documents to {}", collectionDocuments.size(), collectionName);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to save {} documents to {}: {}", collectionDocuments.size(), collectionName,
+                            e.getMessage());
+                }
+            });
+        }
+    }
+
     @Nullable
     public MongoCollection<Document> prepareCollection(FilterCriteria filter) {
         if (!initialized || !tryConnectToDatabase()) {
@@ -467,6 +620,8 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
     @Override
     public boolean remove(FilterCriteria filter) {
+        flush();
+
         MongoCollection<Document> collection = prepareCollection(filter);
         // If collection creation failed, return nothing.
         if (collection == null) {
@@ -482,6 +637,9 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         logger.debug("Query: {}", query);
 
         DeleteResult result = collection.deleteMany(query);
+        synchronized (pageCursors) {
+            pageCursors.clear();
+        }
 
         logger.debug("Deleted {} documents", result.getDeletedCount());
         return true;
@@ -989,4 +989,94 @@ public class MongoDBPersistenceServiceTest {
             dbContainer.stop();
         }
     }
+
+    /*
+     * Test that all pages of a query are returned in order, also if several values have the same timestamp
+     */
+    @Test
+    public void testQueryPages() {
+        // Preparation
+        DatabaseTestContainer dbContainer = new DatabaseTestContainer(new MemoryBackend());
+        try {
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testcollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            try {
+                Mockito.when(setupResult.itemRegistry.getItem("TestItem"))
+                        .thenReturn(DataCreationHelper.createNumberItem("TestItem", 0));
+            } catch (ItemNotFoundException e) {
+            }
+
+            service.activate(setupResult.bundleContext, setupResult.config);
+
+            // three values per timestamp, so pages end in the middle of a timestamp
+            ZonedDateTime start = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            NumberItem item = DataCreationHelper.createNumberItem("TestItem", 0);
+            for (int i = 0; i < 25; i++) {
+                service.store(item, start.plusSeconds(i / 3), new DecimalType(i));
+            }
+
+            // Execution
+            FilterCriteria filter = DataCreationHelper.createFilterCriteria("TestItem");
+            List<Iterable<HistoricItem>> pages = new ArrayList<>();
+            for (int page = 0; page < 3; page++) {
+                filter.setPageNumber(page);
+                pages.add(service.query(filter));
+            }
+
+            // Verification
+            VerificationHelper.verifyQueryResult(pages.get(0), 0, 1, 10);
+            VerificationHelper.verifyQueryResult(pages.get(1), 10, 1, 10);
+            VerificationHelper.verifyQueryResult(pages.get(2), 20, 1, 5);
+
+            // a page requested without the previous one is the same
+            filter.setPageNumber(1);
+            VerificationHelper.verifyQueryResult(service.query(filter), 10, 1, 10);
+        } finally {
+            dbContainer.stop();
+        }
+    }
+
+    /*
+     * Test that states are buffered with a flush interval and included in queries
+     */
+    @Test
+    public void testStoreBuffered() {
+        // Preparation
+        DatabaseTestContainer dbContainer = new DatabaseTestContainer(new MemoryBackend());
+        try {
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testcollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            MongoDatabase database = setupResult.database;
+            try {
+                Mockito.when(setupResult.itemRegistry.getItem("TestItem"))
+                        .thenReturn(DataCreationHelper.createNumberItem("TestItem", 0));
+            } catch (ItemNotFoundException e) {
+            }
+
+            Map<String, Object> config = setupResult.config;
+            config.put("flushInterval", 3600000);
+            config.put("bulkSize", 5);
+            service.activate(setupResult.bundleContext, config);
+            MongoCollection<Document> collection = database.getCollection("testcollection");
+
+            // Execution
+            for (int i = 0; i < 7; i++) {
+                service.store(DataCreationHelper.createNumberItem("TestItem", i));
+            }
+
+            // Verification
+            // the first five states are written when the bulk size is reached, the others are buffered
+            assertEquals(5, collection.countDocuments());
+
+            VerificationHelper.verifyQueryResult(service.query(DataCreationHelper.createFilterCriteria("TestItem")), 0,
+                    1, 7);
+            assertEquals(7, collection.countDocuments());
+
+            service.store(DataCreationHelper.createNumberItem("TestItem", 7));
+            service.deactivate(1);
+            assertEquals(8, collection.countDocuments());
+        } finally {
+            dbContainer.stop();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RRD4jDatabaseCache} keeps the most recently used databases open.
+ * <p>
+ * Databases are opened through the {@link org.rrd4j.core.RrdDbPool}, which counts the references to each file and
+ * closes it when the last reference is released. The cache holds one additional reference for each hot database, so
+ * requesting it again from the pool does not need to re-open the file. When the cache is full, the least recently used
+ * reference is released. References held by other users stay valid, so a database can be evicted while it is used.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDatabaseCache {
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDatabaseCache.class);
+
+    private final int maxSize;
+
+    // guarded by this, in access order
+    private final Map<String, RrdDb> databases = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RRD4jDatabaseCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Mark a database as recently used. If it is not cached yet, an additional reference is requested with the
+     * given function and kept until the database is evicted.
+     *
+     * @param name the name of the database
+     * @param opener a function that returns a new reference to the database (or <code>null</code> on failure)
+     */
+    public void touch(String name, Function<String, @Nullable RrdDb> opener) {
+        synchronized (this) {
+            if (databases.get(name) != null) {
+                return;
+            }
+        }
+        RrdDb db = opener.apply(name);
+        if (db == null) {
+            return;
+        }
+        List<RrdDb> evicted = new ArrayList<>();
+        synchronized (this) {
+            RrdDb existing = databases.putIfAbsent(name, db);
+            if (existing != null) {
+                // added concurrently
+                evicted.add(db);
+            }
+            Iterator<RrdDb> iterator = databases.values().iterator();
+            while (databases.size() > maxSize && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(this::release);
+    }
+
+    /**
+     * Release the cached reference of a database (e.g. before the file is deleted)
+     *
+     * @param name the name of the database
+     */
+    public void invalidate(String name) {
+        RrdDb db;
+        synchronized (this) {
+            db = databases.remove(name);
+        }
+        if (db != null) {
+            release(db);
+        }
+    }
+
+    /**
+     * Release all cached references
+     */
+    public void clear() {
+        List<RrdDb> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(databases.values());
+            databases.clear();
+        }
+        evicted.forEach(this::release);
+    }
+
+    /**
+     * Get the number of cached databases
+     */
+    public synchronized int size() {
+        return databases.size();
+    }
+
+    private void release(RrdDb db) {
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        }
+    }
+}
@@ -22,13 +22,16 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -45,6 +48,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -78,18 +82,27 @@ import org.osgi.service.component.annotations.ConfigurationPolicy;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdNioBackendFactory;
+import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This is the implementation of the RRD4j {@link PersistenceService}. To learn
  * more about RRD4j please visit their
@@ -116,6 +129,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     public static final String SERVICE_ID = "rrd4j";
 
+    private static final String METRIC_WRITE = "openhab.persistence.write";
+    private static final String METRIC_QUERY = "openhab.persistence.query";
+
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
@@ -123,15 +139,34 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
+    private record Point(long timestamp, double value) {
+    }
+
+    private static final int WRITER_THREADS = 4;
+    // number of databases that are kept open between writes, the pool needs additional capacity for other users
+    private static final int MAX_OPEN_DATABASES = 500;
+    private static final int POOL_CAPACITY = MAX_OPEN_DATABASES + 200;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory("RRD4j"));
 
+    private final ExecutorService writeExecutor = Executors.newFixedThreadPool(WRITER_THREADS,
+            new NamedThreadFactory("RRD4j-writer"));
+
+    private final RRD4jDatabaseCache databaseCache = new RRD4jDatabaseCache(MAX_OPEN_DATABASES);
+
     private final Map<String, RrdDefConfig> rrdDefs = new ConcurrentHashMap<>();
 
+    // backend factories by backend and sync period, shared by all definitions with the same settings
+    private final Map<String, RrdBackendFactory> backendFactories = new ConcurrentHashMap<>();
+
     private final ConcurrentSkipListMap<Key, Double> storageMap = new ConcurrentSkipListMap<>(Key::compareTo);
 
     private static final String DATASOURCE_STATE = "state";
 
+    private static final String BACKEND_FILE = "FILE";
+    private static final String BACKEND_NIO = "NIO";
+
     private static final Path DB_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "rrd4j").toAbsolutePath();
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
@@ -140,6 +175,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private final ItemRegistry itemRegistry;
     private boolean active = false;
 
+    private volatile @Nullable MeterRegistry meterRegistry;
+    private volatile @Nullable Timer writeTimer;
+    private volatile @Nullable Timer queryTimer;
+
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
     }
@@ -153,6 +192,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     @Activate
     public RRD4jPersistenceService(final @Reference ItemRegistry itemRegistry, Map<String, Object> config) {
         this.itemRegistry = itemRegistry;
+        DATABASE_POOL.setCapacity(POOL_CAPACITY);
         storeJob = scheduler.scheduleWithFixedDelay(() -> doStore(false), 1, 1, TimeUnit.SECONDS);
         modified(config);
         active = true;
@@ -247,6 +287,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                         rrdDef.addArchives(value);
                     } else if ("items".equals(property)) {
                         rrdDef.addItems(value);
+                    } else if ("backend".equals(property)) {
+                        rrdDef.setBackend(value);
+                    } else if ("syncperiod".equals(property)) {
+                        rrdDef.setSyncPeriod(value);
                     } else {
                         logger.debug("Unknown property {} : {}", property, value);
                     }
@@ -273,6 +317,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+
+        writeExecutor.shutdown();
+        databaseCache.clear();
     }
 
     @Override
@@ -340,20 +387,60 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private void doStore(boolean force) {
         long now = System.currentTimeMillis() / 1000;
+        // group the pending values by database, the values of each database are in ascending order
+        Map<String, List<Point>> pending = new LinkedHashMap<>();
         while (!storageMap.isEmpty()) {
             Key key = storageMap.firstKey();
             if (now > key.timestamp || force) {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
                 Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+                pending.computeIfAbsent(key.name, k -> new ArrayList<>()).add(new Point(key.timestamp, value));
             } else {
-                return;
+                break;
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        // each database is assigned to exactly one task, so the values of a database are written in order
+        List<List<String>> partitions = new ArrayList<>();
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (String name : pending.keySet()) {
+            partitions.get(Math.floorMod(name.hashCode(), WRITER_THREADS)).add(name);
+        }
+        List<Callable<@Nullable Void>> tasks = new ArrayList<>();
+        for (List<String> names : partitions) {
+            if (!names.isEmpty()) {
+                tasks.add(() -> {
+                    names.forEach(name -> writePointsToDatabase(name, pending.get(name)));
+                    return null;
+                });
             }
         }
+        try {
+            // wait for all tasks, so values of the next run can't overtake them
+            writeExecutor.invokeAll(tasks);
+        } catch (RejectedExecutionException e) {
+            // the executor is shut down, write the remaining values in this thread
+            pending.forEach(this::writePointsToDatabase);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Timer writeTimer = this.writeTimer;
+        if (writeTimer != null) {
+            writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
+    private void writePointsToDatabase(String name, @Nullable List<Point> points) {
+        if (points == null) {
+            return;
+        }
         RrdDb db = null;
         try {
             db = getDB(name, true);
@@ -363,7 +450,19 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         if (db == null) {
             return;
         }
+        databaseCache.touch(name, n -> getDB(n, false));
 
+        for (Point point : points) {
+            writePointToDatabase(db, name, point.value(), point.timestamp());
+        }
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        }
+    }
+
+    private void writePointToDatabase(RrdDb db, String name, double value, long timestamp) {
         ConsolFun function = getConsolidationFunction(db);
         if (function != ConsolFun.AVERAGE) {
             try {
@@ -398,11 +497,6 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (Exception e) {
             logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
-        try {
-            db.close();
-        } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
-        }
     }
 
     @Override
@@ -498,7 +592,12 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             }
 
             FetchRequest request = db.createFetchRequest(getConsolidationFunction(db), start, end, 1);
+            long startNanos = System.nanoTime();
             FetchData result = request.fetchData();
+            Timer queryTimer = this.queryTimer;
+            if (queryTimer != null) {
+                queryTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
 
             List<HistoricItem> items = new ArrayList<>();
             long ts = result.getFirstTimestamp();
@@ -542,12 +641,17 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+    protected @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
         RrdDb db = null;
         Path path = getDatabasePath(alias);
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(DATABASE_POOL);
+            RrdDefConfig rrdDefConfig = getRrdDefConfig(alias);
+            RrdBackendFactory backendFactory = rrdDefConfig != null ? getBackendFactory(rrdDefConfig) : null;
+            if (backendFactory != null) {
+                builder.setBackendFactory(backendFactory);
+            }
 
             if (Files.exists(path)) {
                 // recreate the RrdDb instance from the file
@@ -557,7 +661,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 if (!Files.exists(DB_FOLDER)) {
                     Files.createDirectories(DB_FOLDER);
                 }
-                RrdDef rrdDef = getRrdDef(alias, path);
+                RrdDef rrdDef = rrdDefConfig != null ? getRrdDef(rrdDefConfig, path) : null;
                 if (rrdDef != null) {
                     // create a new database file
                     builder.setRrdDef(rrdDef);
@@ -608,19 +712,34 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return useRdc;
     }
 
-    private @Nullable RrdDef getRrdDef(String itemName, Path path) {
+    private RrdDef getRrdDef(RrdDefConfig useRdc, Path path) {
         RrdDef rrdDef = new RrdDef(path.toString());
-        RrdDefConfig useRdc = getRrdDefConfig(itemName);
-        if (useRdc != null) {
-            rrdDef.setStep(useRdc.step);
-            rrdDef.setStartTime(System.currentTimeMillis() / 1000 - useRdc.step);
-            rrdDef.addDatasource(DATASOURCE_STATE, useRdc.dsType, useRdc.heartbeat, useRdc.min, useRdc.max);
-            for (RrdArchiveDef rad : useRdc.archives) {
-                rrdDef.addArchive(rad.fcn, rad.xff, rad.steps, rad.rows);
-            }
-            return rrdDef;
-        } else {
+        rrdDef.setStep(useRdc.step);
+        rrdDef.setStartTime(System.currentTimeMillis() / 1000 - useRdc.step);
+        rrdDef.addDatasource(DATASOURCE_STATE, useRdc.dsType, useRdc.heartbeat, useRdc.min, useRdc.max);
+        for (RrdArchiveDef rad : useRdc.archives) {
+            rrdDef.addArchive(rad.fcn, rad.xff, rad.steps, rad.rows);
+        }
+        return rrdDef;
+    }
+
+    /**
+     * Get the backend factory for a rrd definition
+     *
+     * @param rrdDefConfig the rrd definition
+     * @return the backend factory or <code>null</code> if the default backend of rrd4j should be used
+     */
+    private @Nullable RrdBackendFactory getBackendFactory(RrdDefConfig rrdDefConfig) {
+        String backend = rrdDefConfig.backend;
+        if (backend == null) {
             return null;
+        } else if (BACKEND_FILE.equals(backend)) {
+            return backendFactories.computeIfAbsent(backend, k -> new RrdRandomAccessFileBackendFactory());
+        } else {
+            // memory-mapped files, modified pages are written to disk at least every sync period
+            int syncPeriod = rrdDefConfig.syncPeriod;
+            return backendFactories.computeIfAbsent(backend + ":" + syncPeriod,
+                    k -> new RrdNioBackendFactory(syncPeriod, scheduler));
         }
     }
 
@@ -666,6 +785,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return SUPPORTED_TYPES.contains(ItemUtil.getMainItemType(item.getType()));
     }
 
+    /**
+     * Close the cached handle of a database, e.g. before the file is deleted
+     *
+     * @param name the name of the database
+     */
+    public void releaseDatabase(String name) {
+        databaseCache.invalidate(name);
+    }
+
     public List<String> getRrdFiles() {
         try (Stream<Path> stream = Files.list(DB_FOLDER)) {
             return stream.filter(file -> !Files.isDirectory(file) && file.toFile().getName().endsWith(".rrd"))
@@ -697,6 +825,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         public double min, max;
         public List<RrdArchiveDef> archives;
         public List<String> itemNames;
+        public @Nullable String backend;
+        public int syncPeriod = RrdNioBackendFactory.DEFAULT_SYNC_PERIOD;
 
         private boolean isInitialized;
 
@@ -779,6 +909,28 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             }
         }
 
+        public void setBackend(String backendString) {
+            String value = backendString.trim().toUpperCase();
+            if (BACKEND_FILE.equals(value) || BACKEND_NIO.equals(value)) {
+                backend = value;
+            } else {
+                logger.warn("{}: backend {} not supported", name, backendString);
+            }
+        }
+
+        public void setSyncPeriod(String syncPeriodString) {
+            int value = Integer.parseInt(syncPeriodString.trim());
+            if (value > 0) {
+                syncPeriod = value;
+                if (backend == null) {
+                    // a sync period only makes sense for memory-mapped files
+                    backend = BACKEND_NIO;
+                }
+            } else {
+                logger.warn("{}: sync period must be positive, got {}", name, syncPeriodString);
+            }
+        }
+
         public void addItems(String itemsString) {
             Collections.addAll(itemNames, itemsString.split(","));
         }
@@ -799,6 +951,12 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             sb.append(" heartbeat = ").append(heartbeat);
             sb.append(" min/max = ").append(min).append("/").append(max);
             sb.append(" step = ").append(step);
+            if (backend != null) {
+                sb.append(" backend = ").append(backend);
+                if (BACKEND_NIO.equals(backend)) {
+                    sb.append(" sync period = ").append(syncPeriod);
+                }
+            }
             sb.append(" ").append(archives.size()).append(" archives(s) = [");
             for (RrdArchiveDef arc : archives) {
                 sb.append(arc.toString());
@@ -813,6 +971,30 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public synchronized void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", SERVICE_ID);
+        writeTimer = Timer.builder(METRIC_WRITE).description("Duration of writing the values of one second")
+                .tags(tags).register(meterRegistry);
+        queryTimer = Timer.builder(METRIC_QUERY).description("Duration of reading the values of a query")
+                .tags(tags).register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        Timer writeTimer = this.writeTimer;
+        Timer queryTimer = this.queryTimer;
+        this.writeTimer = null;
+        this.queryTimer = null;
+        this.meterRegistry = null;
+        if (meterRegistry != null && writeTimer != null && queryTimer != null) {
+            meterRegistry.remove(writeTimer);
+            meterRegistry.remove(queryTimer);
+        }
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.RESTORE, PersistenceStrategy.Globals.CHANGE,
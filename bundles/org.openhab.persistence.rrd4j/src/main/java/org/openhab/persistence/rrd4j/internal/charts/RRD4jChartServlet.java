@@ -248,6 +248,9 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         graphDef.setAntiAliasing(true);
         graphDef.setImageFormat("PNG");
         graphDef.setTextAntiAliasing(true);
+        // read through the pool, so databases that are already open are not opened again
+        graphDef.setPoolUsed(true);
+        graphDef.setPool(RRD4jPersistenceService.getDatabasePool());
         graphDef.setFont(FontTag.TITLE, new Font("SansSerif", Font.PLAIN, 15));
         graphDef.setFont(FontTag.DEFAULT, new Font("SansSerif", Font.PLAIN, 11));
 
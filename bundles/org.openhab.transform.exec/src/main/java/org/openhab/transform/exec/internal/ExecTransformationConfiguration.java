@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ExecTransformationConfiguration} is the configuration of the {@link ExecTransformationService}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecTransformationConfiguration {
+    /**
+     * Number of processes started for each worker command
+     */
+    public int workerPoolSize = 1;
+
+    /**
+     * Time in seconds a worker process has to answer a request before it is restarted
+     */
+    public int workerTimeout = 5;
+}
@@ -13,15 +13,21 @@
 package org.openhab.transform.exec.internal;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.config.core.Configuration;
 import org.openhab.core.io.net.exec.ExecUtil;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,16 +40,41 @@ import org.slf4j.LoggerFactory;
  * @author Jan N. Klug - added command whitelist service
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=EXEC" })
+@Component(configurationPid = "transform.exec", property = { "openhab.transform=EXEC",
+        Constants.SERVICE_PID + "=transform.exec" })
+@ConfigurableService(category = "system", label = "Exec Transformation", description_uri = "transform:exec")
 public class ExecTransformationService implements TransformationService {
     private static final Pattern SPLIT_ON_SPACE = Pattern.compile("(['])((?:\\\\\\1|.)+?)\\1|([^\\s']+)");
+    /** Command lines starting with this prefix are run as persistent worker */
+    private static final String WORKER_PREFIX = "worker:";
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
     private final ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService;
+    private volatile ExecTransformationWorkerPool workerPool;
 
     @Activate
     public ExecTransformationService(
-            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService) {
+            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService,
+            @Nullable Map<String, Object> properties) {
         this.execTransformationWhitelistWatchService = execTransformationWhitelistWatchService;
+        this.workerPool = createWorkerPool(properties);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> properties) {
+        ExecTransformationWorkerPool oldWorkerPool = workerPool;
+        workerPool = createWorkerPool(properties);
+        oldWorkerPool.dispose();
+    }
+
+    @Deactivate
+    public void deactivate() {
+        workerPool.dispose();
+    }
+
+    private ExecTransformationWorkerPool createWorkerPool(@Nullable Map<String, Object> properties) {
+        ExecTransformationConfiguration config = new Configuration(properties)
+                .as(ExecTransformationConfiguration.class);
+        return new ExecTransformationWorkerPool(config.workerPoolSize, Duration.ofSeconds(config.workerTimeout));
     }
 
     /**
@@ -65,14 +96,22 @@ public class ExecTransformationService implements TransformationService {
         }
         logger.debug("about to transform '{}' by the commandline '{}'", source, commandLine);
 
+        if (commandLine.startsWith(WORKER_PREFIX)) {
+            return workerPool.process(splitCommandLine(commandLine.substring(WORKER_PREFIX.length())), source);
+        }
+
         long startTime = System.currentTimeMillis();
 
         String formattedCommandLine = String.format(commandLine, source);
-        String[] cmdLineParts = SPLIT_ON_SPACE.matcher(formattedCommandLine).results()
-                .map(mr -> mr.group(2) == null ? mr.group() : mr.group(2)).toArray(String[]::new);
+        String[] cmdLineParts = splitCommandLine(formattedCommandLine);
         String result = ExecUtil.executeCommandLineAndWaitResponse(Duration.ofSeconds(5), cmdLineParts);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
     }
+
+    private static String[] splitCommandLine(String commandLine) {
+        return SPLIT_ON_SPACE.matcher(commandLine).results()
+                .map(mr -> mr.group(2) == null ? mr.group() : mr.group(2)).toArray(String[]::new);
+    }
 }
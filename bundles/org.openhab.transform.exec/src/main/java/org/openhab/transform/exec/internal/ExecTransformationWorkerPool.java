@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecTransformationWorkerPool} keeps long-running worker processes for exec transformations.
+ *
+ * A worker is started once and then receives one input per line on its standard input, and has to answer each of them
+ * with one line on its standard output. Each command gets a fixed number of workers. A worker that exits, or doesn't
+ * answer in time, is stopped and started again with the next request.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ExecTransformationWorkerPool {
+    private final Logger logger = LoggerFactory.getLogger(ExecTransformationWorkerPool.class);
+
+    private final ThreadFactory threadFactory = new NamedThreadFactory("transform-exec-worker", true);
+    // guarded by this
+    private final Map<String, Slot[]> slotsPerCommand = new HashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final int poolSize;
+    private final Duration timeout;
+    private volatile boolean disposed;
+
+    /**
+     * Create a new pool
+     *
+     * @param poolSize number of worker processes per command
+     * @param timeout time a worker has to answer a request
+     */
+    public ExecTransformationWorkerPool(int poolSize, Duration timeout) {
+        this.poolSize = Math.max(1, poolSize);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Let a worker process an input
+     *
+     * @param cmdLineParts command of the worker and its arguments
+     * @param input input, line breaks are replaced by spaces
+     * @return the answer of the worker
+     * @throws TransformationException if the worker could not be started or didn't answer in time
+     */
+    public String process(String[] cmdLineParts, String input) throws TransformationException {
+        Slot[] slots = getSlots(cmdLineParts);
+        Slot slot = slots[Math.floorMod(nextSlot.getAndIncrement(), slots.length)];
+        return slot.process(input.replaceAll("\\r?\\n|\\r", " "));
+    }
+
+    private synchronized Slot[] getSlots(String[] cmdLineParts) throws TransformationException {
+        if (disposed) {
+            throw new TransformationException("Exec transformation workers have been stopped");
+        }
+        return slotsPerCommand.computeIfAbsent(String.join(" ", cmdLineParts), command -> {
+            Slot[] newSlots = new Slot[poolSize];
+            for (int i = 0; i < poolSize; i++) {
+                newSlots[i] = new Slot(cmdLineParts);
+            }
+            return newSlots;
+        });
+    }
+
+    /**
+     * Stop all worker processes, requests which are being processed are finished first
+     */
+    public void dispose() {
+        List<Slot[]> allSlots;
+        synchronized (this) {
+            disposed = true;
+            allSlots = List.copyOf(slotsPerCommand.values());
+            slotsPerCommand.clear();
+        }
+        allSlots.forEach(slots -> {
+            for (Slot slot : slots) {
+                slot.stop();
+            }
+        });
+    }
+
+    /**
+     * Running worker process
+     */
+    private record Worker(Process process, Writer input, BlockingQueue<Optional<String>> output) {
+    }
+
+    /**
+     * A worker process of a command, requests are processed one after another
+     */
+    private class Slot {
+        private final String[] cmdLineParts;
+        private @Nullable Worker worker;
+
+        Slot(String[] cmdLineParts) {
+            this.cmdLineParts = cmdLineParts;
+        }
+
+        synchronized String process(String input) throws TransformationException {
+            // the slot may have been taken from the pool right before it was disposed
+            if (disposed) {
+                throw new TransformationException("Exec transformation workers have been stopped");
+            }
+            Worker localWorker = worker;
+            if (localWorker == null || !localWorker.process().isAlive()) {
+                localWorker = start();
+            }
+
+            long startTime = System.currentTimeMillis();
+            try {
+                // drop lines the worker wrote on its own, they can't be the answer to this request
+                localWorker.output().removeIf(Optional::isPresent);
+                localWorker.input().write(input);
+                localWorker.input().write('\n');
+                localWorker.input().flush();
+
+                Optional<String> result = localWorker.output().poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    stop();
+                    throw new TransformationException("Worker '" + cmdLineParts[0] + "' didn't answer within "
+                            + timeout.toMillis() + " ms, it is restarted with the next request");
+                } else if (result.isEmpty()) {
+                    stop();
+                    throw new TransformationException(
+                            "Worker '" + cmdLineParts[0] + "' exited, it is restarted with the next request");
+                }
+                logger.trace("worker answered after {} ms", System.currentTimeMillis() - startTime);
+                return result.get();
+            } catch (IOException e) {
+                stop();
+                throw new TransformationException("Failed to send input to worker '" + cmdLineParts[0] + "'", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformationException("Interrupted while waiting for worker '" + cmdLineParts[0] + "'");
+            }
+        }
+
+        private Worker start() throws TransformationException {
+            stop();
+            try {
+                Process process = new ProcessBuilder(cmdLineParts).redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+                BlockingQueue<Optional<String>> output = new LinkedBlockingQueue<>();
+                threadFactory.newThread(() -> readOutput(process, output)).start();
+                Worker newWorker = new Worker(process,
+                        new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8), output);
+                worker = newWorker;
+                logger.debug("Started exec transformation worker '{}'", String.join(" ", cmdLineParts));
+                return newWorker;
+            } catch (IOException e) {
+                throw new TransformationException("Failed to start worker '" + cmdLineParts[0] + "'", e);
+            }
+        }
+
+        private void readOutput(Process process, BlockingQueue<Optional<String>> output) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.add(Optional.of(line));
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to read output of worker '{}': {}", cmdLineParts[0], e.getMessage());
+            }
+            // wake up a waiting request
+            output.add(Optional.empty());
+        }
+
+        synchronized void stop() {
+            Worker localWorker = worker;
+            worker = null;
+            if (localWorker != null) {
+                logger.debug("Stopping exec transformation worker '{}'", String.join(" ", cmdLineParts));
+                try {
+                    localWorker.input().close();
+                } catch (IOException e) {
+                    // the process is destroyed anyway
+                }
+                localWorker.process().destroy();
+            }
+        }
+    }
+}
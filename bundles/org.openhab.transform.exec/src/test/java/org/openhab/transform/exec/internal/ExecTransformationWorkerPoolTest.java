@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests the {@link ExecTransformationWorkerPool} with real worker processes
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@DisabledOnOs(OS.WINDOWS)
+public class ExecTransformationWorkerPoolTest {
+
+    private static final String[] CAT = { "cat" };
+    // answers the first request and exits
+    private static final String[] HEAD = { "head", "-n", "1" };
+    // never answers
+    private static final String[] SLEEP = { "sleep", "10" };
+
+    private @NonNullByDefault({}) ExecTransformationWorkerPool pool;
+
+    @BeforeEach
+    public void init() {
+        pool = new ExecTransformationWorkerPool(2, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.dispose();
+    }
+
+    @Test
+    public void testWorkerAnswers() throws TransformationException {
+        assertEquals("hello", pool.process(CAT, "hello"));
+        assertEquals("hello world", pool.process(CAT, "hello\nworld"));
+        assertEquals("again", pool.process(CAT, "again"));
+    }
+
+    @Test
+    public void testWorkerTimeout() {
+        TransformationException e = assertThrows(TransformationException.class, () -> pool.process(SLEEP, "hello"));
+        assertTrue(String.valueOf(e.getMessage()).contains("didn't answer"));
+    }
+
+    @Test
+    public void testWorkerIsRestartedAfterExit() throws TransformationException {
+        // one worker, so every request goes to the same slot
+        pool.dispose();
+        pool = new ExecTransformationWorkerPool(1, Duration.ofMillis(500));
+        assertEquals("first", pool.process(HEAD, "first"));
+
+        // the exit of the worker is noticed by the next request at the latest, the one after is answered again
+        String answer;
+        try {
+            answer = pool.process(HEAD, "second");
+        } catch (TransformationException e) {
+            answer = pool.process(HEAD, "second");
+        }
+        assertEquals("second", answer);
+    }
+
+    @Test
+    public void testDisposeStopsWorkers() throws Exception {
+        Set<ProcessHandle> before = ProcessHandle.current().children().collect(Collectors.toSet());
+        pool.process(CAT, "first");
+        pool.process(CAT, "second");
+        List<ProcessHandle> workers = ProcessHandle.current().children().filter(child -> !before.contains(child))
+                .toList();
+        assertEquals(2, workers.size());
+
+        pool.dispose();
+
+        for (ProcessHandle worker : workers) {
+            worker.onExit().get(5, TimeUnit.SECONDS);
+            assertFalse(worker.isAlive());
+        }
+
+        // no new worker is started after the pool has been disposed
+        assertThrows(TransformationException.class, () -> pool.process(CAT, "third"));
+        assertEquals(0, ProcessHandle.current().children()
+                .filter(child -> !before.contains(child) && !workers.contains(child)).count());
+    }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -24,6 +25,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.transform.jinja.internal.template.JinjaTemplateRenderer;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -44,10 +47,25 @@ import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 @Component(property = { "openhab.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of parsed templates kept, the least recently used ones are removed first
+     */
+    private static final int MAX_PARSED_TEMPLATES = 256;
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
     private final Jinjava jinjava = new Jinjava();
 
+    // guarded by itself, templates with errors are not kept
+    private final Map<String, Node> parsedTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+            return size() > MAX_PARSED_TEMPLATES;
+        }
+    };
+
     /**
      * Transforms the input <code>value</code> by Jinja template.
      *
@@ -72,7 +90,8 @@ public class JinjaTransformationService implements TransformationService {
         }
 
         try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = JinjaTemplateRenderer.render(jinjava, template, getParsedTemplate(template),
+                    bindings);
         } catch (FatalTemplateErrorsException e) {
             throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
         }
@@ -82,6 +101,19 @@ public class JinjaTransformationService implements TransformationService {
         return transformationResult;
     }
 
+    private @Nullable Node getParsedTemplate(String template) {
+        synchronized (parsedTemplates) {
+            Node tree = parsedTemplates.get(template);
+            if (tree == null) {
+                tree = JinjaTemplateRenderer.parse(jinjava, template);
+                if (tree != null) {
+                    parsedTemplates.put(template, tree);
+                }
+            }
+            return tree;
+        }
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal.template;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * The {@link JinjaTemplateRenderer} renders Jinja templates which have been parsed before, so a template doesn't need
+ * to be parsed again for each rendering like {@link Jinjava#render} does.
+ *
+ * The sources are shared by the Jinja transformation and the MQTT Home Assistant binding, which both embed their own
+ * copy of Jinjava.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class JinjaTemplateRenderer {
+
+    private JinjaTemplateRenderer() {
+        // static methods only
+    }
+
+    /**
+     * Parse a template
+     *
+     * @param jinjava the Jinjava instance the template is rendered with
+     * @param template the template
+     * @return the node tree, or null if the template has errors
+     */
+    public static @Nullable Node parse(Jinjava jinjava, String template) {
+        JinjavaInterpreter interpreter = jinjava.newInterpreter();
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            Node tree = interpreter.parse(template);
+            return interpreter.getErrorsCopy().isEmpty() ? tree : null;
+        } catch (RuntimeException e) {
+            return null;
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    /**
+     * Render a template like {@link Jinjava#render} does: with an interpreter of the configured interpreter factory,
+     * and resetting the global context afterwards. Templates with parse errors are rendered by
+     * {@link Jinjava#render}, so their errors are reported the same way.
+     *
+     * Unlike {@link Jinjava#render}, the context of an interpreter rendering on the same thread is not inherited.
+     * Transformations are not applied from within templates, so there is no such interpreter.
+     *
+     * @param jinjava the Jinjava instance the template has been parsed with
+     * @param template the template
+     * @param tree the node tree returned by {@link #parse}
+     * @param bindings the variables of the template
+     * @return the rendered template
+     * @throws FatalTemplateErrorsException if rendering failed
+     */
+    public static String render(Jinjava jinjava, String template, @Nullable Node tree, Map<String, ?> bindings)
+            throws FatalTemplateErrorsException {
+        if (tree == null) {
+            return jinjava.render(template, bindings);
+        }
+        JinjavaConfig config = jinjava.getGlobalConfig();
+        Context globalContext = jinjava.getGlobalContext();
+        Context context = new Context(globalContext, bindings, config.getDisabled());
+        JinjavaInterpreter interpreter = config.getInterpreterFactory().newInstance(jinjava, context, config);
+        String result;
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            result = interpreter.render(tree);
+        } catch (RuntimeException e) {
+            throw new FatalTemplateErrorsException(template, List.of(TemplateError.fromException(e)));
+        } finally {
+            globalContext.reset();
+            JinjavaInterpreter.popCurrent();
+        }
+        List<TemplateError> fatalErrors = interpreter.getErrorsCopy().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).toList();
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
+        return result;
+    }
+}
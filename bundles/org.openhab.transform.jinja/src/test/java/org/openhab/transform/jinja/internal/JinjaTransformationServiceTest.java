@@ -113,4 +113,15 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testParsedTemplateIsReused() throws TransformationException {
+        // when transforming several values with the same template
+        assertEquals("Hello world!", processor.transform("Hello {{ value }}!", "world"));
+        assertEquals("Hello moon!", processor.transform("Hello {{ value }}!", "moon"));
+
+        // then each value is rendered with its own bindings
+        assertEquals("2", processor.transform("{{ value_json.a + 1 }}", "{\"a\": 1}"));
+        assertEquals("3", processor.transform("{{ value_json.a + 1 }}", "{\"a\": 2}"));
+    }
 }
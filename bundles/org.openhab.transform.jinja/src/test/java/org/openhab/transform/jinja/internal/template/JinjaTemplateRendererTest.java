@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal.template;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * Tests the {@link JinjaTemplateRenderer}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JinjaTemplateRendererTest {
+
+    private final Jinjava jinjava = new Jinjava();
+
+    @Test
+    public void testParsedTemplateIsRenderedWithDifferentBindings() {
+        String template = "{% set unit = 'C' %}{{ value }} {{ unit }}";
+        Node tree = JinjaTemplateRenderer.parse(jinjava, template);
+        assertNotNull(tree);
+
+        assertEquals("20 C", JinjaTemplateRenderer.render(jinjava, template, tree, Map.of("value", 20)));
+        assertEquals("21 C", JinjaTemplateRenderer.render(jinjava, template, tree, Map.of("value", 21)));
+        // the variables of a rendering are not kept
+        assertEquals("", jinjava.render("{{ unit }}", Map.of()));
+        assertEquals(jinjava.render(template, Map.of("value", 22)),
+                JinjaTemplateRenderer.render(jinjava, template, tree, Map.of("value", 22)));
+    }
+
+    @Test
+    public void testTemplateWithErrorsIsNotParsed() {
+        String template = "Hello {{{ value }}!";
+
+        assertNull(JinjaTemplateRenderer.parse(jinjava, template));
+        assertThrows(FatalTemplateErrorsException.class,
+                () -> JinjaTemplateRenderer.render(jinjava, template, null, Map.of("value", "world")));
+    }
+}
@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +26,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -39,8 +42,39 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled expressions kept, the least recently used ones are removed first
+     */
+    private static final int MAX_CACHED_PATHS = 1000;
+
+    /**
+     * Maximum number of parsed documents kept. Things usually apply the expressions of all their channels to the
+     * same document one after another, so only the most recent documents are needed.
+     */
+    private static final int MAX_CACHED_DOCUMENTS = 16;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    // guarded by itself
+    private final Map<String, JsonPath> cachedPaths = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    // guarded by itself
+    private final Map<String, DocumentContext> cachedDocuments = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DocumentContext> eldest) {
+            return size() > MAX_CACHED_DOCUMENTS;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -62,7 +96,7 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getDocument(source).read(getPath(jsonPathExpression));
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -78,6 +112,34 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (cachedPaths) {
+            JsonPath path = cachedPaths.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                cachedPaths.put(jsonPathExpression, path);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Get the parsed document, parsing the source only if it isn't one of the recently transformed documents
+     */
+    private DocumentContext getDocument(String source) {
+        synchronized (cachedDocuments) {
+            DocumentContext document = cachedDocuments.get(source);
+            if (document != null) {
+                return document;
+            }
+        }
+        DocumentContext document = JsonPath.parse(source);
+        synchronized (cachedDocuments) {
+            cachedDocuments.put(source, document);
+        }
+        return document;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
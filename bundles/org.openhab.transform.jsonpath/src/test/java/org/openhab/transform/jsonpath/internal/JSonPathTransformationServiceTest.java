@@ -129,4 +129,16 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCachedDocument() throws TransformationException {
+        // all channels of a thing transform the same document
+        assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+        assertEquals("alice", processor.transform("$[1].name", JSON_ARRAY));
+        assertEquals("2", processor.transform("$[1].id", JSON_ARRAY));
+
+        // a new document with the same content is not parsed again, a changed one is
+        assertEquals("bob", processor.transform("$[0].name", new String(JSON_ARRAY)));
+        assertEquals("carol", processor.transform("$[0].name", JSON_ARRAY.replace("bob", "carol")));
+    }
 }
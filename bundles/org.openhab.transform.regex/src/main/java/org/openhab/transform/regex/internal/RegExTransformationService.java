@@ -12,6 +12,8 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +42,24 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled patterns kept, the least recently used ones are removed first
+     */
+    private static final int MAX_CACHED_PATTERNS = 1000;
+
+    private record PatternKey(String regex, int flags) {
+    }
+
+    // guarded by itself
+    private final Map<PatternKey, Pattern> cachedPatterns = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PatternKey, Pattern> eldest) {
+            return size() > MAX_CACHED_PATTERNS;
+        }
+    };
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +76,18 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher replaceMatcher = getPattern(regex, 0).matcher(source.trim());
             if ("g".equals(options)) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = replaceMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = replaceMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = getPattern("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +115,16 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private Pattern getPattern(String regex, int flags) {
+        PatternKey key = new PatternKey(regex, flags);
+        synchronized (cachedPatterns) {
+            Pattern pattern = cachedPatterns.get(key);
+            if (pattern == null) {
+                pattern = Pattern.compile(regex, flags);
+                cachedPatterns.put(key, pattern);
+            }
+            return pattern;
+        }
+    }
 }
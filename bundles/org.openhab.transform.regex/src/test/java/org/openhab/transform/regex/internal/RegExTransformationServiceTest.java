@@ -75,4 +75,17 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cachedPattern() throws TransformationException {
+        // method under test
+        String first = processor.transform("s/a/b/g", "aaa");
+        String second = processor.transform("s/a/b/g", "cac");
+        String matching = processor.transform("a(.*)", "abc");
+
+        // Asserts
+        assertEquals("bbb", first);
+        assertEquals("cbc", second);
+        assertEquals("bc", matching);
+    }
 }
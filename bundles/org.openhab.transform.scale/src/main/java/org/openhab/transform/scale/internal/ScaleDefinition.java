@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A parsed scale configuration, prepared for looking up many values.
+ *
+ * The limits of all ranges split the number line into intervals, with every limit being an interval of its own. Each
+ * range either contains an interval completely or not at all, so the label of the first matching range is determined
+ * once per interval. Looking up a value is then a binary search over the sorted limits.
+ *
+ * The format is split into its literal parts and placeholders, so formatting a result only appends the parts.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ScaleDefinition {
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    static final String FORMAT_VALUE = "%value%";
+    static final String FORMAT_LABEL = "%label%";
+
+    /** Sorted distinct limits of all ranges */
+    private final BigDecimal[] limits;
+
+    /**
+     * Label of each interval, or null if no range contains it. Interval <code>2 * i + 1</code> is the limit
+     * <code>i</code>, interval <code>2 * i</code> are the values between limit <code>i - 1</code> and limit
+     * <code>i</code>.
+     */
+    private final @Nullable String[] labels;
+
+    private final @Nullable String nonNumeric;
+
+    /** Literal parts of the format, and the placeholders {@link #FORMAT_VALUE} and {@link #FORMAT_LABEL} */
+    private final String[] formatParts;
+
+    /**
+     * Create a scale definition
+     *
+     * @param ranges ranges and their labels, in the order of the configuration
+     * @param nonNumeric label for non-numeric values, null if there is none
+     * @param format format of the result
+     */
+    ScaleDefinition(Map<Range, String> ranges, @Nullable String nonNumeric, String format) {
+        TreeSet<BigDecimal> sortedLimits = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                sortedLimits.add(range.min);
+            }
+            if (range.max != null) {
+                sortedLimits.add(range.max);
+            }
+        }
+        limits = sortedLimits.toArray(new BigDecimal[0]);
+
+        labels = new String[2 * limits.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal value = getIntervalValue(i);
+            labels[i] = ranges.entrySet().stream().filter(entry -> entry.getKey().contains(value)).findFirst()
+                    .map(Map.Entry::getValue).orElse(null);
+        }
+
+        this.nonNumeric = nonNumeric;
+        this.formatParts = splitFormat(format);
+    }
+
+    /**
+     * @return a value within the interval
+     */
+    private BigDecimal getIntervalValue(int interval) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (interval % 2 == 1) {
+            return limits[interval / 2];
+        } else if (interval == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (interval == 2 * limits.length) {
+            return limits[limits.length - 1].add(BigDecimal.ONE);
+        }
+        return limits[interval / 2 - 1].add(limits[interval / 2]).divide(TWO);
+    }
+
+    private static String[] splitFormat(String format) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (start < format.length()) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            int index = valueIndex < 0 || (labelIndex >= 0 && labelIndex < valueIndex) ? labelIndex : valueIndex;
+            if (index < 0) {
+                parts.add(format.substring(start));
+                break;
+            }
+            if (index > start) {
+                parts.add(format.substring(start, index));
+            }
+            String placeholder = index == valueIndex ? FORMAT_VALUE : FORMAT_LABEL;
+            parts.add(placeholder);
+            start = index + placeholder.length();
+        }
+        return parts.toArray(new String[0]);
+    }
+
+    /**
+     * Get the label of the first range containing the value
+     *
+     * @param value value
+     * @return label, or null if no range contains the value
+     */
+    @Nullable
+    String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value, BigDecimal::compareTo);
+        return labels[index >= 0 ? 2 * index + 1 : -2 * (index + 1)];
+    }
+
+    @Nullable
+    String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Format a result
+     *
+     * @param value source value
+     * @param label label of the range containing the value
+     * @return formatted result
+     */
+    String format(String value, String label) {
+        StringBuilder result = new StringBuilder();
+        for (String part : formatParts) {
+            if (FORMAT_VALUE.equals(part)) {
+                result.append(value);
+            } else if (FORMAT_LABEL.equals(part)) {
+                result.append(label);
+            } else {
+                result.append(part);
+            }
+        }
+        return result.toString();
+    }
+}
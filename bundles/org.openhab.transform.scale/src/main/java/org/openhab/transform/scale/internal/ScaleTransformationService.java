@@ -73,14 +73,9 @@ public class ScaleTransformationService
 
     private static final String NON_NUMBER = "NaN";
     private static final String FORMAT = "format";
-    private static final String FORMAT_VALUE = "%value%";
-    private static final String FORMAT_LABEL = "%label%";
-
-    /** Inaccessible range used to store presentation format ]0..0[ */
-    private static final Range FORMAT_RANGE = Range.range(BigDecimal.ZERO, false, BigDecimal.ZERO, false);
     private final TransformationRegistry transformationRegistry;
 
-    private final Map<String, Map<@Nullable Range, String>> cachedTransformations = new ConcurrentHashMap<>();
+    private final Map<String, ScaleDefinition> cachedTransformations = new ConcurrentHashMap<>();
 
     @Activate
     public ScaleTransformationService(@Reference TransformationRegistry transformationRegistry) {
@@ -150,7 +145,7 @@ public class ScaleTransformationService
             if (!cachedTransformations.containsKey(transformation.getUID())) {
                 importConfiguration(transformation);
             }
-            Map<@Nullable Range, String> data = cachedTransformations.get(transformation.getUID());
+            ScaleDefinition data = cachedTransformations.get(transformation.getUID());
 
             if (data != null) {
                 String target;
@@ -164,7 +159,7 @@ public class ScaleTransformationService
                         final QuantityType<?> quantity = new QuantityType<>(source);
                         return formatResult(data, source, quantity.toBigDecimal());
                     } catch (IllegalArgumentException e2) {
-                        String nonNumeric = data.get(null);
+                        String nonNumeric = data.getNonNumeric();
                         if (nonNumeric != null) {
                             target = nonNumeric;
                         } else {
@@ -181,25 +176,22 @@ public class ScaleTransformationService
         throw new TransformationException("Could not find configuration '" + function + "' or failed to parse it.");
     }
 
-    private String formatResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
+    private String formatResult(ScaleDefinition data, String source, final BigDecimal value)
             throws TransformationException {
-        String format = data.get(FORMAT_RANGE);
-        String result = getScaleResult(data, source, value);
-        return format.replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
-    }
-
-    private String getScaleResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        return data.entrySet().stream().filter(entry -> entry.getKey() != null && entry.getKey().contains(value))
-                .findFirst().map(Map.Entry::getValue)
-                .orElseThrow(() -> new TransformationException("No matching range for '" + source + "'"));
+        String result = data.getLabel(value);
+        if (result == null) {
+            throw new TransformationException("No matching range for '" + source + "'");
+        }
+        return data.format(source, result);
     }
 
     private void importConfiguration(@Nullable Transformation configuration) {
         if (configuration != null) {
             try {
-                final Map<@Nullable Range, String> data = new LinkedHashMap<>();
-                data.put(FORMAT_RANGE, FORMAT_LABEL);
+                final Map<Range, String> data = new LinkedHashMap<>();
+                @Nullable
+                String nonNumeric = null;
+                String format = ScaleDefinition.FORMAT_LABEL;
                 final OrderedProperties properties = new OrderedProperties();
                 String function = configuration.getConfiguration().get(Transformation.FUNCTION);
                 if (function == null) {
@@ -225,9 +217,9 @@ public class ScaleTransformationService
                         data.put(range, value);
                     } else {
                         if (NON_NUMBER.equals(entry)) {
-                            data.put(null, value);
+                            nonNumeric = value;
                         } else if (FORMAT.equals(entry)) {
-                            data.put(FORMAT_RANGE, value);
+                            format = value;
                         } else {
                             logger.warn(
                                     "Scale transformation configuration '{}' does not comply with syntax for entry : '{}', '{}'",
@@ -236,7 +228,7 @@ public class ScaleTransformationService
                     }
                 }
 
-                cachedTransformations.put(configuration.getUID(), data);
+                cachedTransformations.put(configuration.getUID(), new ScaleDefinition(data, nonNumeric, format));
             } catch (IOException | NumberFormatException ignored) {
             }
         }
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleDefinitionTest {
+
+    private static @Nullable String findLinear(Map<Range, String> ranges, BigDecimal value) {
+        return ranges.entrySet().stream().filter(entry -> entry.getKey().contains(value)).findFirst()
+                .map(Map.Entry::getValue).orElse(null);
+    }
+
+    @Test
+    public void testLookupMatchesFirstRange() {
+        Random random = new Random(42);
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        for (int i = 0; i < 300; i++) {
+            int low = random.nextInt(1000);
+            int high = low + random.nextInt(50);
+            ranges.put(Range.range(random.nextInt(20) == 0 ? null : BigDecimal.valueOf(low), random.nextBoolean(),
+                    random.nextInt(20) == 0 ? null : BigDecimal.valueOf(high), random.nextBoolean()), "band" + i);
+        }
+        ScaleDefinition definition = new ScaleDefinition(ranges, null, ScaleDefinition.FORMAT_LABEL);
+
+        for (int i = -100; i < 21000; i++) {
+            BigDecimal value = BigDecimal.valueOf(i, 1);
+            assertEquals(findLinear(ranges, value), definition.getLabel(value), "value " + value);
+        }
+    }
+
+    @Test
+    public void testEmptyAndUnboundedRanges() {
+        assertNull(new ScaleDefinition(Map.of(), null, ScaleDefinition.FORMAT_LABEL).getLabel(BigDecimal.TEN));
+
+        ScaleDefinition all = new ScaleDefinition(Map.of(Range.all(), "all"), null, ScaleDefinition.FORMAT_LABEL);
+        assertEquals("all", all.getLabel(BigDecimal.valueOf(-1e9)));
+        assertEquals("all", all.getLabel(BigDecimal.valueOf(1e9)));
+    }
+
+    @Test
+    public void testFormat() {
+        ScaleDefinition definition = new ScaleDefinition(Map.of(), "Non Numeric", "%label% (%value%) %value%$ !");
+        assertEquals("$1 (12) 12$ !", definition.format("12", "$1"));
+        assertEquals("12", new ScaleDefinition(Map.of(), null, "%value%").format("12", "label"));
+        assertEquals("no placeholder", new ScaleDefinition(Map.of(), null, "no placeholder").format("12", "label"));
+    }
+}
@@ -13,12 +13,15 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -41,8 +44,23 @@ import org.xml.sax.InputSource;
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled expressions kept, the least recently used ones are removed first
+     */
+    private static final int MAX_CACHED_EXPRESSIONS = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    // guarded by itself
+    private final Map<String, XPathExpression> cachedExpressions = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -71,10 +89,13 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = getExpression(xpathExpression);
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            // compiled expressions are not thread-safe
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -87,4 +108,16 @@ public class XPathTransformationService implements TransformationService {
             }
         }
     }
+
+    private XPathExpression getExpression(String xpathExpression) throws XPathExpressionException {
+        synchronized (cachedExpressions) {
+            XPathExpression expr = cachedExpressions.get(xpathExpression);
+            if (expr == null) {
+                XPath xpath = XPathFactory.newInstance().newXPath();
+                expr = xpath.compile(xpathExpression);
+                cachedExpressions.put(xpathExpression, expr);
+            }
+            return expr;
+        }
+    }
 }
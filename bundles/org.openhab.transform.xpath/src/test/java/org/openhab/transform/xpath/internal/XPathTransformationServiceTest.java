@@ -38,4 +38,15 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXPath_cachedExpression() throws TransformationException {
+        // method under test
+        String first = processor.transform("//current_conditions/temp_c/@data", source);
+        String second = processor.transform("//current_conditions/temp_c/@data", source.replace("\"8\"", "\"9\""));
+
+        // Asserts
+        assertEquals("8", first);
+        assertEquals("9", second);
+    }
 }
@@ -15,9 +15,12 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -41,8 +44,29 @@ import org.slf4j.LoggerFactory;
 @Component(property = { "openhab.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled stylesheets kept, the least recently used ones are removed first
+     */
+    private static final int MAX_CACHED_TEMPLATES = 100;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /**
+     * Compiled stylesheet, and the modification time of the file it was compiled from
+     */
+    private record CachedTemplates(long lastModified, Templates templates) {
+    }
+
+    // guarded by itself
+    private final Map<String, CachedTemplates> cachedTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedTemplates> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +84,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File xsl = null;
 
         try {
             String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
                     + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = new File(path);
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -81,7 +105,7 @@ public class XsltTransformationService implements TransformationService {
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            transformer = getTemplates(xsl).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -92,4 +116,24 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    /**
+     * Get the compiled stylesheet of a file, compiling it again if the file has been modified
+     */
+    private Templates getTemplates(File file) throws TransformerConfigurationException {
+        String key = file.getPath();
+        long lastModified = file.lastModified();
+        synchronized (cachedTemplates) {
+            CachedTemplates cached = cachedTemplates.get(key);
+            if (cached != null && cached.lastModified() == lastModified) {
+                return cached.templates();
+            }
+        }
+
+        Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(file));
+        synchronized (cachedTemplates) {
+            cachedTemplates.put(key, new CachedTemplates(lastModified, templates));
+        }
+        return templates;
+    }
 }
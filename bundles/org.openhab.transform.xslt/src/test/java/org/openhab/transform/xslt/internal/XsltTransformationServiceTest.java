@@ -14,6 +14,11 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.transform.TransformationException;
@@ -38,4 +43,23 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXSLT_modifiedStylesheet() throws TransformationException, IOException {
+        Path stylesheet = Path.of("conf", "transform", "http", "modified.xsl");
+        try {
+            Files.copy(Path.of("conf", "transform", "http", "google_weather.xsl"), stylesheet);
+            // method under test
+            assertEquals("8", processor.transform("http/modified.xsl", source));
+
+            Files.writeString(stylesheet, Files.readString(stylesheet).replace("temp_c", "temp_f"));
+            Files.setLastModifiedTime(stylesheet,
+                    FileTime.fromMillis(Files.getLastModifiedTime(stylesheet).toMillis() + 1000));
+
+            // Asserts
+            assertEquals("46", processor.transform("http/modified.xsl", source));
+        } finally {
+            Files.deleteIfExists(stylesheet);
+        }
+    }
 }
@@ -1366,4 +1366,41 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         dataConfig.put("writeTransform", "JS(myJsonTransform.js)");
         testInitGeneric(null, dataConfig, status -> assertThat(status.getStatus(), is(equalTo(ThingStatus.ONLINE))));
     }
+
+    @Test
+    public void testUnchangedValuesAreUpdatedOnlyAfterInterval() throws InterruptedException {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502, false);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryMillis", 1000);
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+        String itemName = getItemName(new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER));
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(5, 0, 0)));
+        waitForAssert(() -> assertThat(getStateUpdates(itemName), is(equalTo(List.of(new DecimalType(5))))));
+
+        // the unchanged value is skipped, the changed one is sent right away
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(5, 0, 0)));
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(6, 0, 0)));
+        waitForAssert(() -> assertThat(getStateUpdates(itemName),
+                is(equalTo(List.of(new DecimalType(5), new DecimalType(6))))));
+
+        // the unchanged value is sent again once the interval has passed
+        Thread.sleep(1100);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(6, 0, 0)));
+        waitForAssert(() -> assertThat(getStateUpdates(itemName),
+                is(equalTo(List.of(new DecimalType(5), new DecimalType(6), new DecimalType(6))))));
+    }
 }